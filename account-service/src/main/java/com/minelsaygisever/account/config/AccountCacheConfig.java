@@ -0,0 +1,32 @@
+package com.minelsaygisever.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.account.dto.AccountDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "account.cache", name = "redis-enabled", havingValue = "true")
+public class AccountCacheConfig {
+
+    @Bean
+    public ReactiveRedisTemplate<String, AccountDto> accountCacheRedisTemplate(ReactiveRedisConnectionFactory factory,
+                                                                               ObjectMapper objectMapper) {
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+        Jackson2JsonRedisSerializer<AccountDto> valueSerializer =
+                new Jackson2JsonRedisSerializer<>(objectMapper, AccountDto.class);
+
+        RedisSerializationContext<String, AccountDto> serializationContext = RedisSerializationContext
+                .<String, AccountDto>newSerializationContext(keySerializer)
+                .value(valueSerializer)
+                .build();
+
+        return new ReactiveRedisTemplate<>(factory, serializationContext);
+    }
+}
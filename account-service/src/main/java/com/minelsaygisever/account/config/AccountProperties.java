@@ -1,5 +1,6 @@
 package com.minelsaygisever.account.config;
 
+import com.minelsaygisever.common.codec.PayloadFormat;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -27,7 +28,25 @@ public record AccountProperties(
         CleanupProperties cleanup,
 
         @DefaultValue
-        BackoffProperties backoff
+        BackoffProperties backoff,
+
+        @DefaultValue
+        StripingProperties striping,
+
+        @DefaultValue
+        MailboxProperties mailbox,
+
+        @DefaultValue
+        ConsumerProperties consumer,
+
+        @DefaultValue
+        MetricsProperties metrics,
+
+        @DefaultValue
+        DedupeProperties dedupe,
+
+        @DefaultValue
+        CacheProperties cache
 ) {
         public record OutboxProperties(
 
@@ -44,7 +63,14 @@ public record AccountProperties(
                 Duration pollingInterval,
 
                 @DefaultValue("5")
-                Integer maxRetries
+                Integer maxRetries,
+
+                @DefaultValue("false")
+                Boolean notifyEnabled,
+
+                // BINARY writes new events with EventCodec; consumers accept both formats
+                @DefaultValue("JSON")
+                PayloadFormat payloadFormat
         ) {}
 
         public record CleanupProperties(
@@ -55,7 +81,13 @@ public record AccountProperties(
                 Duration retentionPeriod,
 
                 @DefaultValue("500")
-                Integer batchSize
+                Integer batchSize,
+
+                @DefaultValue("false")
+                Boolean partitioned,
+
+                @DefaultValue("3")
+                Integer partitionsAhead
         ) {}
 
         public record BackoffProperties(
@@ -68,4 +100,91 @@ public record AccountProperties(
                 @DefaultValue("2.0")
                 Double multiplier
         ) {}
+
+        public record StripingProperties(
+                @DefaultValue("8")
+                Integer defaultSlots
+        ) {}
+
+        public record MailboxProperties(
+                @DefaultValue("false")
+                Boolean enabled,
+
+                @DefaultValue("100")
+                Integer maxBatchSize
+        ) {}
+
+        public record ConsumerProperties(
+                // Lanes per consumer binding; keep the sum across bindings within the R2DBC pool size
+                @DefaultValue("3")
+                Integer concurrency,
+
+                @DefaultValue("3")
+                Integer maxAttempts,
+
+                @DefaultValue("1000ms")
+                Duration backoffInitialInterval,
+
+                @DefaultValue("account-consumer-dlq-0")
+                String dlqBindingName,
+
+                // Applies up to batchSize events of one binding in a single transaction
+                @DefaultValue("false")
+                Boolean batchEnabled,
+
+                @DefaultValue("100")
+                Integer batchSize,
+
+                @DefaultValue("10ms")
+                Duration batchMaxWait
+        ) {}
+
+        public record MetricsProperties(
+                @DefaultValue("15s")
+                Duration outboxGaugeInterval
+        ) {}
+
+        public record DedupeProperties(
+                // Recently committed keys answered in process; 0 disables
+                @DefaultValue("100000")
+                Integer recentCapacity,
+
+                @DefaultValue("0 5 0 * * *")
+                String cron,
+
+                // Must outlive the longest redelivery window (topic retention), or old events apply again
+                @DefaultValue("8d")
+                Duration retentionPeriod,
+
+                @DefaultValue("1000")
+                Integer batchSize,
+
+                @DefaultValue("false")
+                Boolean partitioned,
+
+                @DefaultValue("3")
+                Integer partitionsAhead,
+
+                @DefaultValue("1000000")
+                Integer bloomExpectedKeys,
+
+                @DefaultValue("0.01")
+                Double bloomFalsePositiveRate
+        ) {}
+
+        public record CacheProperties(
+                @DefaultValue("true")
+                Boolean enabled,
+
+                @DefaultValue("10000")
+                Integer maximumSize,
+
+                // Upper bound on how old a served balance can be when an invalidation event is lost
+                @DefaultValue("5s")
+                Duration maxStaleness,
+
+                // Shared second tier across replicas; needs spring.data.redis.*
+                @DefaultValue("false")
+                Boolean redisEnabled
+        ) {}
 }
@@ -0,0 +1,53 @@
+package com.minelsaygisever.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.util.MimeType;
+
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventPayloadSerializer eventPayloadSerializer(ObjectMapper objectMapper, AccountProperties properties) {
+        return new EventPayloadSerializer(objectMapper, properties.outbox().payloadFormat());
+    }
+
+    /**
+     * Picked up by the binder next to the JSON converter. It only claims messages carrying the codec
+     * content type, so JSON events keep going through Jackson.
+     */
+    @Bean
+    public MessageConverter eventCodecMessageConverter() {
+        return new EventCodecMessageConverter();
+    }
+
+    static class EventCodecMessageConverter extends AbstractMessageConverter {
+
+        EventCodecMessageConverter() {
+            super(MimeType.valueOf(EventCodec.CONTENT_TYPE));
+            setStrictContentTypeMatch(true);
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return EventCodec.supports(clazz);
+        }
+
+        @Override
+        protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+            return message.getPayload() instanceof byte[] bytes ? EventCodec.decode(bytes, targetClass) : null;
+        }
+
+        @Override
+        protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+            return EventCodec.encode(payload);
+        }
+    }
+}
@@ -40,4 +40,10 @@ public class AccountController implements AccountApi {
         return accountService.withdraw(id, amount, currency)
                 .thenReturn(ResponseEntity.ok().build());
     }
+
+    @Override
+    public Mono<ResponseEntity<AccountDto>> enableStriping(String id, Integer slots) {
+        return accountService.enableStriping(id, slots)
+                .map(ResponseEntity::ok);
+    }
 }
@@ -12,6 +12,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -95,4 +97,25 @@ public interface AccountApi {
             @Size(min = 3, max = 3, message = "Currency code must be 3 characters")
             String currency
     );
+
+
+    @Operation(summary = "Enable Balance Striping", description = "Spreads the balance of a high-traffic account over several slots so concurrent credits do not contend on one row.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account is striped",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AccountDto.class))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "422", description = "Account not active",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/{id}/striping")
+    Mono<ResponseEntity<AccountDto>> enableStriping(
+            @Parameter(description = "Account ID", example = "1")
+            @PathVariable String id,
+
+            @Parameter(description = "Number of balance slots (defaults to account.striping.default-slots)", example = "8")
+            @RequestParam(required = false) @Min(value = 2, message = "At least 2 slots are required")
+            @Max(value = 64, message = "At most 64 slots are allowed")
+            Integer slots
+    );
 }
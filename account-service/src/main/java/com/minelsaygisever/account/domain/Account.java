@@ -45,6 +45,11 @@ public class Account {
     @Column("daily_limit")
     private BigDecimal dailyLimit;
 
+    // 0 for plain accounts; otherwise the balance is spread over this many account_balance_slots rows
+    @Builder.Default
+    @Column("balance_slots")
+    private Integer balanceSlots = 0;
+
     @Version
     @Column("version")
     private Long version;
@@ -57,6 +62,10 @@ public class Account {
     @Column("updated_at")
     private LocalDateTime updatedAt;
 
+    public boolean isStriped() {
+        return balanceSlots != null && balanceSlots > 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
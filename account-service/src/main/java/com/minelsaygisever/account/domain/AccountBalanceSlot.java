@@ -0,0 +1,32 @@
+package com.minelsaygisever.account.domain;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * One stripe of a striped account's balance. Only read and written through
+ * {@link com.minelsaygisever.account.repository.AccountBalanceSlotRepository} queries.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("account_balance_slots")
+public class AccountBalanceSlot {
+
+    @Id
+    @Column("account_id")
+    private Long accountId;
+
+    @Column("slot")
+    private Integer slot;
+
+    @Column("balance")
+    private BigDecimal balance;
+}
@@ -0,0 +1,105 @@
+package com.minelsaygisever.account.job;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.account.service.TransactionDeduplicator;
+import com.minelsaygisever.common.persistence.DailyPartitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retention for the dedupe table. Keys older than the retention period can no longer be redelivered,
+ * so they are deleted in batches, or dropped a whole daily partition at a time in partitioned mode.
+ */
+@Component
+@Slf4j
+public class ProcessedTransactionCleanupJob {
+
+    private final ProcessedTransactionRepository processedTransactionRepository;
+    private final TransactionDeduplicator deduplicator;
+    private final AccountProperties properties;
+    private final DailyPartitions partitions;
+
+    public ProcessedTransactionCleanupJob(ProcessedTransactionRepository processedTransactionRepository,
+                                          TransactionDeduplicator deduplicator, AccountProperties properties,
+                                          DatabaseClient databaseClient) {
+        this.processedTransactionRepository = processedTransactionRepository;
+        this.deduplicator = deduplicator;
+        this.properties = properties;
+        this.partitions = new DailyPartitions(databaseClient, "processed_transactions");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareDedupePartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        createPartitions()
+                .then(deduplicator.rebuildHistory())
+                .subscribe(
+                        keys -> log.info("Dedupe partitions ensured; history filter loaded with {} keys", keys),
+                        error -> log.error("Dedupe partition setup failed", error)
+                );
+    }
+
+    @Scheduled(cron = "${account.dedupe.cron:0 5 0 * * *}")
+    public void cleanupProcessedTransactions() {
+        LocalDateTime threshold = LocalDateTime.now().minus(properties.dedupe().retentionPeriod());
+
+        if (isPartitioned()) {
+            log.info("Starting Dedupe Partition Maintenance. Dropping partitions before: {}", threshold);
+
+            // Keys that fell into the default partition are deleted in batches. The rebuild also folds the day
+            // that just closed into the history filter.
+            createPartitions()
+                    .then(partitions.dropExpired(threshold))
+                    .zipWhen(dropped -> deleteBatch(threshold, properties.dedupe().batchSize()))
+                    .flatMap(result -> deduplicator.rebuildHistory().thenReturn(result))
+                    .subscribe(
+                            result -> log.info("Dedupe Partition Maintenance Finished. Dropped partitions: {}, deleted rows: {}",
+                                    result.getT1(), result.getT2()),
+                            error -> log.error("Dedupe Partition Maintenance Failed", error)
+                    );
+            return;
+        }
+
+        log.info("Starting Dedupe Cleanup. Deleting keys processed before: {}", threshold);
+
+        deleteBatch(threshold, properties.dedupe().batchSize())
+                .subscribe(
+                        totalDeleted -> log.info("Dedupe Cleanup Finished. Total deleted rows: {}", totalDeleted),
+                        error -> log.error("Dedupe Cleanup Failed", error)
+                );
+    }
+
+    private Mono<Integer> deleteBatch(LocalDateTime threshold, int batchSize) {
+        return processedTransactionRepository.deleteProcessedBefore(threshold, batchSize)
+                .flatMap(deletedCount -> {
+                    if (deletedCount > 0) {
+                        log.debug("Deleted {} rows. Continuing...", deletedCount);
+                        return deleteBatch(threshold, batchSize)
+                                .map(nextCount -> deletedCount + nextCount);
+                    } else {
+                        return Mono.just(0);
+                    }
+                });
+    }
+
+    // --- Partitioned mode: one daily range partition per day on processed_on ---
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(properties.dedupe().partitioned());
+    }
+
+    private Mono<Long> createPartitions() {
+        return partitions.create(properties.dedupe().partitionsAhead());
+    }
+}
@@ -0,0 +1,54 @@
+package com.minelsaygisever.account.listener;
+
+import com.minelsaygisever.account.service.AccountCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Evicts cached balances on every replica. Each balance change of the saga commits an outbox event keyed
+ * by the account id, so the published {@code account-events} double as invalidation messages.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCacheInvalidationListener {
+
+    private static final String PARTITION_KEY_HEADER = "partitionKey";
+
+    private final AccountCache accountCache;
+
+    @Bean
+    public Function<Flux<Message<byte[]>>, Mono<Void>> accountCacheInvalidation() {
+        return flux -> flux
+                .concatMap(message -> {
+                    Long accountId = accountId(message);
+                    if (accountId == null) {
+                        return Mono.empty();
+                    }
+                    log.debug("Evicting cached account {} on {}", accountId, message.getHeaders().get("eventType"));
+                    return accountCache.evict(accountId);
+                })
+                .then();
+    }
+
+    private Long accountId(Message<byte[]> message) {
+        Object header = message.getHeaders().get(PARTITION_KEY_HEADER);
+        String value = header instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(header);
+
+        try {
+            // Headers mapped without type info arrive JSON-quoted
+            return Long.valueOf(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            log.warn("Account event without a usable partition key: {}", header);
+            return null;
+        }
+    }
+}
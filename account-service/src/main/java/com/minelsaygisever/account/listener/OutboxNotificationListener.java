@@ -0,0 +1,38 @@
+package com.minelsaygisever.account.listener;
+
+import com.minelsaygisever.common.persistence.OutboxNotifications;
+import com.minelsaygisever.account.service.AccountOutboxPublisher;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the outbox as soon as the outbox insert trigger fires {@code pg_notify}. The scheduled poll in
+ * {@link AccountOutboxPublisher} stays as a safety net for lost notifications and delayed retries.
+ */
+@Component
+@ConditionalOnProperty(prefix = "account.outbox", name = "notify-enabled", havingValue = "true")
+public class OutboxNotificationListener {
+
+    // Fixed by notify_outbox_insert() in schema.sql; the trigger and the listener have to agree on it
+    static final String CHANNEL = "account_outbox";
+
+    private final OutboxNotifications notifications;
+
+    public OutboxNotificationListener(ConnectionFactory connectionFactory, AccountOutboxPublisher outboxPublisher) {
+        this.notifications = new OutboxNotifications(connectionFactory, CHANNEL, outboxPublisher::drainOutbox);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        notifications.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        notifications.stop();
+    }
+}
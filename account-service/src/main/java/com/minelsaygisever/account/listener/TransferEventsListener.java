@@ -1,5 +1,11 @@
 package com.minelsaygisever.account.listener;
 
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.exception.EventPublishingException;
+import com.minelsaygisever.account.service.AccountBatchProcessor;
+import com.minelsaygisever.account.service.AccountCommand;
+import com.minelsaygisever.account.service.EventFlowMetrics;
+import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
 import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
 import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
@@ -9,10 +15,26 @@ import com.minelsaygisever.account.service.handler.TransferRefundHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.util.function.Consumer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
 
 @Configuration
 @RequiredArgsConstructor
@@ -22,44 +44,180 @@ public class TransferEventsListener {
     private final TransferDebitHandler debitHandler;
     private final TransferCreditHandler creditHandler;
     private final TransferRefundHandler refundHandler;
+    private final StreamBridge streamBridge;
+    private final AccountProperties properties;
+    private final EventFlowMetrics eventFlowMetrics;
+    private final AccountBatchProcessor batchProcessor;
 
     // --- DEBIT ---
     @Bean
-    public Consumer<TransferInitiatedEvent> transferInitiated() {
-        return event -> {
-            log.info("EVENT RECEIVED: Transfer Initiated (Debit) for Tx: {}", event.transactionId());
-
-            debitHandler.handle(event)
-                    .doOnSuccess(v -> log.info("DEBIT SUCCESS: Tx: {}", event.transactionId()))
-                    .doOnError(e -> log.error("DEBIT ERROR: Tx: {}", event.transactionId(), e))
-                    .subscribe();
-        };
+    public Function<Flux<Message<TransferInitiatedEvent>>, Mono<Void>> transferInitiated() {
+        return messages -> consume(messages, "DEBIT", EventType.TRANSFER_INITIATED,
+                TransferInitiatedEvent::senderAccountId,
+                TransferInitiatedEvent::transactionId,
+                debitHandler::toCommand,
+                debitHandler::handle);
     }
 
     // --- CREDIT ---
     @Bean
-    public Consumer<TransferDepositRequestedEvent> transferDepositRequested() {
-        return event -> {
-            log.info("EVENT RECEIVED: Transfer Deposit (Credit) for Tx: {}", event.transactionId());
-
-            creditHandler.handle(event)
-                    .doOnSuccess(v -> log.info("CREDIT SUCCESS: Tx: {}", event.transactionId()))
-                    .doOnError(e -> log.error("CREDIT ERROR: Tx: {}", event.transactionId(), e))
-                    .subscribe();
-        };
+    public Function<Flux<Message<TransferDepositRequestedEvent>>, Mono<Void>> transferDepositRequested() {
+        return messages -> consume(messages, "CREDIT", EventType.TRANSFER_DEPOSIT_REQUESTED,
+                TransferDepositRequestedEvent::receiverAccountId,
+                TransferDepositRequestedEvent::transactionId,
+                creditHandler::toCommand,
+                creditHandler::handle);
     }
 
     // --- REFUND ---
     @Bean
-    public Consumer<TransferRefundRequestedEvent> transferRefundRequested() {
-        return event -> {
-            log.info("EVENT RECEIVED: Transfer Refund for Tx: {}", event.transactionId());
-
-            refundHandler.handle(event)
-                    .doOnSuccess(v -> log.info("REFUND SUCCESS: Tx: {}", event.transactionId()))
-                    .doOnError(e -> log.error("REFUND ERROR: Tx: {}", event.transactionId(), e))
-                    .subscribe();
+    public Function<Flux<Message<TransferRefundRequestedEvent>>, Mono<Void>> transferRefundRequested() {
+        return messages -> consume(messages, "REFUND", EventType.TRANSFER_REFUND_REQUESTED,
+                TransferRefundRequestedEvent::senderAccountId,
+                TransferRefundRequestedEvent::transactionId,
+                refundHandler::toCommand,
+                refundHandler::handle);
+    }
+
+    /**
+     * Lanes acknowledge their records out of order. With async acks the container commits an offset
+     * only once every record before it has been acknowledged.
+     */
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> transferListenerContainerCustomizer() {
+        return (container, destinationName, group) -> {
+            if (container.getContainerProperties().getAckMode() == ContainerProperties.AckMode.MANUAL) {
+                container.getContainerProperties().setAsyncAcks(true);
+            }
         };
     }
 
+    /**
+     * Spreads events over a fixed number of lanes by account id, so events touching the same account
+     * are handled in order while at most {@code concurrency} handler transactions are in flight.
+     * The offset is acknowledged only after the handler's transaction completes.
+     */
+    private <T> Mono<Void> consume(Flux<Message<T>> messages,
+                                   String operation,
+                                   EventType eventType,
+                                   Function<T, String> accountId,
+                                   Function<T, UUID> transactionId,
+                                   Function<T, AccountCommand> toCommand,
+                                   Function<T, Mono<Void>> handler) {
+        if (Boolean.TRUE.equals(properties.consumer().batchEnabled())) {
+            return consumeBatches(messages, operation, eventType, transactionId, toCommand, handler);
+        }
+
+        int concurrency = properties.consumer().concurrency();
+
+        return messages
+                .doOnNext(message -> eventFlowMetrics.recordReceived(eventType, message))
+                .groupBy(message -> Math.floorMod(String.valueOf(accountId.apply(message.getPayload())).hashCode(), concurrency))
+                .flatMap(lane -> lane.concatMap(message -> process(message, operation, eventType, transactionId, handler)), concurrency)
+                .then();
+    }
+
+    private <T> Mono<Void> process(Message<T> message,
+                                   String operation,
+                                   EventType eventType,
+                                   Function<T, UUID> transactionId,
+                                   Function<T, Mono<Void>> handler) {
+        T event = message.getPayload();
+        UUID txId = transactionId.apply(event);
+
+        log.info("EVENT RECEIVED: {} for Tx: {}", operation, txId);
+
+        // Binder retry and DLQ do not apply to reactive functions, so both are handled here.
+        return eventFlowMetrics.timeHandler(eventType, Mono.defer(() -> handler.apply(event)))
+                .retryWhen(retryStrategy(operation, txId))
+                .doOnSuccess(v -> log.info("{} SUCCESS: Tx: {}", operation, txId))
+                .onErrorResume(ex -> {
+                    log.error("{} ERROR: Tx: {}", operation, txId, ex);
+                    return sendToDeadLetterQueue(message, ex);
+                })
+                .then(Mono.fromRunnable(() -> acknowledge(message)))
+                .onErrorResume(ex -> {
+                    // Leave the offset unacknowledged; the record is redelivered after a rebalance or restart.
+                    log.error("CRITICAL: {} event could not be handled nor dead-lettered. Tx: {}", operation, txId, ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Applies up to {@code batchSize} events per transaction through the {@link AccountBatchProcessor}, so
+     * the commit cost is paid once per batch instead of once per event. Events the batch could not settle
+     * (rejected refunds, or the whole batch after an infrastructure error) take the per-event path with its
+     * retries and DLQ. Offsets are acknowledged in order once each event is settled.
+     */
+    private <T> Mono<Void> consumeBatches(Flux<Message<T>> messages,
+                                          String operation,
+                                          EventType eventType,
+                                          Function<T, UUID> transactionId,
+                                          Function<T, AccountCommand> toCommand,
+                                          Function<T, Mono<Void>> handler) {
+        return messages
+                .doOnNext(message -> eventFlowMetrics.recordReceived(eventType, message))
+                .bufferTimeout(properties.consumer().batchSize(), properties.consumer().batchMaxWait())
+                .concatMap(batch -> processBatch(batch, operation, eventType, transactionId, toCommand, handler))
+                .then();
+    }
+
+    private <T> Mono<Void> processBatch(List<Message<T>> batch,
+                                        String operation,
+                                        EventType eventType,
+                                        Function<T, UUID> transactionId,
+                                        Function<T, AccountCommand> toCommand,
+                                        Function<T, Mono<Void>> handler) {
+        log.info("EVENT BATCH RECEIVED: {} x{}", operation, batch.size());
+
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return batchProcessor.process(batch.stream()
+                                    .map(message -> toCommand.apply(message.getPayload()))
+                                    .toList())
+                            .doOnNext(outcomes -> eventFlowMetrics.recordBatchHandled(eventType,
+                                    Duration.ofNanos(System.nanoTime() - start), batch.size(),
+                                    (int) Arrays.stream(outcomes).filter(Objects::isNull).count()));
+                })
+                .onErrorResume(ex -> {
+                    log.warn("{} batch of {} failed; handling its events one by one", operation, batch.size(), ex);
+                    Throwable[] outcomes = new Throwable[batch.size()];
+                    Arrays.fill(outcomes, ex);
+                    return Mono.just(outcomes);
+                })
+                .flatMapMany(outcomes -> Flux.range(0, batch.size())
+                        .concatMap(i -> outcomes[i] == null
+                                ? Mono.fromRunnable(() -> acknowledge(batch.get(i)))
+                                : process(batch.get(i), operation, eventType, transactionId, handler)))
+                .then();
+    }
+
+    private Mono<Void> sendToDeadLetterQueue(Message<?> message, Throwable cause) {
+        return Mono.fromRunnable(() -> {
+            String dlqBindingName = properties.consumer().dlqBindingName();
+            log.warn("Sending transfer event to DLQ Binding: {}", dlqBindingName);
+
+            Message<?> dlqMessage = MessageBuilder
+                    .withPayload(message.getPayload())
+                    .setHeader("x-exception-message", String.valueOf(cause.getMessage()))
+                    .build();
+
+            if (!streamBridge.send(dlqBindingName, dlqMessage)) {
+                throw new EventPublishingException("Failed to send transfer event to DLQ");
+            }
+        });
+    }
+
+    private Retry retryStrategy(String operation, UUID txId) {
+        return Retry.backoff(properties.consumer().maxAttempts() - 1, properties.consumer().backoffInitialInterval())
+                .doBeforeRetry(signal -> log.warn("Retrying {} event. Tx: {} Attempt: {}", operation, txId, signal.totalRetries() + 1));
+    }
+
+    private void acknowledge(Message<?> message) {
+        Acknowledgment acknowledgment = message.getHeaders().get(KafkaHeaders.ACKNOWLEDGMENT, Acknowledgment.class);
+        if (acknowledgment != null) {
+            acknowledgment.acknowledge();
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.minelsaygisever.account.repository;
+
+import com.minelsaygisever.account.domain.AccountBalanceSlot;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface AccountBalanceSlotRepository extends R2dbcRepository<AccountBalanceSlot, Long> {
+
+    @Query("""
+        UPDATE account_balance_slots
+        SET balance = balance + :amount
+        WHERE account_id = :accountId AND slot = :slot
+        RETURNING *
+    """)
+    Mono<AccountBalanceSlot> creditSlot(Long accountId, int slot, BigDecimal amount);
+
+    // Random slot that covers the whole amount; slots locked by concurrent debits are skipped.
+    @Query("""
+        UPDATE account_balance_slots
+        SET balance = balance - :amount
+        WHERE (account_id, slot) = (
+            SELECT account_id, slot FROM account_balance_slots
+            WHERE account_id = :accountId AND balance >= :amount
+            ORDER BY random()
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING *
+    """)
+    Mono<AccountBalanceSlot> debitSingleSlot(Long accountId, BigDecimal amount);
+
+    // Locks every slot and drains them in slot order until the amount is covered; empty when the total is short.
+    @Query("""
+        WITH locked AS (
+            SELECT slot, balance FROM account_balance_slots
+            WHERE account_id = :accountId
+            FOR UPDATE
+        ), plan AS (
+            SELECT slot,
+                   LEAST(balance, GREATEST(:amount - (SUM(balance) OVER (ORDER BY slot) - balance), 0)) AS taken,
+                   SUM(balance) OVER () AS total
+            FROM locked
+        )
+        UPDATE account_balance_slots s
+        SET balance = s.balance - p.taken
+        FROM plan p
+        WHERE s.account_id = :accountId AND s.slot = p.slot
+        AND p.taken > 0 AND p.total >= :amount
+        RETURNING s.*
+    """)
+    Flux<AccountBalanceSlot> debitAcrossSlots(Long accountId, BigDecimal amount);
+
+    @Query("SELECT COALESCE(SUM(balance), 0) FROM account_balance_slots WHERE account_id = :accountId")
+    Mono<BigDecimal> sumBalance(Long accountId);
+}
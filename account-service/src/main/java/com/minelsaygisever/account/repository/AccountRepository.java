@@ -1,9 +1,88 @@
 package com.minelsaygisever.account.repository;
 
 import com.minelsaygisever.account.domain.Account;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
 
 @Repository
 public interface AccountRepository extends R2dbcRepository<Account, Long> {
+
+    // Guarded balance updates for plain accounts: empty when any business rule rejects the mutation
+    // or when the account is striped.
+
+    @Query("""
+        UPDATE accounts
+        SET balance = balance - :amount, version = version + 1, updated_at = NOW()
+        WHERE id = :id
+        AND balance_slots = 0
+        AND status = 'ACTIVE'
+        AND currency = UPPER(:currency)
+        AND balance >= :amount
+        AND (daily_limit IS NULL OR daily_limit >= :amount)
+        RETURNING *
+    """)
+    Mono<Account> debitBalance(Long id, BigDecimal amount, String currency);
+
+    @Query("""
+        UPDATE accounts
+        SET balance = balance + :amount, version = version + 1, updated_at = NOW()
+        WHERE id = :id
+        AND balance_slots = 0
+        AND status = 'ACTIVE'
+        AND currency = UPPER(:currency)
+        RETURNING *
+    """)
+    Mono<Account> creditBalance(Long id, BigDecimal amount, String currency);
+
+    @Modifying
+    @Query("""
+        WITH source AS (
+            SELECT id, balance FROM accounts
+            WHERE id = :id AND balance_slots = 0
+            FOR UPDATE
+        ), striped AS (
+            UPDATE accounts a
+            SET balance_slots = :slots, balance = 0, version = a.version + 1, updated_at = NOW()
+            FROM source s
+            WHERE a.id = s.id
+        )
+        INSERT INTO account_balance_slots (account_id, slot, balance)
+        SELECT s.id, g.slot, CASE WHEN g.slot = 0 THEN s.balance ELSE 0 END
+        FROM source s, generate_series(0, :slots - 1) AS g(slot)
+    """)
+    Mono<Integer> enableStriping(Long id, int slots);
+
+    // --- Mailbox (group commit) support ---
+
+    @Query("SELECT * FROM accounts WHERE id = :id FOR UPDATE")
+    Mono<Account> findByIdForUpdate(Long id);
+
+    @Modifying
+    @Query("""
+        UPDATE accounts
+        SET balance = balance + :delta, version = version + 1, updated_at = NOW()
+        WHERE id = :id
+    """)
+    Mono<Integer> applyBalanceDelta(Long id, BigDecimal delta);
+
+    // --- Batch consumer support ---
+
+    // Id order keeps two overlapping batches from deadlocking on each other's row locks
+    @Query("SELECT * FROM accounts WHERE id = ANY(CAST(:ids AS BIGINT[])) ORDER BY id FOR UPDATE")
+    Flux<Account> findAllByIdForUpdate(String[] ids);
+
+    @Modifying
+    @Query("""
+        UPDATE accounts a
+        SET balance = a.balance + d.delta, version = a.version + 1, updated_at = NOW()
+        FROM unnest(CAST(:ids AS BIGINT[]), CAST(:deltas AS NUMERIC[])) AS d(id, delta)
+        WHERE a.id = d.id
+    """)
+    Mono<Integer> applyBalanceDeltas(String[] ids, String[] deltas);
 }
@@ -35,4 +35,21 @@ public interface OutboxRepository extends R2dbcRepository<Outbox, Long> {
         )
     """)
     Mono<Integer> deleteByStatusAndCreatedAtBefore(OutboxStatus status, LocalDateTime threshold, int batchSize);
+
+    @Modifying
+    @Query("""
+        INSERT INTO outbox (aggregate_type, aggregate_id, type, payload, status, retry_count)
+        SELECT 'ACCOUNT', e.aggregate_id, e.type, e.payload, 'PENDING', 0
+        FROM unnest(CAST(:aggregateIds AS TEXT[]), CAST(:types AS TEXT[]), CAST(:payloads AS TEXT[])) AS e(aggregate_id, type, payload)
+    """)
+    Mono<Integer> insertAll(String[] aggregateIds, String[] types, String[] payloads);
+
+    Mono<Long> countByStatus(OutboxStatus status);
+
+    @Query("""
+        SELECT CAST(COALESCE(EXTRACT(EPOCH FROM (LOCALTIMESTAMP - MIN(created_at))) * 1000, 0) AS BIGINT)
+        FROM outbox
+        WHERE status = :status
+    """)
+    Mono<Long> findOldestAgeMillis(OutboxStatus status);
 }
@@ -1,11 +1,15 @@
 package com.minelsaygisever.account.repository;
 
 import com.minelsaygisever.account.domain.ProcessedTransaction;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
@@ -18,4 +22,73 @@ public interface ProcessedTransactionRepository extends R2dbcRepository<Processe
         RETURNING transaction_id
     """)
     Mono<UUID> tryInsert(UUID transactionId, String operationType);
+
+    // Multi-row variant of tryInsert: returns only the keys that were not processed before.
+    @Query("""
+        INSERT INTO processed_transactions(transaction_id, operation_type)
+        SELECT CAST(t.transaction_id AS UUID), t.operation_type
+        FROM unnest(CAST(:transactionIds AS TEXT[]), CAST(:operationTypes AS TEXT[])) AS t(transaction_id, operation_type)
+        ON CONFLICT (transaction_id, operation_type) DO NOTHING
+        RETURNING transaction_id, operation_type
+    """)
+    Flux<ProcessedTransaction> tryInsertAll(String[] transactionIds, String[] operationTypes);
+
+    @Modifying
+    @Query("""
+        DELETE FROM processed_transactions
+        WHERE transaction_id = :transactionId AND operation_type = :operationType
+    """)
+    Mono<Integer> deleteByKey(UUID transactionId, String operationType);
+
+    // Expired rows are found through idx_processed_transactions_processed_at.
+    // A ctid is only unique within one partition, so the partitioned table is matched on (tableoid, ctid).
+    @Modifying
+    @Query("""
+        DELETE FROM processed_transactions
+        WHERE (tableoid, ctid) IN (
+            SELECT tableoid, ctid FROM processed_transactions
+            WHERE processed_at < :threshold
+            LIMIT :batchSize
+        )
+    """)
+    Mono<Integer> deleteProcessedBefore(LocalDateTime threshold, int batchSize);
+
+    // --- Partitioned mode: daily partitions on processed_on ---
+    // The unique key only holds within one partition, so past partitions are probed as well, unless the
+    // caller already knows the key is absent from every partition before absentBefore.
+
+    @Query("""
+        INSERT INTO processed_transactions(transaction_id, operation_type)
+        SELECT :transactionId, :operationType
+        WHERE CURRENT_DATE <= :absentBefore OR NOT EXISTS (
+            SELECT 1 FROM processed_transactions p
+            WHERE p.transaction_id = :transactionId
+            AND p.operation_type = :operationType
+            AND p.processed_on < CURRENT_DATE
+        )
+        ON CONFLICT DO NOTHING
+        RETURNING transaction_id
+    """)
+    Mono<UUID> tryInsertPartitioned(UUID transactionId, String operationType, LocalDate absentBefore);
+
+    @Query("""
+        INSERT INTO processed_transactions(transaction_id, operation_type)
+        SELECT CAST(t.transaction_id AS UUID), t.operation_type
+        FROM unnest(CAST(:transactionIds AS TEXT[]), CAST(:operationTypes AS TEXT[])) AS t(transaction_id, operation_type)
+        WHERE CURRENT_DATE <= :absentBefore OR NOT EXISTS (
+            SELECT 1 FROM processed_transactions p
+            WHERE p.transaction_id = CAST(t.transaction_id AS UUID)
+            AND p.operation_type = t.operation_type
+            AND p.processed_on < CURRENT_DATE
+        )
+        ON CONFLICT DO NOTHING
+        RETURNING transaction_id, operation_type
+    """)
+    Flux<ProcessedTransaction> tryInsertAllPartitioned(String[] transactionIds, String[] operationTypes, LocalDate absentBefore);
+
+    @Query("SELECT CURRENT_DATE")
+    Mono<LocalDate> currentDate();
+
+    @Query("SELECT transaction_id, operation_type FROM processed_transactions WHERE processed_on < :day")
+    Flux<ProcessedTransaction> findAllProcessedBefore(LocalDate day);
 }
@@ -0,0 +1,161 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.repository.AccountRepository;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.common.domain.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one consumer batch of commands, across accounts, in a single transaction: one locking read of
+ * the accounts, one multi-row dedupe insert, one multi-row balance UPDATE with the net delta per account
+ * and one multi-row outbox insert. A business rejection only produces the failure event of its own command.
+ * <p>
+ * Commands for striped accounts take their regular handler path after the batch has committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBatchProcessor {
+
+    private final AccountRepository accountRepository;
+    private final TransactionDeduplicator deduplicator;
+    private final OutboxRepository outboxRepository;
+    private final AccountService accountService;
+    private final TransactionalOperator txOp;
+
+    /**
+     * @return per command, the rejection to signal (refunds have no failure event); {@code null} when the
+     *         command is done
+     */
+    public Mono<Throwable[]> process(List<AccountCommand> commands) {
+        if (commands.isEmpty()) {
+            return Mono.just(new Throwable[0]);
+        }
+
+        String[] accountIds = commands.stream()
+                .map(command -> String.valueOf(command.accountId()))
+                .distinct()
+                .toArray(String[]::new);
+
+        log.debug("Applying batch of {} commands over {} accounts", commands.size(), accountIds.length);
+
+        return Mono.defer(() -> {
+            List<Integer> striped = new ArrayList<>();
+
+            return accountRepository.findAllByIdForUpdate(accountIds)
+                    .collectMap(Account::getId)
+                    .flatMap(accounts -> {
+                        // Commands per plain (or missing) account, in arrival order
+                        Map<Long, List<Integer>> byAccount = new LinkedHashMap<>();
+                        for (int i = 0; i < commands.size(); i++) {
+                            AccountCommand command = commands.get(i);
+                            if (deduplicator.isRecentlyProcessed(command.transactionId(), command.operationType().name())) {
+                                log.info("DUPLICATE {} EVENT IGNORED (recently processed): tx={}", command.operationType(), command.transactionId());
+                                continue;
+                            }
+
+                            Account account = accounts.get(command.accountId());
+                            if (account != null && account.isStriped()) {
+                                striped.add(i);
+                            } else {
+                                byAccount.computeIfAbsent(command.accountId(), id -> new ArrayList<>()).add(i);
+                            }
+                        }
+                        return apply(accounts, commands, byAccount);
+                    })
+                    .as(txOp::transactional)
+                    .doOnNext(outcomes -> rememberCommitted(commands, striped, outcomes))
+                    .flatMap(outcomes -> runFallbacks(commands, striped, outcomes));
+        });
+    }
+
+    private Mono<Throwable[]> apply(Map<Long, Account> accounts, List<AccountCommand> commands, Map<Long, List<Integer>> byAccount) {
+        Throwable[] outcomes = new Throwable[commands.size()];
+        if (byAccount.isEmpty()) {
+            return Mono.just(outcomes);
+        }
+
+        // Striped commands stay out of the dedupe insert; their handler path records its own key
+        List<AccountCommand> plain = byAccount.values().stream()
+                .flatMap(List::stream)
+                .map(commands::get)
+                .toList();
+        String[] transactionIds = plain.stream().map(command -> command.transactionId().toString()).toArray(String[]::new);
+        String[] operationTypes = plain.stream().map(command -> command.operationType().name()).toArray(String[]::new);
+
+        return deduplicator.tryInsertAll(transactionIds, operationTypes)
+                .map(processed -> GroupCommit.key(processed.getTransactionId(), processed.getOperationType().name()))
+                .collect(Collectors.toCollection(HashSet::new))
+                .flatMap(fresh -> {
+                    List<String> deltaIds = new ArrayList<>();
+                    List<String> deltas = new ArrayList<>();
+                    List<Outbox> outbox = new ArrayList<>();
+                    List<AccountCommand> undo = new ArrayList<>();
+
+                    byAccount.forEach((accountId, indexes) -> {
+                        GroupCommit.Plan plan = plan(accounts.get(accountId), indexes, commands, fresh);
+
+                        if (plan.delta() != 0) {
+                            deltaIds.add(String.valueOf(accountId));
+                            deltas.add(Money.toBigDecimal(plan.delta()).toPlainString());
+                        }
+                        outbox.addAll(plan.outbox());
+                        undo.addAll(plan.undo());
+                        for (int j = 0; j < indexes.size(); j++) {
+                            outcomes[indexes.get(j)] = plan.outcomes()[j];
+                        }
+                    });
+
+                    Mono<Integer> balanceUpdate = deltaIds.isEmpty()
+                            ? Mono.just(0)
+                            : accountRepository.applyBalanceDeltas(deltaIds.toArray(String[]::new), deltas.toArray(String[]::new));
+
+                    return balanceUpdate
+                            .then(GroupCommit.insertOutbox(outboxRepository, outbox))
+                            .thenMany(Flux.fromIterable(undo))
+                            // Rejected refunds must stay redeliverable
+                            .concatMap(command -> deduplicator.release(
+                                    command.transactionId(), command.operationType().name()))
+                            .then(Mono.just(outcomes));
+                });
+    }
+
+    private GroupCommit.Plan plan(Account account, List<Integer> indexes, List<AccountCommand> commands, Set<String> fresh) {
+        List<AccountCommand> accountCommands = indexes.stream().map(commands::get).toList();
+        return GroupCommit.plan(accountService, account, accountCommands, fresh);
+    }
+
+    private void rememberCommitted(List<AccountCommand> commands, List<Integer> striped, Throwable[] outcomes) {
+        for (int i = 0; i < commands.size(); i++) {
+            if (outcomes[i] == null && !striped.contains(i)) {
+                deduplicator.remember(commands.get(i).transactionId(), commands.get(i).operationType().name());
+            }
+        }
+    }
+
+    private Mono<Throwable[]> runFallbacks(List<AccountCommand> commands, List<Integer> striped, Throwable[] outcomes) {
+        // Striped accounts already spread their writes; use the regular per-event path.
+        return Flux.fromIterable(striped)
+                .concatMap(i -> commands.get(i).fallback().get()
+                        .onErrorResume(error -> {
+                            outcomes[i] = error;
+                            return Mono.empty();
+                        }))
+                .then(Mono.just(outcomes));
+    }
+}
@@ -0,0 +1,107 @@
+package com.minelsaygisever.account.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.dto.AccountDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link AccountDto} for the balance endpoint, so read traffic stays off the R2DBC
+ * pool the saga writes need. Concurrent misses for one account share a single load.
+ * <p>
+ * Entries are evicted after local writes and on every account event of any replica; the expiry bounds
+ * staleness when an eviction is missed. With the Redis tier on, the bound is split between both tiers.
+ */
+@Component
+@Slf4j
+public class AccountCache {
+
+    private static final String REDIS_KEY_PREFIX = "account:dto:";
+
+    private final AccountProperties properties;
+    private final ReactiveRedisTemplate<String, AccountDto> redisTemplate;
+    private final AsyncCache<Long, AccountDto> local;
+    private final Duration tierTtl;
+
+    public AccountCache(AccountProperties properties,
+                        ObjectProvider<ReactiveRedisTemplate<String, AccountDto>> redisTemplate,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = Boolean.TRUE.equals(properties.cache().redisEnabled()) ? redisTemplate.getIfAvailable() : null;
+
+        Duration maxStaleness = properties.cache().maxStaleness();
+        this.tierTtl = this.redisTemplate != null ? maxStaleness.dividedBy(2) : maxStaleness;
+
+        // Caffeine's default eviction is W-TinyLFU: dashboard-hot accounts survive scans over cold ones
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.cache().maximumSize())
+                .expireAfterWrite(tierTtl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local.synchronous(), "account-dto");
+    }
+
+    public Mono<AccountDto> get(Long accountId, Function<Long, Mono<AccountDto>> loader) {
+        if (!isEnabled()) {
+            return loader.apply(accountId);
+        }
+        // copy(): a cancelled caller must not cancel the load other callers wait on
+        return Mono.fromFuture(() -> local.get(accountId, (id, executor) -> load(id, loader).toFuture()).copy());
+    }
+
+    public Mono<Void> evict(Long accountId) {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> {
+            local.synchronous().invalidate(accountId);
+            if (redisTemplate == null) {
+                return Mono.empty();
+            }
+            return redisTemplate.delete(redisKey(accountId))
+                    .onErrorResume(e -> {
+                        log.warn("Could not evict account {} from Redis; it expires within {}", accountId, tierTtl, e);
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private Mono<AccountDto> load(Long accountId, Function<Long, Mono<AccountDto>> loader) {
+        if (redisTemplate == null) {
+            return loader.apply(accountId);
+        }
+
+        String key = redisKey(accountId);
+        // Redis trouble degrades to database reads instead of failing the request
+        return redisTemplate.opsForValue().get(key)
+                .onErrorResume(e -> {
+                    log.warn("Redis read failed for account {}. Falling back to the database.", accountId, e);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> loader.apply(accountId)
+                        .flatMap(dto -> redisTemplate.opsForValue().set(key, dto, tierTtl)
+                                .onErrorResume(e -> Mono.just(false))
+                                .thenReturn(dto))));
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.cache().enabled());
+    }
+
+    private static String redisKey(Long accountId) {
+        return REDIS_KEY_PREFIX + accountId;
+    }
+}
@@ -0,0 +1,33 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.domain.enums.OperationType;
+import com.minelsaygisever.common.domain.Money;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A balance change queued in the {@link AccountMailbox}.
+ *
+ * @param failureOutbox builds the failure event for a business rejection; {@code null} when a rejection
+ *                      must surface as an error instead (refunds)
+ * @param fallback      the regular per-event handler path, used for striped accounts
+ */
+public record AccountCommand(
+        Long accountId,
+        UUID transactionId,
+        OperationType operationType,
+        Money amount,
+        Outbox successOutbox,
+        Function<String, Outbox> failureOutbox,
+        Supplier<Mono<Void>> fallback
+) {
+
+    public boolean isDebit() {
+        return operationType == OperationType.DEBIT;
+    }
+}
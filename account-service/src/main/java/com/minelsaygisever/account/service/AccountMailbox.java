@@ -0,0 +1,172 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.repository.AccountRepository;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.common.domain.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Single-writer mailbox per account. Commands queued for the same account while a drain cycle is running
+ * are group-committed in the next cycle: one row lock, one multi-row dedupe insert, one balance UPDATE
+ * with the net delta and one multi-row outbox insert.
+ * <p>
+ * The row lock keeps this correct even when two instances (or a just-evicted mailbox) drain the same
+ * account concurrently; the mailbox only turns that contention into batching.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountMailbox {
+
+    private final AccountRepository accountRepository;
+    private final TransactionDeduplicator deduplicator;
+    private final OutboxRepository outboxRepository;
+    private final AccountService accountService;
+    private final AccountProperties properties;
+    private final TransactionalOperator txOp;
+
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.mailbox().enabled());
+    }
+
+    /**
+     * Queues the command and completes once the drain cycle that carried it has committed.
+     * Business rejections complete normally after their failure event is written, unless the command
+     * has no failure event, in which case the rejection is signalled as an error.
+     */
+    public Mono<Void> submit(AccountCommand command) {
+        return Mono.defer(() -> {
+            Pending pending = new Pending(command, Sinks.one());
+            Mailbox mailbox = mailboxes.computeIfAbsent(command.accountId(), Mailbox::new);
+
+            mailbox.queue.offer(pending);
+            if (mailbox.wip.getAndIncrement() == 0) {
+                drain(mailbox);
+            }
+            return pending.result().asMono();
+        });
+    }
+
+    private void drain(Mailbox mailbox) {
+        List<Pending> batch = new ArrayList<>();
+        Pending next;
+        while (batch.size() < properties.mailbox().maxBatchSize() && (next = mailbox.queue.poll()) != null) {
+            batch.add(next);
+        }
+
+        processBatch(mailbox.accountId, batch)
+                .doFinally(signal -> {
+                    if (mailbox.wip.addAndGet(-batch.size()) > 0) {
+                        drain(mailbox);
+                    } else {
+                        mailboxes.remove(mailbox.accountId, mailbox);
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> processBatch(Long accountId, List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+
+        log.debug("Draining {} commands for Account {}", batch.size(), accountId);
+
+        return accountRepository.findByIdForUpdate(accountId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(account -> account.isPresent() && account.get().isStriped()
+                        ? Mono.just(Optional.<Throwable[]>empty())
+                        : apply(account.orElse(null), batch).map(Optional::of))
+                .as(txOp::transactional)
+                .flatMap(outcomes -> outcomes.isPresent()
+                        ? Mono.fromRunnable(() -> complete(batch, outcomes.get()))
+                        : runFallbacks(batch))
+                .onErrorResume(error -> {
+                    log.error("Mailbox drain failed for Account {}. Failing {} commands.", accountId, batch.size(), error);
+                    batch.forEach(pending -> pending.result().tryEmitError(error));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Throwable[]> apply(Account account, List<Pending> batch) {
+        String[] transactionIds = batch.stream().map(p -> p.command().transactionId().toString()).toArray(String[]::new);
+        String[] operationTypes = batch.stream().map(p -> p.command().operationType().name()).toArray(String[]::new);
+
+        return deduplicator.tryInsertAll(transactionIds, operationTypes)
+                .map(processed -> GroupCommit.key(processed.getTransactionId(), processed.getOperationType().name()))
+                .collect(Collectors.toCollection(HashSet::new))
+                .flatMap(fresh -> {
+                    GroupCommit.Plan plan = GroupCommit.plan(accountService, account, batch.stream().map(Pending::command).toList(), fresh);
+
+                    Mono<Integer> balanceUpdate = plan.delta() == 0
+                            ? Mono.just(0)
+                            : accountRepository.applyBalanceDelta(account.getId(), Money.toBigDecimal(plan.delta()));
+
+                    return balanceUpdate
+                            .then(GroupCommit.insertOutbox(outboxRepository, plan.outbox()))
+                            .thenMany(Flux.fromIterable(plan.undo()))
+                            // Rejected refunds must stay redeliverable
+                            .concatMap(command -> deduplicator.release(
+                                    command.transactionId(), command.operationType().name()))
+                            .then(Mono.just(plan.outcomes()));
+                });
+    }
+
+    private Mono<Void> runFallbacks(List<Pending> batch) {
+        // Striped accounts already spread their writes; use the regular per-event path.
+        return Flux.fromIterable(batch)
+                .concatMap(pending -> pending.command().fallback().get()
+                        .doOnSuccess(v -> pending.result().tryEmitEmpty())
+                        .onErrorResume(error -> {
+                            pending.result().tryEmitError(error);
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    private void complete(List<Pending> batch, Throwable[] outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] == null) {
+                batch.get(i).result().tryEmitEmpty();
+            } else {
+                batch.get(i).result().tryEmitError(outcomes[i]);
+            }
+        }
+    }
+
+    private static final class Mailbox {
+        private final Long accountId;
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        // Queued commands not yet completed; the thread that moves it off zero owns the drain
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Mailbox(Long accountId) {
+            this.accountId = accountId;
+        }
+    }
+
+    private record Pending(AccountCommand command, Sinks.One<Void> result) {}
+}
@@ -5,10 +5,13 @@ import com.minelsaygisever.account.domain.Outbox;
 import com.minelsaygisever.account.domain.enums.OutboxStatus;
 import com.minelsaygisever.account.exception.EventPublishingException;
 import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -27,6 +30,8 @@ public class AccountOutboxPublisher {
     private final StreamBridge streamBridge;
     private final AccountProperties properties;
     private final TransactionalOperator transactionalOperator;
+    private final EventFlowMetrics eventFlowMetrics;
+    private final EventPayloadSerializer payloadSerializer;
 
     @Scheduled(fixedDelayString = "${account.outbox.polling-interval:500}")
     public void pollOutbox() {
@@ -38,6 +43,25 @@ public class AccountOutboxPublisher {
                 );
     }
 
+    /**
+     * Publishes batches back to back until a batch comes back short. Used by the LISTEN/NOTIFY
+     * wake-up, so a burst of inserts does not wait for the next polling cycle.
+     */
+    public Mono<Void> drainOutbox() {
+        int batchSize = properties.outbox().batchSize();
+
+        return Mono.defer(() -> processOutbox()
+                        .as(transactionalOperator::transactional)
+                        .count())
+                .repeat()
+                .takeUntil(processed -> processed < batchSize)
+                .onErrorResume(error -> {
+                    log.error("Error while draining Account Outbox", error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
     public Flux<Outbox> processOutbox() {
         return outboxRepository.findLockedBatch(
                         OutboxStatus.PENDING,
@@ -51,10 +75,10 @@ public class AccountOutboxPublisher {
         return Mono.fromCallable(() -> {
                     log.info("Publishing Account Event. ID: {} Type: {}", outbox.getId(), outbox.getType());
 
-                    Message<String> message = MessageBuilder
-                            .withPayload(outbox.getPayload())
+                    Message<?> message = messageBuilder(outbox)
                             .setHeader("partitionKey", outbox.getAggregateId())
                             .setHeader("eventType", outbox.getType().name())
+                            .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER, EventFlowMetrics.producedAtNow())
                             .build();
 
                     boolean sent = streamBridge.send(properties.outbox().bindingName(), message);
@@ -68,8 +92,18 @@ public class AccountOutboxPublisher {
                 .onErrorResume(ex -> handleFailure(outbox, ex));
     }
 
+    // Binary rows go out as raw bytes with the codec content type; consumers pick the decoder from that header
+    private MessageBuilder<?> messageBuilder(Outbox outbox) {
+        if (EventPayloadSerializer.isBinary(outbox.getPayload())) {
+            return MessageBuilder.withPayload(EventPayloadSerializer.toBytes(outbox.getPayload()))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, EventCodec.CONTENT_TYPE);
+        }
+        return MessageBuilder.withPayload(outbox.getPayload());
+    }
+
     private Mono<Outbox> handleSuccess(Outbox outbox) {
         log.info("Event published successfully. Marking COMPLETED. ID: {}", outbox.getId());
+        eventFlowMetrics.recordPublished(outbox);
         outbox.setStatus(OutboxStatus.COMPLETED);
         outbox.setNextAttemptTime(null);
         return outboxRepository.save(outbox);
@@ -117,7 +151,7 @@ public class AccountOutboxPublisher {
     private Mono<Boolean> sendToDeadLetterQueue(Outbox outbox) {
         return Mono.fromCallable(() -> {
             log.info("Sending to DLQ Topic: {}", properties.outbox().dlqBindingName());
-            boolean sent = streamBridge.send(properties.outbox().dlqBindingName(), outbox.getPayload());
+            boolean sent = streamBridge.send(properties.outbox().dlqBindingName(), payloadSerializer.toReadable(outbox.getPayload()));
             if (!sent) {
                 throw new RuntimeException("Failed to send to DLQ");
             }
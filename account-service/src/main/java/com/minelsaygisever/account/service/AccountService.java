@@ -9,24 +9,25 @@ import com.minelsaygisever.account.exception.AccountNotActiveException;
 import com.minelsaygisever.account.exception.AccountNotFoundException;
 import com.minelsaygisever.account.exception.DailyLimitExceededException;
 import com.minelsaygisever.account.exception.InsufficientBalanceException;
+import com.minelsaygisever.account.repository.AccountBalanceSlotRepository;
 import com.minelsaygisever.account.repository.AccountRepository;
+import com.minelsaygisever.common.domain.Money;
 import com.minelsaygisever.common.exception.CurrencyMismatchException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository balanceSlotRepository;
     private final AccountProperties properties;
+    private final AccountCache accountCache;
 
     public Mono<AccountDto> create(CreateAccountRequest request) {
         String normalizedCurrency = request.currency().toUpperCase();
@@ -45,49 +46,155 @@ public class AccountService {
     }
 
     public Mono<AccountDto> findById(String id) {
-        return accountRepository.findById(Long.valueOf(id))
-                .map(this::mapToDto)
-                .switchIfEmpty(Mono.error(new AccountNotFoundException(id, "Account not found with id: " + id)));
+        return accountCache.get(Long.valueOf(id), accountId -> loadDto(id));
     }
 
-    @Transactional
     public Mono<Void> addMoney(String id, BigDecimal amount, String currency) {
-        return accountRepository.findById(Long.valueOf(id))
-                .switchIfEmpty(Mono.error(new AccountNotFoundException(id, "Account not found with id: " + id)))
+        return credit(id, amount, currency)
+                .then(evictCached(id));
+    }
+
+    public Mono<Void> withdraw(String id, BigDecimal amount, String currency) {
+        return debit(id, amount, currency)
+                .then(evictCached(id));
+    }
+
+    /**
+     * {@link #addMoney} without the cache eviction, for callers running it in their own transaction. They call
+     * {@link #evictCached} once that transaction has committed; evicting earlier lets a concurrent read cache
+     * the pre-commit balance again.
+     */
+    public Mono<Void> credit(String id, BigDecimal amount, String currency) {
+        return accountRepository.creditBalance(Long.valueOf(id), amount, currency)
+                .hasElement()
+                .flatMap(updated -> updated ? Mono.<Void>empty() : creditStripedOrReject(id, amount, currency));
+    }
+
+    /**
+     * {@link #withdraw} without the cache eviction; see {@link #credit}.
+     */
+    public Mono<Void> debit(String id, BigDecimal amount, String currency) {
+        return accountRepository.debitBalance(Long.valueOf(id), amount, currency)
+                .hasElement()
+                .flatMap(updated -> updated ? Mono.<Void>empty() : debitStripedOrReject(id, amount, currency));
+    }
+
+    public Mono<Void> evictCached(String id) {
+        return accountCache.evict(Long.valueOf(id));
+    }
+
+    /**
+     * Moves the balance of an account into {@code slots} slot rows. Credits then pick a random slot,
+     * so concurrent credits to a hot account no longer contend on a single row.
+     */
+    public Mono<AccountDto> enableStriping(String id, Integer slots) {
+        int slotCount = slots != null ? slots : properties.striping().defaultSlots();
+
+        return loadAccount(id)
                 .flatMap(account -> {
                     validateAccountActive(account);
-                    validateCurrency(account, currency);
-
-                    account.setBalance(account.getBalance().add(amount));
-                    return accountRepository.save(account);
+                    if (account.isStriped()) {
+                        return Mono.empty();
+                    }
+                    return accountRepository.enableStriping(account.getId(), slotCount).then();
                 })
-                .retryWhen(retryStrategy())
-                .then();
+                .then(findById(id));
     }
 
-    @Transactional
-    public Mono<Void> withdraw(String id, BigDecimal amount, String currency) {
-        System.out.println("DEBUG: withdraw called for id: " + id);
+    private Mono<AccountDto> loadDto(String id) {
+        return loadAccount(id)
+                .flatMap(account -> {
+                    if (!account.isStriped()) {
+                        return Mono.just(mapToDto(account));
+                    }
+                    // Striped account: the balance lives in the slot rows
+                    return balanceSlotRepository.sumBalance(account.getId())
+                            .map(balance -> {
+                                account.setBalance(balance);
+                                return mapToDto(account);
+                            });
+                });
+    }
 
-        return accountRepository.findById(Long.valueOf(id))
-                .switchIfEmpty(Mono.error(new AccountNotFoundException(id, "Account not found with id: " + id)))
+    // --- SLOW PATH: only runs when the guarded UPDATE on accounts matched no row ---
+
+    private Mono<Void> creditStripedOrReject(String id, BigDecimal amount, String currency) {
+        return loadAccount(id)
                 .flatMap(account -> {
                     validateAccountActive(account);
                     validateCurrency(account, currency);
 
-                    if (account.getBalance().compareTo(amount) < 0) {
-                        return Mono.error(new InsufficientBalanceException(id, "Insufficient funds for Account " + id));
+                    if (account.isStriped()) {
+                        int slot = ThreadLocalRandom.current().nextInt(account.getBalanceSlots());
+                        return balanceSlotRepository.creditSlot(account.getId(), slot, amount)
+                                .switchIfEmpty(Mono.error(new IllegalStateException("Balance slot " + slot + " missing for Account " + id)))
+                                .then();
                     }
 
+                    // The account was re-activated in between; credits have no other guard, so apply it once more
+                    return accountRepository.creditBalance(account.getId(), amount, currency)
+                            .switchIfEmpty(Mono.error(new IllegalStateException("Credit rejected for Account " + id)))
+                            .then();
+                });
+    }
+
+    private Mono<Void> debitStripedOrReject(String id, BigDecimal amount, String currency) {
+        return loadAccount(id)
+                .flatMap(account -> {
+                    validateAccountActive(account);
+                    validateCurrency(account, currency);
+
                     if (account.getDailyLimit() != null && amount.compareTo(account.getDailyLimit()) > 0) {
-                        return Mono.error(new DailyLimitExceededException(id, "Daily limit exceeded for Account " + id));
+                        // Insufficient funds is reported first when both apply, as the read-modify-write withdraw did
+                        return availableBalance(account)
+                                .flatMap(balance -> Mono.error(balance.compareTo(amount) < 0
+                                        ? new InsufficientBalanceException(id, "Insufficient funds for Account " + id)
+                                        : new DailyLimitExceededException(id, "Daily limit exceeded for Account " + id)));
                     }
 
-                    account.setBalance(account.getBalance().subtract(amount));
-                    return accountRepository.save(account);
-                })
-                .retryWhen(retryStrategy())
-                .then();
+                    if (account.isStriped()) {
+                        // Prefer one slot that covers the amount; only lock all slots when the funds are spread out
+                        return balanceSlotRepository.debitSingleSlot(account.getId(), amount)
+                                .hasElement()
+                                .flatMap(debited -> debited
+                                        ? Mono.just(true)
+                                        : balanceSlotRepository.debitAcrossSlots(account.getId(), amount).hasElements())
+                                .flatMap(debited -> debited
+                                        ? Mono.<Void>empty()
+                                        : Mono.error(new InsufficientBalanceException(id, "Insufficient funds for Account " + id)));
+                    }
+
+                    // Also covers a concurrent debit that drained the balance between the UPDATE and this read
+                    return Mono.error(new InsufficientBalanceException(id, "Insufficient funds for Account " + id));
+                });
+    }
+
+    // Same rules as the guarded UPDATEs, for the mailbox that already holds the account row lock.
+    void validateCredit(Account account, String currency) {
+        validateAccountActive(account);
+        validateCurrency(account, currency);
+    }
+
+    // Amounts in minor units; the mailbox converts the locked row once per batch instead of per command.
+    void validateDebit(Account account, Money amount, long availableBalance, long dailyLimit) {
+        String id = String.valueOf(account.getId());
+        validateCredit(account, amount.currency());
+
+        if (availableBalance < amount.minorUnits()) {
+            throw new InsufficientBalanceException(id, "Insufficient funds for Account " + id);
+        }
+        if (amount.minorUnits() > dailyLimit) {
+            throw new DailyLimitExceededException(id, "Daily limit exceeded for Account " + id);
+        }
+    }
+
+    private Mono<BigDecimal> availableBalance(Account account) {
+        return account.isStriped() ? balanceSlotRepository.sumBalance(account.getId()) : Mono.just(account.getBalance());
+    }
+
+    private Mono<Account> loadAccount(String id) {
+        return accountRepository.findById(Long.valueOf(id))
+                .switchIfEmpty(Mono.error(new AccountNotFoundException(id, "Account not found with id: " + id)));
     }
 
     private void validateAccountActive(Account account) {
@@ -104,11 +211,6 @@ public class AccountService {
         }
     }
 
-    private Retry retryStrategy() {
-        return Retry.backoff(10, Duration.ofMillis(50))
-                .filter(throwable -> throwable instanceof OptimisticLockingFailureException);
-    }
-
     private AccountDto mapToDto(Account account) {
         return new AccountDto(
                 String.valueOf(account.getId()),
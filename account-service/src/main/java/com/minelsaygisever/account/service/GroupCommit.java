@@ -0,0 +1,102 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.exception.AccountNotActiveException;
+import com.minelsaygisever.account.exception.AccountNotFoundException;
+import com.minelsaygisever.account.exception.DailyLimitExceededException;
+import com.minelsaygisever.account.exception.InsufficientBalanceException;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.common.domain.Money;
+import com.minelsaygisever.common.exception.CurrencyMismatchException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Steps shared by the {@link AccountMailbox} and the {@link AccountBatchProcessor}, which both apply
+ * several commands under one transaction.
+ */
+@Slf4j
+final class GroupCommit {
+
+    private GroupCommit() {}
+
+    // Replays the commands in order against the locked balance; rejections affect only their own command.
+    // Works in minor units, so the loop allocates nothing per command for the balance checks.
+    static Plan plan(AccountService accountService, Account account, List<AccountCommand> commands, Set<String> fresh) {
+        long balance = account != null ? Money.toMinorUnits(account.getBalance()) : 0L;
+        long dailyLimit = account != null && account.getDailyLimit() != null
+                ? Money.toMinorUnits(account.getDailyLimit())
+                : Long.MAX_VALUE;
+        long delta = 0L;
+        List<Outbox> outbox = new ArrayList<>();
+        List<AccountCommand> undo = new ArrayList<>();
+        Throwable[] outcomes = new Throwable[commands.size()];
+
+        for (int i = 0; i < commands.size(); i++) {
+            AccountCommand command = commands.get(i);
+
+            if (!fresh.remove(key(command.transactionId(), command.operationType().name()))) {
+                log.info("DUPLICATE {} EVENT IGNORED: tx={}", command.operationType(), command.transactionId());
+                continue;
+            }
+
+            try {
+                if (account == null) {
+                    String id = String.valueOf(command.accountId());
+                    throw new AccountNotFoundException(id, "Account not found with id: " + id);
+                }
+
+                if (command.isDebit()) {
+                    accountService.validateDebit(account, command.amount(), Math.addExact(balance, delta), dailyLimit);
+                    delta = Math.subtractExact(delta, command.amount().minorUnits());
+                } else {
+                    accountService.validateCredit(account, command.amount().currency());
+                    delta = Math.addExact(delta, command.amount().minorUnits());
+                }
+                outbox.add(command.successOutbox());
+
+            } catch (AccountNotFoundException | AccountNotActiveException | CurrencyMismatchException |
+                     DailyLimitExceededException | InsufficientBalanceException ex) {
+                log.warn("{} Failed: {}", command.operationType(), ex.getMessage());
+
+                if (command.failureOutbox() != null) {
+                    outbox.add(command.failureOutbox().apply(ex.getMessage()));
+                } else {
+                    outcomes[i] = ex;
+                    undo.add(command);
+                }
+            }
+        }
+
+        return new Plan(delta, outbox, undo, outcomes);
+    }
+
+    static Mono<Integer> insertOutbox(OutboxRepository outboxRepository, List<Outbox> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        return outboxRepository.insertAll(
+                events.stream().map(Outbox::getAggregateId).toArray(String[]::new),
+                events.stream().map(outbox -> outbox.getType().name()).toArray(String[]::new),
+                events.stream().map(Outbox::getPayload).toArray(String[]::new)
+        );
+    }
+
+    static String key(UUID transactionId, String operationType) {
+        return transactionId + ":" + operationType;
+    }
+
+    /**
+     * @param delta    net balance change in minor units
+     * @param undo     rejected commands without a failure event, whose dedupe keys must be released
+     * @param outcomes per command, the rejection to signal; {@code null} when the command is done
+     */
+    record Plan(long delta, List<Outbox> outbox, List<AccountCommand> undo, Throwable[] outcomes) {}
+}
@@ -0,0 +1,107 @@
+package com.minelsaygisever.account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bloom filter over dedupe keys that grows as keys are added: once a stage holds its capacity, a new
+ * stage with twice the capacity and half the false positive rate is started, so the overall rate stays
+ * under the configured one however many keys arrive.
+ * <p>
+ * Not thread-safe; build it on one thread and publish it read-only.
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Stage> stages = new ArrayList<>();
+    private long count;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        // The stage rates form a geometric series: p0 / (1 - r) stays within the requested rate
+        stages.add(new Stage(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    void add(UUID transactionId, String operationType) {
+        Stage current = stages.getLast();
+        if (current.count >= current.capacity) {
+            current = new Stage(current.capacity * GROWTH, current.falsePositiveRate * TIGHTENING);
+            stages.add(current);
+        }
+        current.add(hash1(transactionId, operationType), hash2(transactionId, operationType));
+        count++;
+    }
+
+    boolean mightContain(UUID transactionId, String operationType) {
+        long h1 = hash1(transactionId, operationType);
+        long h2 = hash2(transactionId, operationType);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long count() {
+        return count;
+    }
+
+    // Transaction ids are random UUIDs; mixing both halves with the operation gives two independent hashes
+    private static long hash1(UUID transactionId, String operationType) {
+        return mix(transactionId.getMostSignificantBits() ^ (operationType.hashCode() * 0x9E3779B97F4A7C15L));
+    }
+
+    private static long hash2(UUID transactionId, String operationType) {
+        return mix(transactionId.getLeastSignificantBits() + operationType.hashCode()) | 1L;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final long[] bits;
+        private long count;
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new long[(int) ((bitCount + 63) >>> 6)];
+        }
+
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(h1, h2, i);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+            count++;
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = index(h1, h2, i);
+                if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long h1, long h2, int i) {
+            return ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.ProcessedTransaction;
+import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process front for the {@code processed_transactions} dedupe table, which stays the source of truth.
+ * <ul>
+ *   <li>A bounded LRU of keys this instance has committed answers redeliveries (rebalances, consumer
+ *   restarts) without a round trip. Keys only enter it after their transaction committed, so a hit is
+ *   always a real duplicate.</li>
+ *   <li>In partitioned mode, uniqueness only holds within one daily partition. A Bloom filter over the
+ *   past partitions, which no longer receive inserts, is rebuilt from the table at startup and after each
+ *   day rolls over. When it rules a key out, the insert skips probing past partitions; a "maybe" keeps
+ *   the probe.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class TransactionDeduplicator {
+
+    private final ProcessedTransactionRepository repository;
+    private final AccountProperties properties;
+    private final Map<String, Boolean> recent;
+
+    private volatile History history = History.NONE;
+
+    public TransactionDeduplicator(ProcessedTransactionRepository repository, AccountProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+
+        int capacity = properties.dedupe().recentCapacity();
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public boolean isRecentlyProcessed(UUID transactionId, String operationType) {
+        synchronized (recent) {
+            return recent.get(GroupCommit.key(transactionId, operationType)) != null;
+        }
+    }
+
+    /**
+     * Records a key whose transaction has committed. Never call it before the commit: a rolled back key
+     * in the LRU would drop the redelivery that has to apply it.
+     */
+    public void remember(UUID transactionId, String operationType) {
+        if (properties.dedupe().recentCapacity() <= 0) {
+            return;
+        }
+        synchronized (recent) {
+            recent.put(GroupCommit.key(transactionId, operationType), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return {@code true} when the key was recorded now, {@code false} when it was processed before
+     */
+    public Mono<Boolean> tryInsert(UUID transactionId, String operationType) {
+        if (!isPartitioned()) {
+            return repository.tryInsert(transactionId, operationType).hasElement();
+        }
+        return repository.tryInsertPartitioned(transactionId, operationType, absentBefore(transactionId, operationType))
+                .hasElement();
+    }
+
+    // Multi-row variant of tryInsert: returns only the keys that were not processed before.
+    public Flux<ProcessedTransaction> tryInsertAll(String[] transactionIds, String[] operationTypes) {
+        if (!isPartitioned()) {
+            return repository.tryInsertAll(transactionIds, operationTypes);
+        }
+
+        // The probe is skipped only when the filter rules out every key of the batch
+        History current = history;
+        boolean allAbsent = current.filter() != null;
+        for (int i = 0; allAbsent && i < transactionIds.length; i++) {
+            allAbsent = !current.filter().mightContain(UUID.fromString(transactionIds[i]), operationTypes[i]);
+        }
+        return repository.tryInsertAllPartitioned(transactionIds, operationTypes,
+                allAbsent ? current.absentBefore() : LocalDate.EPOCH);
+    }
+
+    // Makes a rejected command redeliverable
+    public Mono<Integer> release(UUID transactionId, String operationType) {
+        synchronized (recent) {
+            recent.remove(GroupCommit.key(transactionId, operationType));
+        }
+        return repository.deleteByKey(transactionId, operationType);
+    }
+
+    /**
+     * Rebuilds the Bloom filter from every partition before today (database clock). Until it completes,
+     * the previous filter keeps answering for the days it covers and later days are probed.
+     */
+    public Mono<Long> rebuildHistory() {
+        if (!isPartitioned()) {
+            return Mono.just(0L);
+        }
+
+        return repository.currentDate()
+                .flatMap(today -> {
+                    ScalableBloomFilter filter = new ScalableBloomFilter(
+                            properties.dedupe().bloomExpectedKeys(), properties.dedupe().bloomFalsePositiveRate());
+
+                    return repository.findAllProcessedBefore(today)
+                            .doOnNext(key -> filter.add(key.getTransactionId(), key.getOperationType().name()))
+                            .then(Mono.fromCallable(() -> {
+                                history = new History(filter, today);
+                                log.info("Dedupe history filter rebuilt with {} keys before {}", filter.count(), today);
+                                return filter.count();
+                            }));
+                });
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(properties.dedupe().partitioned());
+    }
+
+    // The date the insert may skip the past-partition probe on, or EPOCH when the probe is needed
+    private LocalDate absentBefore(UUID transactionId, String operationType) {
+        History current = history;
+        if (current.filter() == null || current.filter().mightContain(transactionId, operationType)) {
+            return LocalDate.EPOCH;
+        }
+        return current.absentBefore();
+    }
+
+    /**
+     * @param absentBefore the filter holds every key processed before this date
+     */
+    private record History(ScalableBloomFilter filter, LocalDate absentBefore) {
+        static final History NONE = new History(null, LocalDate.EPOCH);
+    }
+}
@@ -1,9 +1,9 @@
 package com.minelsaygisever.account.service.handler;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minelsaygisever.account.domain.Outbox;
 import com.minelsaygisever.account.domain.enums.AggregateType;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.account.domain.enums.OutboxStatus;
 import com.minelsaygisever.account.exception.AccountNotActiveException;
@@ -16,7 +16,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public abstract class BaseTransactionHandler {
 
-    protected final ObjectMapper objectMapper;
+    protected final EventPayloadSerializer payloadSerializer;
 
     protected boolean isBusinessError(Throwable ex) {
         return ex instanceof InsufficientBalanceException ||
@@ -32,7 +32,7 @@ public abstract class BaseTransactionHandler {
                     .aggregateType(AggregateType.ACCOUNT)
                     .aggregateId(aggregateId)
                     .type(type)
-                    .payload(objectMapper.writeValueAsString(payloadObj))
+                    .payload(payloadSerializer.toOutboxPayload(payloadObj))
                     .status(OutboxStatus.PENDING)
                     .retryCount(0)
                     .build();
@@ -1,15 +1,18 @@
 package com.minelsaygisever.account.service.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.domain.Money;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.account.domain.enums.OperationType;
 import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
 import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
 import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
 import com.minelsaygisever.account.repository.OutboxRepository;
-import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.account.service.AccountCommand;
+import com.minelsaygisever.account.service.AccountMailbox;
 import com.minelsaygisever.account.service.AccountService;
+import com.minelsaygisever.account.service.TransactionDeduplicator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.reactive.TransactionalOperator;
@@ -21,20 +24,49 @@ public class TransferCreditHandler extends BaseTransactionHandler {
 
     private final AccountService accountService;
     private final OutboxRepository outboxRepository;
-    private final ProcessedTransactionRepository processedTransactionRepository;
+    private final TransactionDeduplicator deduplicator;
     private final TransactionalOperator txOp;
+    private final AccountMailbox mailbox;
 
-    public TransferCreditHandler(ObjectMapper objectMapper, AccountService accountService, OutboxRepository outboxRepository, ProcessedTransactionRepository processedTransactionRepository, TransactionalOperator txOp) {
-        super(objectMapper);
+    public TransferCreditHandler(EventPayloadSerializer payloadSerializer, AccountService accountService, OutboxRepository outboxRepository, TransactionDeduplicator deduplicator, TransactionalOperator txOp, AccountMailbox mailbox) {
+        super(payloadSerializer);
         this.accountService = accountService;
         this.outboxRepository = outboxRepository;
-        this.processedTransactionRepository = processedTransactionRepository;
+        this.deduplicator = deduplicator;
         this.txOp = txOp;
+        this.mailbox = mailbox;
     }
 
     public Mono<Void> handle(TransferDepositRequestedEvent event) {
-        return processedTransactionRepository.tryInsert(event.transactionId(), OperationType.CREDIT.name())
-                .hasElement()
+        if (deduplicator.isRecentlyProcessed(event.transactionId(), OperationType.CREDIT.name())) {
+            log.info("DUPLICATE CREDIT EVENT IGNORED (recently processed): tx={}", event.transactionId());
+            return Mono.empty();
+        }
+        if (mailbox.isEnabled()) {
+            // Completes only after the drain cycle committed
+            return Mono.defer(() -> mailbox.submit(toCommand(event)))
+                    .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.CREDIT.name()));
+        }
+        return handleDirectly(event);
+    }
+
+    /**
+     * The event as a balance command, for the mailbox and the batch consumer.
+     */
+    public AccountCommand toCommand(TransferDepositRequestedEvent event) {
+        return new AccountCommand(
+                Long.valueOf(event.receiverAccountId()),
+                event.transactionId(),
+                OperationType.CREDIT,
+                Money.of(event.amount(), event.currency()),
+                buildSuccessOutbox(event),
+                reason -> buildFailureOutbox(event, reason),
+                () -> handleDirectly(event)
+        );
+    }
+
+    private Mono<Void> handleDirectly(TransferDepositRequestedEvent event) {
+        return deduplicator.tryInsert(event.transactionId(), OperationType.CREDIT.name())
                 .flatMap(inserted -> {
                     if (Boolean.TRUE.equals(inserted)) {
                         return process(event);
@@ -43,11 +75,14 @@ public class TransferCreditHandler extends BaseTransactionHandler {
                         return Mono.empty();
                     }
                 })
-                .as(txOp::transactional);
+                .as(txOp::transactional)
+                // Only after commit, or a concurrent read could cache the old balance again
+                .then(Mono.defer(() -> accountService.evictCached(event.receiverAccountId())))
+                .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.CREDIT.name()));
     }
 
     private Mono<Void> process(TransferDepositRequestedEvent event) {
-        return accountService.addMoney(event.receiverAccountId(), event.amount(), event.currency())
+        return accountService.credit(event.receiverAccountId(), event.amount(), event.currency())
                 .then(saveSuccessEvent(event))
                 .onErrorResume(ex -> {
                     log.error("Credit Failed: {}", ex.getMessage());
@@ -57,16 +92,20 @@ public class TransferCreditHandler extends BaseTransactionHandler {
     }
 
     private Mono<Outbox> saveSuccessEvent(TransferDepositRequestedEvent event) {
-        return Mono.fromCallable(() -> {
-            var successEvent = new AccountCreditedEvent(event.transactionId(), event.receiverAccountId(), event.amount(), event.currency());
-            return buildOutbox(event.receiverAccountId(), EventType.ACCOUNT_CREDITED, successEvent);
-        }).flatMap(outboxRepository::save);
+        return Mono.fromCallable(() -> buildSuccessOutbox(event)).flatMap(outboxRepository::save);
+    }
+
+    private Outbox buildSuccessOutbox(TransferDepositRequestedEvent event) {
+        var successEvent = new AccountCreditedEvent(event.transactionId(), event.receiverAccountId(), event.amount(), event.currency());
+        return buildOutbox(event.receiverAccountId(), EventType.ACCOUNT_CREDITED, successEvent);
     }
 
     private Mono<Outbox> saveFailureEvent(TransferDepositRequestedEvent event, String reason) {
-        return Mono.fromCallable(() -> {
-            var failEvent = new AccountCreditFailedEvent(event.transactionId(), event.receiverAccountId(), event.amount(), event.currency(), reason);
-            return buildOutbox(event.receiverAccountId(), EventType.ACCOUNT_CREDIT_FAILED, failEvent);
-        }).flatMap(outboxRepository::save);
+        return Mono.fromCallable(() -> buildFailureOutbox(event, reason)).flatMap(outboxRepository::save);
+    }
+
+    private Outbox buildFailureOutbox(TransferDepositRequestedEvent event, String reason) {
+        var failEvent = new AccountCreditFailedEvent(event.transactionId(), event.receiverAccountId(), event.amount(), event.currency(), reason);
+        return buildOutbox(event.receiverAccountId(), EventType.ACCOUNT_CREDIT_FAILED, failEvent);
     }
 }
@@ -1,15 +1,18 @@
 package com.minelsaygisever.account.service.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.domain.Money;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.account.domain.enums.OperationType;
 import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
 import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
 import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
 import com.minelsaygisever.account.repository.OutboxRepository;
-import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.account.service.AccountCommand;
+import com.minelsaygisever.account.service.AccountMailbox;
 import com.minelsaygisever.account.service.AccountService;
+import com.minelsaygisever.account.service.TransactionDeduplicator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.reactive.TransactionalOperator;
@@ -21,24 +24,54 @@ public class TransferDebitHandler extends BaseTransactionHandler {
 
     private final AccountService accountService;
     private final OutboxRepository outboxRepository;
-    private final ProcessedTransactionRepository processedTransactionRepository;
+    private final TransactionDeduplicator deduplicator;
     private final TransactionalOperator txOp;
+    private final AccountMailbox mailbox;
 
-    public TransferDebitHandler(ObjectMapper objectMapper,
+    public TransferDebitHandler(EventPayloadSerializer payloadSerializer,
                                 AccountService accountService,
                                 OutboxRepository outboxRepository,
-                                ProcessedTransactionRepository processedTransactionRepository,
-                                TransactionalOperator txOp) {
-        super(objectMapper);
+                                TransactionDeduplicator deduplicator,
+                                TransactionalOperator txOp,
+                                AccountMailbox mailbox) {
+        super(payloadSerializer);
         this.accountService = accountService;
         this.outboxRepository = outboxRepository;
-        this.processedTransactionRepository = processedTransactionRepository;
+        this.deduplicator = deduplicator;
         this.txOp = txOp;
+        this.mailbox = mailbox;
     }
 
     public Mono<Void> handle(TransferInitiatedEvent event) {
-        return processedTransactionRepository.tryInsert(event.transactionId(), OperationType.DEBIT.name())
-                .hasElement()
+        if (deduplicator.isRecentlyProcessed(event.transactionId(), OperationType.DEBIT.name())) {
+            log.info("DUPLICATE DEBIT EVENT IGNORED (recently processed): tx={}", event.transactionId());
+            return Mono.empty();
+        }
+        if (mailbox.isEnabled()) {
+            // Completes only after the drain cycle committed
+            return Mono.defer(() -> mailbox.submit(toCommand(event)))
+                    .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.DEBIT.name()));
+        }
+        return handleDirectly(event);
+    }
+
+    /**
+     * The event as a balance command, for the mailbox and the batch consumer.
+     */
+    public AccountCommand toCommand(TransferInitiatedEvent event) {
+        return new AccountCommand(
+                Long.valueOf(event.senderAccountId()),
+                event.transactionId(),
+                OperationType.DEBIT,
+                Money.of(event.amount(), event.currency()),
+                buildSuccessOutbox(event),
+                reason -> buildFailureOutbox(event, reason),
+                () -> handleDirectly(event)
+        );
+    }
+
+    private Mono<Void> handleDirectly(TransferInitiatedEvent event) {
+        return deduplicator.tryInsert(event.transactionId(), OperationType.DEBIT.name())
                 .flatMap(inserted -> {
                     if (Boolean.TRUE.equals(inserted)) {
                         return process(event);
@@ -47,11 +80,14 @@ public class TransferDebitHandler extends BaseTransactionHandler {
                         return Mono.empty();
                     }
                 })
-                .as(txOp::transactional);
+                .as(txOp::transactional)
+                // Only after commit, or a concurrent read could cache the old balance again
+                .then(Mono.defer(() -> accountService.evictCached(event.senderAccountId())))
+                .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.DEBIT.name()));
     }
 
     private Mono<Void> process(TransferInitiatedEvent event) {
-        return accountService.withdraw(event.senderAccountId(), event.amount(), event.currency())
+        return accountService.debit(event.senderAccountId(), event.amount(), event.currency())
                 .then(saveSuccessEvent(event))
                 .onErrorResume(ex -> {
                     if (isBusinessError(ex)) {
@@ -64,16 +100,20 @@ public class TransferDebitHandler extends BaseTransactionHandler {
     }
 
     private Mono<Outbox> saveSuccessEvent(TransferInitiatedEvent event) {
-        return Mono.fromCallable(() -> {
-            var successEvent = new AccountDebitedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency());
-            return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_DEBITED, successEvent);
-        }).flatMap(outboxRepository::save);
+        return Mono.fromCallable(() -> buildSuccessOutbox(event)).flatMap(outboxRepository::save);
+    }
+
+    private Outbox buildSuccessOutbox(TransferInitiatedEvent event) {
+        var successEvent = new AccountDebitedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency());
+        return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_DEBITED, successEvent);
     }
 
     private Mono<Outbox> saveFailureEvent(TransferInitiatedEvent event, String reason) {
-        return Mono.fromCallable(() -> {
-            var failEvent = new AccountDebitFailedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency(), reason);
-            return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_DEBIT_FAILED, failEvent);
-        }).flatMap(outboxRepository::save);
+        return Mono.fromCallable(() -> buildFailureOutbox(event, reason)).flatMap(outboxRepository::save);
+    }
+
+    private Outbox buildFailureOutbox(TransferInitiatedEvent event, String reason) {
+        var failEvent = new AccountDebitFailedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency(), reason);
+        return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_DEBIT_FAILED, failEvent);
     }
 }
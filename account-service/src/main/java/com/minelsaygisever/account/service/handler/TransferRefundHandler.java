@@ -1,14 +1,17 @@
 package com.minelsaygisever.account.service.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.domain.Money;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.account.domain.enums.OperationType;
 import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
 import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
 import com.minelsaygisever.account.repository.OutboxRepository;
-import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.account.service.AccountCommand;
+import com.minelsaygisever.account.service.AccountMailbox;
 import com.minelsaygisever.account.service.AccountService;
+import com.minelsaygisever.account.service.TransactionDeduplicator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.reactive.TransactionalOperator;
@@ -20,20 +23,49 @@ public class TransferRefundHandler extends BaseTransactionHandler {
 
     private final AccountService accountService;
     private final OutboxRepository outboxRepository;
-    private final ProcessedTransactionRepository processedTransactionRepository;
+    private final TransactionDeduplicator deduplicator;
     private final TransactionalOperator txOp;
+    private final AccountMailbox mailbox;
 
-    public TransferRefundHandler(ObjectMapper objectMapper, AccountService accountService, OutboxRepository outboxRepository, ProcessedTransactionRepository processedTransactionRepository, TransactionalOperator txOp) {
-        super(objectMapper);
+    public TransferRefundHandler(EventPayloadSerializer payloadSerializer, AccountService accountService, OutboxRepository outboxRepository, TransactionDeduplicator deduplicator, TransactionalOperator txOp, AccountMailbox mailbox) {
+        super(payloadSerializer);
         this.accountService = accountService;
         this.outboxRepository = outboxRepository;
-        this.processedTransactionRepository = processedTransactionRepository;
+        this.deduplicator = deduplicator;
         this.txOp = txOp;
+        this.mailbox = mailbox;
     }
 
     public Mono<Void> handle(TransferRefundRequestedEvent event) {
-        return processedTransactionRepository.tryInsert(event.transactionId(), OperationType.REFUND.name())
-                .hasElement()
+        if (deduplicator.isRecentlyProcessed(event.transactionId(), OperationType.REFUND.name())) {
+            log.info("DUPLICATE REFUND EVENT IGNORED (recently processed): tx={}", event.transactionId());
+            return Mono.empty();
+        }
+        if (mailbox.isEnabled()) {
+            // Completes only after the drain cycle committed
+            return Mono.defer(() -> mailbox.submit(toCommand(event)))
+                    .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.REFUND.name()));
+        }
+        return handleDirectly(event);
+    }
+
+    /**
+     * The event as a balance command, for the mailbox and the batch consumer.
+     */
+    public AccountCommand toCommand(TransferRefundRequestedEvent event) {
+        return new AccountCommand(
+                Long.valueOf(event.senderAccountId()),
+                event.transactionId(),
+                OperationType.REFUND,
+                Money.of(event.amount(), event.currency()),
+                buildSuccessOutbox(event),
+                null,
+                () -> handleDirectly(event)
+        );
+    }
+
+    private Mono<Void> handleDirectly(TransferRefundRequestedEvent event) {
+        return deduplicator.tryInsert(event.transactionId(), OperationType.REFUND.name())
                 .flatMap(inserted -> {
                     if (Boolean.TRUE.equals(inserted)) {
                         return process(event);
@@ -42,11 +74,14 @@ public class TransferRefundHandler extends BaseTransactionHandler {
                         return Mono.empty();
                     }
                 })
-                .as(txOp::transactional);
+                .as(txOp::transactional)
+                // Only after commit, or a concurrent read could cache the old balance again
+                .then(Mono.defer(() -> accountService.evictCached(event.senderAccountId())))
+                .doOnSuccess(v -> deduplicator.remember(event.transactionId(), OperationType.REFUND.name()));
     }
 
     private Mono<Void> process(TransferRefundRequestedEvent event) {
-        return accountService.addMoney(event.senderAccountId(), event.amount(), event.currency())
+        return accountService.credit(event.senderAccountId(), event.amount(), event.currency())
                 .then(saveSuccessEvent(event))
                 .onErrorResume(ex -> {
                     log.error("CRITICAL: Refund Failed! Tx: {}", event.transactionId(), ex);
@@ -56,9 +91,11 @@ public class TransferRefundHandler extends BaseTransactionHandler {
     }
 
     private Mono<Outbox> saveSuccessEvent(TransferRefundRequestedEvent event) {
-        return Mono.fromCallable(() -> {
-            var successEvent = new AccountRefundedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency());
-            return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_REFUNDED, successEvent);
-        }).flatMap(outboxRepository::save);
+        return Mono.fromCallable(() -> buildSuccessOutbox(event)).flatMap(outboxRepository::save);
+    }
+
+    private Outbox buildSuccessOutbox(TransferRefundRequestedEvent event) {
+        var successEvent = new AccountRefundedEvent(event.transactionId(), event.senderAccountId(), event.amount(), event.currency());
+        return buildOutbox(event.senderAccountId(), EventType.ACCOUNT_REFUNDED, successEvent);
     }
 }
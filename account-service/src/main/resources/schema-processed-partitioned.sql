@@ -0,0 +1,15 @@
+-- Partitioned dedupe table: daily range partitions on processed_on, dropped whole by
+-- ProcessedTransactionCleanupJob. Enable with account.dedupe.partitioned=true and list this script
+-- before schema.sql in spring.sql.init.schema-locations, so schema.sql's CREATE TABLE IF NOT EXISTS
+-- finds the partitioned table. The primary key has to include the partition column, so uniqueness
+-- only holds within a day; the partitioned inserts probe past days (see ProcessedTransactionRepository).
+CREATE TABLE IF NOT EXISTS processed_transactions (
+    transaction_id UUID NOT NULL,
+    operation_type VARCHAR(50) NOT NULL, -- 'DEBIT', 'CREDIT', 'REFUND'
+    processed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    processed_on DATE NOT NULL DEFAULT CURRENT_DATE,
+    PRIMARY KEY (transaction_id, operation_type, processed_on)
+) PARTITION BY RANGE (processed_on);
+
+-- Catches rows whose daily partition does not exist yet; the cleanup job pre-creates partitions ahead
+CREATE TABLE IF NOT EXISTS processed_transactions_default PARTITION OF processed_transactions DEFAULT;
@@ -5,13 +5,25 @@ CREATE TABLE IF NOT EXISTS accounts (
     currency VARCHAR(3) NOT NULL,
     status VARCHAR(20) NOT NULL,
     daily_limit DECIMAL(19, 2),
+    balance_slots INT NOT NULL DEFAULT 0,
     version BIGINT,
     created_at TIMESTAMP DEFAULT NOW(),
     updated_at TIMESTAMP DEFAULT NOW()
 );
 
+-- Databases created before balance striping have the table without the column
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS balance_slots INT NOT NULL DEFAULT 0;
+
 CREATE INDEX IF NOT EXISTS idx_accounts_customer_id ON accounts (customer_id);
 
+-- Balance stripes of hot accounts (accounts.balance_slots > 0)
+CREATE TABLE IF NOT EXISTS account_balance_slots (
+    account_id BIGINT NOT NULL REFERENCES accounts (id),
+    slot INT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_id, slot)
+);
+
 CREATE TABLE IF NOT EXISTS outbox (
     id SERIAL PRIMARY KEY,
     aggregate_type VARCHAR(255) NOT NULL,
@@ -33,4 +45,22 @@ CREATE TABLE IF NOT EXISTS processed_transactions (
     operation_type VARCHAR(50) NOT NULL, -- 'DEBIT', 'CREDIT', 'REFUND'
     processed_at TIMESTAMP NOT NULL DEFAULT NOW(),
     PRIMARY KEY (transaction_id, operation_type)
-);
\ No newline at end of file
+);
+
+-- Retention deletes walk expired rows oldest first; inserts reuse freed heap space, so without this index
+-- every batch would scan the whole table. On the partitioned table it is created on each partition.
+CREATE INDEX IF NOT EXISTS idx_processed_transactions_processed_at ON processed_transactions (processed_at);
+
+-- Wakes the outbox publisher as soon as new events are committed. Statement-level, so a saga step
+-- produces one notification. The body is single-quoted because the SQL init splitter does not know $$.
+-- The channel is fixed here and in OutboxNotificationListener.CHANNEL.
+CREATE OR REPLACE FUNCTION notify_outbox_insert() RETURNS trigger AS '
+BEGIN
+    PERFORM pg_notify(''account_outbox'', '''');
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_outbox_notify
+    AFTER INSERT ON outbox
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_insert();
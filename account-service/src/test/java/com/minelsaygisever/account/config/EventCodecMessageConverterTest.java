@@ -0,0 +1,87 @@
+package com.minelsaygisever.account.config;
+
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
+import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
+import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecMessageConverterTest {
+
+    private static final MimeType CODEC = MimeType.valueOf(EventCodec.CONTENT_TYPE);
+
+    private final EventCodecConfig.EventCodecMessageConverter converter = new EventCodecConfig.EventCodecMessageConverter();
+
+    @Test
+    @DisplayName("Read: Codec content type -> decodes every event the account service consumes")
+    void shouldDecodeConsumedEvents() {
+        UUID txId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("100.00");
+
+        for (Object event : new Object[]{
+                new TransferInitiatedEvent(txId, "1", "2", amount, "TRY"),
+                new TransferDepositRequestedEvent(txId, "2", amount, "TRY"),
+                new TransferRefundRequestedEvent(txId, "1", amount, "TRY", null)}) {
+            Message<byte[]> message = message(EventCodec.encode(event), CODEC);
+
+            assertThat(converter.fromMessage(message, event.getClass())).isEqualTo(event);
+        }
+    }
+
+    @Test
+    @DisplayName("Read: JSON or missing content type -> left to the JSON converter")
+    void shouldNotClaimOtherContentTypes() {
+        byte[] bytes = EventCodec.encode(new TransferDepositRequestedEvent(UUID.randomUUID(), "2", BigDecimal.TEN, "TRY"));
+
+        assertThat(converter.fromMessage(message(bytes, MimeTypeUtils.APPLICATION_JSON), TransferDepositRequestedEvent.class)).isNull();
+        assertThat(converter.fromMessage(MessageBuilder.withPayload(bytes).build(), TransferDepositRequestedEvent.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Read: Target type without a binary layout -> not claimed")
+    void shouldNotClaimUnsupportedTargetType() {
+        byte[] bytes = EventCodec.encode(new TransferDepositRequestedEvent(UUID.randomUUID(), "2", BigDecimal.TEN, "TRY"));
+
+        assertThat(converter.fromMessage(message(bytes, CODEC), String.class)).isNull();
+    }
+
+    @Test
+    @DisplayName("Read: Payload of another event type -> fails, so retry/DLQ handling sees it")
+    void shouldFail_WhenPayloadHoldsAnotherType() {
+        byte[] bytes = EventCodec.encode(new TransferDepositRequestedEvent(UUID.randomUUID(), "2", BigDecimal.TEN, "TRY"));
+
+        assertThatThrownBy(() -> converter.fromMessage(message(bytes, CODEC), TransferInitiatedEvent.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Write: Codec content type -> encoded bytes with the content type header")
+    void shouldEncodeWithCodecContentType() {
+        var event = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", new BigDecimal("12.34"), "TRY");
+
+        Message<?> message = converter.toMessage(event, new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, CODEC)));
+
+        assertThat(message).isNotNull();
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(CODEC);
+        assertThat(EventCodec.decode((byte[]) message.getPayload())).isEqualTo(event);
+    }
+
+    private static Message<byte[]> message(byte[] payload, MimeType contentType) {
+        return MessageBuilder.withPayload(payload)
+                .setHeader(MessageHeaders.CONTENT_TYPE, contentType)
+                .build();
+    }
+}
@@ -13,15 +13,19 @@ import org.springframework.boot.testcontainers.service.connection.ServiceConnect
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
 import java.math.BigDecimal;
 import java.util.Objects;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Testcontainers
 @Import({TestChannelBinderConfiguration.class, TestSecurityConfig.class})
@@ -36,6 +40,8 @@ public class AccountIntegrationTest {
     private AccountService accountService;
     @Autowired
     private AccountRepository accountRepository;
+    @Autowired
+    private TransactionalOperator transactionalOperator;
 
     @BeforeEach
     void setup() {
@@ -110,4 +116,27 @@ public class AccountIntegrationTest {
                 })
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldServeCommittedBalance_WhenReadRacesUncommittedCredit() {
+        AccountDto account = accountService.create(new CreateAccountRequest("CACHE_USER", new BigDecimal("100.00"), "TRY")).block();
+        Objects.requireNonNull(account, "The account could not be created during setup; the returned value is null!");
+        String accountId = account.id();
+
+        // As the transfer handlers do: credit inside the transaction, evict once it has committed
+        Mono<Void> credit = accountService.credit(accountId, new BigDecimal("50.00"), "TRY")
+                // A balance read on another connection while the credit is uncommitted caches the old balance
+                .then(accountService.findById(accountId).contextWrite(context -> Context.empty()))
+                .doOnNext(read -> assertThat(read.balance()).isEqualByComparingTo("100.00"))
+                .then()
+                .as(transactionalOperator::transactional)
+                .then(accountService.evictCached(accountId));
+
+        StepVerifier.create(credit)
+                .verifyComplete();
+
+        StepVerifier.create(accountService.findById(accountId))
+                .expectNextMatches(dto -> dto.balance().compareTo(new BigDecimal("150.00")) == 0)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,225 @@
+package com.minelsaygisever.account.listener;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.account.service.AccountBatchProcessor;
+import com.minelsaygisever.account.service.AccountCommand;
+import com.minelsaygisever.account.service.EventFlowMetrics;
+import com.minelsaygisever.account.service.handler.TransferCreditHandler;
+import com.minelsaygisever.account.service.handler.TransferDebitHandler;
+import com.minelsaygisever.account.service.handler.TransferRefundHandler;
+import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferEventsListenerTest {
+
+    @Mock private TransferDebitHandler debitHandler;
+    @Mock private TransferCreditHandler creditHandler;
+    @Mock private TransferRefundHandler refundHandler;
+    @Mock private StreamBridge streamBridge;
+    @Mock private AccountBatchProcessor batchProcessor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountProperties properties;
+
+    private TransferEventsListener listener;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = mock(AccountProperties.class);
+        when(properties.consumer()).thenReturn(consumerProperties(false));
+
+        listener = new TransferEventsListener(debitHandler, creditHandler, refundHandler, streamBridge, properties,
+                new EventFlowMetrics(meterRegistry, mock(OutboxRepository.class)), batchProcessor);
+    }
+
+    @Test
+    @DisplayName("Ordering: Events of the same account are handled one after another and acked after completion")
+    void shouldHandleSameAccountInOrder_AndAckAfterCompletion() {
+        // Arrange
+        List<String> calls = new CopyOnWriteArrayList<>();
+        var first = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        var second = new TransferInitiatedEvent(UUID.randomUUID(), "1", "3", BigDecimal.ONE, "TRY");
+
+        when(debitHandler.handle(first)).thenReturn(
+                Mono.delay(Duration.ofMillis(100))
+                        .doOnSubscribe(s -> calls.add("first-start"))
+                        .doOnSuccess(v -> calls.add("first-end"))
+                        .then());
+        when(debitHandler.handle(second)).thenReturn(
+                Mono.fromRunnable(() -> calls.add("second")));
+
+        Acknowledgment firstAck = mock(Acknowledgment.class);
+        Acknowledgment secondAck = mock(Acknowledgment.class);
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message(first, firstAck), message(second, secondAck))))
+                .verifyComplete();
+
+        // Assert
+        assertThat(calls).containsExactly("first-start", "first-end", "second");
+        verify(firstAck).acknowledge();
+        verify(secondAck).acknowledge();
+    }
+
+    @Test
+    @DisplayName("DLQ: Event is dead-lettered and acked after retries are exhausted")
+    void shouldSendToDlq_WhenHandlerKeepsFailing() {
+        // Arrange
+        var event = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        when(debitHandler.handle(event)).thenReturn(Mono.error(new RuntimeException("DB down")));
+        when(streamBridge.send(eq("account-consumer-dlq-0"), any(Message.class))).thenReturn(true);
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message(event, ack))))
+                .verifyComplete();
+
+        // Assert
+        verify(debitHandler, times(2)).handle(event);
+        verify(streamBridge).send(eq("account-consumer-dlq-0"), any(Message.class));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Offset: Event is left unacknowledged when it can be neither handled nor dead-lettered")
+    void shouldNotAck_WhenDlqSendFails() {
+        // Arrange
+        var event = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        when(debitHandler.handle(event)).thenReturn(Mono.error(new RuntimeException("DB down")));
+        when(streamBridge.send(eq("account-consumer-dlq-0"), any(Message.class))).thenReturn(false);
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message(event, ack))))
+                .verifyComplete();
+
+        // Assert
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Metrics: Transit time is taken from the producedAt header and handler time is tagged by event type")
+    void shouldRecordTransitAndHandlerTime() {
+        // Arrange
+        var event = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        when(debitHandler.handle(event)).thenReturn(Mono.empty());
+
+        Message<TransferInitiatedEvent> message = MessageBuilder.fromMessage(message(event, mock(Acknowledgment.class)))
+                .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER, String.valueOf(System.currentTimeMillis() - 2000))
+                .build();
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message)))
+                .verifyComplete();
+
+        // Assert
+        var transit = meterRegistry.find("money.account.event.transit").tag("type", "TRANSFER_INITIATED").timer();
+        assertThat(transit.count()).isEqualTo(1);
+        assertThat(transit.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(2000);
+
+        var handler = meterRegistry.find("money.account.event.handler.duration").tag("type", "TRANSFER_INITIATED").timer();
+        assertThat(handler.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Batch: Settled events are acked and a rejected one falls back to the per-event path")
+    void shouldAckSettledEvents_AndFallBackForRejected_WhenBatchEnabled() {
+        // Arrange
+        when(properties.consumer()).thenReturn(consumerProperties(true));
+
+        var settled = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        var rejected = new TransferInitiatedEvent(UUID.randomUUID(), "3", "2", BigDecimal.ONE, "TRY");
+        when(debitHandler.toCommand(any())).thenReturn(mock(AccountCommand.class));
+        when(batchProcessor.process(anyList()))
+                .thenReturn(Mono.just(new Throwable[]{null, new IllegalStateException("rejected")}));
+        when(debitHandler.handle(rejected)).thenReturn(Mono.empty());
+
+        Acknowledgment settledAck = mock(Acknowledgment.class);
+        Acknowledgment rejectedAck = mock(Acknowledgment.class);
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message(settled, settledAck), message(rejected, rejectedAck))))
+                .verifyComplete();
+
+        // Assert
+        verify(batchProcessor).process(argThat(commands -> commands.size() == 2));
+        verify(debitHandler, never()).handle(settled);
+        verify(debitHandler).handle(rejected);
+        verify(settledAck).acknowledge();
+        verify(rejectedAck).acknowledge();
+
+        // The settled event is timed from the batch, the rejected one by its own per-event run
+        var handler = meterRegistry.find("money.account.event.handler.duration").tag("type", "TRANSFER_INITIATED").timer();
+        assertThat(handler.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Batch: Every event takes the per-event path when the batch transaction fails")
+    void shouldHandleEventsOneByOne_WhenBatchFails() {
+        // Arrange
+        when(properties.consumer()).thenReturn(consumerProperties(true));
+
+        var first = new TransferInitiatedEvent(UUID.randomUUID(), "1", "2", BigDecimal.TEN, "TRY");
+        var second = new TransferInitiatedEvent(UUID.randomUUID(), "3", "2", BigDecimal.ONE, "TRY");
+        when(debitHandler.toCommand(any())).thenReturn(mock(AccountCommand.class));
+        when(batchProcessor.process(anyList())).thenReturn(Mono.error(new RuntimeException("DB down")));
+        when(debitHandler.handle(any())).thenReturn(Mono.empty());
+
+        Acknowledgment firstAck = mock(Acknowledgment.class);
+        Acknowledgment secondAck = mock(Acknowledgment.class);
+
+        // Act
+        StepVerifier.create(listener.transferInitiated().apply(Flux.just(message(first, firstAck), message(second, secondAck))))
+                .verifyComplete();
+
+        // Assert
+        verify(debitHandler).handle(first);
+        verify(debitHandler).handle(second);
+        verify(firstAck).acknowledge();
+        verify(secondAck).acknowledge();
+    }
+
+    private AccountProperties.ConsumerProperties consumerProperties(boolean batchEnabled) {
+        return new AccountProperties.ConsumerProperties(4, 2, Duration.ofMillis(1), "account-consumer-dlq-0",
+                batchEnabled, 10, Duration.ofMillis(50));
+    }
+
+    private <T> Message<T> message(T event, Acknowledgment ack) {
+        return MessageBuilder.withPayload(event)
+                .setHeader(KafkaHeaders.ACKNOWLEDGMENT, ack)
+                .build();
+    }
+}
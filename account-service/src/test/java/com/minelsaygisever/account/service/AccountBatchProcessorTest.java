@@ -0,0 +1,212 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.domain.ProcessedTransaction;
+import com.minelsaygisever.account.domain.enums.AccountStatus;
+import com.minelsaygisever.account.domain.enums.OperationType;
+import com.minelsaygisever.account.repository.AccountRepository;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.common.domain.Money;
+import com.minelsaygisever.common.domain.enums.EventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccountBatchProcessorTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ProcessedTransactionRepository processedTransactionRepository;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private AccountProperties properties;
+
+    @Mock
+    private TransactionalOperator txOp;
+
+    private AccountBatchProcessor processor;
+
+    @BeforeEach
+    void setup() {
+        when(properties.dedupe()).thenReturn(dedupeProperties());
+        when(txOp.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Every key is fresh unless a test says otherwise
+        when(processedTransactionRepository.tryInsertAll(any(), any())).thenAnswer(inv -> {
+            String[] ids = inv.getArgument(0);
+            String[] types = inv.getArgument(1);
+            return Flux.range(0, ids.length).map(i -> ProcessedTransaction.builder()
+                    .transactionId(UUID.fromString(ids[i]))
+                    .operationType(OperationType.valueOf(types[i]))
+                    .build());
+        });
+        when(accountRepository.applyBalanceDeltas(any(), any())).thenAnswer(inv -> Mono.just(((String[]) inv.getArgument(0)).length));
+        when(outboxRepository.insertAll(any(), any(), any())).thenAnswer(inv -> Mono.just(((String[]) inv.getArgument(0)).length));
+
+        AccountService accountService = new AccountService(accountRepository, null, properties, null);
+        TransactionDeduplicator deduplicator = new TransactionDeduplicator(processedTransactionRepository, properties);
+        processor = new AccountBatchProcessor(accountRepository, deduplicator, outboxRepository,
+                accountService, txOp);
+    }
+
+    @Test
+    @DisplayName("Process: Should apply a batch over several accounts with one delta UPDATE and one outbox insert")
+    void process_ShouldGroupCommitAcrossAccounts() {
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(Flux.just(account(1L, "100.00"), account(2L, "10.00")));
+
+        List<AccountCommand> commands = List.of(
+                command(1L, OperationType.DEBIT, "40.00", true),
+                command(2L, OperationType.CREDIT, "5.00", true),
+                command(1L, OperationType.DEBIT, "30.00", true)
+        );
+
+        StepVerifier.create(processor.process(commands))
+                .assertNext(outcomes -> assertThat(outcomes).containsOnlyNulls())
+                .verifyComplete();
+
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> deltas = ArgumentCaptor.forClass(String[].class);
+        verify(accountRepository).applyBalanceDeltas(ids.capture(), deltas.capture());
+        assertThat(ids.getValue()).containsExactly("1", "2");
+        assertThat(deltas.getValue()).containsExactly("-70.00", "5.00");
+
+        verify(processedTransactionRepository, times(1)).tryInsertAll(any(), any());
+        verify(outboxRepository, times(1)).insertAll(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Process: Should write only the rejected item's failure event and keep the rest of the batch")
+    void process_ShouldIsolateBusinessFailure() {
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(Flux.just(account(1L, "100.00"), account(2L, "10.00")));
+
+        List<AccountCommand> commands = List.of(
+                command(1L, OperationType.DEBIT, "40.00", true),
+                command(2L, OperationType.DEBIT, "40.00", true)
+        );
+
+        StepVerifier.create(processor.process(commands))
+                .assertNext(outcomes -> assertThat(outcomes).containsOnlyNulls())
+                .verifyComplete();
+
+        ArgumentCaptor<String[]> ids = ArgumentCaptor.forClass(String[].class);
+        verify(accountRepository).applyBalanceDeltas(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactly("1");
+
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(outboxRepository).insertAll(any(), types.capture(), any());
+        assertThat(types.getValue()).containsExactly(EventType.ACCOUNT_DEBITED.name(), EventType.ACCOUNT_DEBIT_FAILED.name());
+    }
+
+    @Test
+    @DisplayName("Process: Should signal the rejection and release the dedupe key of a command without failure event")
+    void process_ShouldSignalRejection_WhenNoFailureEvent() {
+        when(processedTransactionRepository.deleteByKey(any(), any())).thenReturn(Mono.just(1));
+
+        AccountCommand refund = command(1L, OperationType.REFUND, "5.00", false);
+        Account closed = account(1L, "10.00");
+        closed.setStatus(AccountStatus.CLOSED);
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(Flux.just(closed));
+
+        StepVerifier.create(processor.process(List.of(refund)))
+                .assertNext(outcomes -> assertThat(outcomes[0]).isNotNull())
+                .verifyComplete();
+
+        verify(processedTransactionRepository).deleteByKey(refund.transactionId(), OperationType.REFUND.name());
+        verify(accountRepository, never()).applyBalanceDeltas(any(), any());
+    }
+
+    @Test
+    @DisplayName("Process: Should run striped accounts through their handler path after the commit")
+    void process_ShouldFallback_ForStripedAccounts() {
+        Account striped = account(2L, "0.00");
+        striped.setBalanceSlots(8);
+        when(accountRepository.findAllByIdForUpdate(any())).thenReturn(Flux.just(account(1L, "100.00"), striped));
+
+        AtomicInteger fallbacks = new AtomicInteger();
+        AccountCommand stripedCredit = new AccountCommand(2L, UUID.randomUUID(), OperationType.CREDIT,
+                Money.of(new BigDecimal("5.00"), "TRY"), outbox(EventType.ACCOUNT_CREDITED), null,
+                () -> Mono.fromRunnable(fallbacks::incrementAndGet));
+
+        StepVerifier.create(processor.process(List.of(command(1L, OperationType.CREDIT, "5.00", true), stripedCredit)))
+                .assertNext(outcomes -> assertThat(outcomes).containsOnlyNulls())
+                .verifyComplete();
+
+        assertThat(fallbacks).hasValue(1);
+
+        ArgumentCaptor<String[]> dedupeIds = ArgumentCaptor.forClass(String[].class);
+        verify(processedTransactionRepository).tryInsertAll(dedupeIds.capture(), any());
+        assertThat(dedupeIds.getValue()).doesNotContain(stripedCredit.transactionId().toString());
+    }
+
+    private Account account(Long id, String balance) {
+        return Account.builder()
+                .id(id)
+                .customerId(String.valueOf(id))
+                .balance(new BigDecimal(balance))
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .dailyLimit(new BigDecimal("5000.00"))
+                .build();
+    }
+
+    private AccountCommand command(Long accountId, OperationType type, String amount, boolean withFailureEvent) {
+        EventType success = switch (type) {
+            case DEBIT -> EventType.ACCOUNT_DEBITED;
+            case CREDIT -> EventType.ACCOUNT_CREDITED;
+            case REFUND -> EventType.ACCOUNT_REFUNDED;
+        };
+        EventType failure = type == OperationType.DEBIT ? EventType.ACCOUNT_DEBIT_FAILED : EventType.ACCOUNT_CREDIT_FAILED;
+
+        return new AccountCommand(
+                accountId,
+                UUID.randomUUID(),
+                type,
+                Money.of(new BigDecimal(amount), "TRY"),
+                outbox(success),
+                withFailureEvent ? reason -> outbox(failure) : null,
+                Mono::empty
+        );
+    }
+
+    private Outbox outbox(EventType type) {
+        return Outbox.builder()
+                .aggregateId("1")
+                .type(type)
+                .payload("{}")
+                .build();
+    }
+
+    private AccountProperties.DedupeProperties dedupeProperties() {
+        return new AccountProperties.DedupeProperties(100, "0 5 0 * * *", Duration.ofDays(8), 1000, false, 3, 1000, 0.01);
+    }
+}
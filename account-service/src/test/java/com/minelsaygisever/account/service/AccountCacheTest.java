@@ -0,0 +1,108 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.enums.AccountStatus;
+import com.minelsaygisever.account.dto.AccountDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheTest {
+
+    @Mock
+    private AccountProperties properties;
+
+    @Mock
+    private ObjectProvider<ReactiveRedisTemplate<String, AccountDto>> redisTemplate;
+
+    @Test
+    @DisplayName("Cache: Should serve repeated reads from memory until the account is evicted")
+    void get_ShouldHitUntilEvicted() {
+        // Arrange
+        AccountCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act & Assert
+        StepVerifier.create(cache.get(1L, id -> Mono.fromCallable(() -> dto(loads.incrementAndGet()))))
+                .assertNext(dto -> assertThat(dto.balance()).isEqualByComparingTo("1"))
+                .verifyComplete();
+        StepVerifier.create(cache.get(1L, id -> Mono.fromCallable(() -> dto(loads.incrementAndGet()))))
+                .assertNext(dto -> assertThat(dto.balance()).isEqualByComparingTo("1"))
+                .verifyComplete();
+
+        StepVerifier.create(cache.evict(1L)).verifyComplete();
+
+        StepVerifier.create(cache.get(1L, id -> Mono.fromCallable(() -> dto(loads.incrementAndGet()))))
+                .assertNext(dto -> assertThat(dto.balance()).isEqualByComparingTo("2"))
+                .verifyComplete();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Cache: Should share one load between concurrent misses for the same account")
+    void get_ShouldCoalesceConcurrentMisses() {
+        // Arrange
+        AccountCache cache = cache(true);
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<AccountDto> pending = Sinks.one();
+
+        Mono<AccountDto> first = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<AccountDto> second = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return pending.asMono();
+        });
+
+        // Act & Assert
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> pending.tryEmitValue(dto(7)))
+                .assertNext(both -> assertThat(both.getT1()).isEqualTo(both.getT2()))
+                .verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Cache: Should read through on every call when disabled")
+    void get_ShouldPassThrough_WhenDisabled() {
+        // Arrange
+        AccountCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(cache.get(1L, id -> Mono.fromCallable(() -> dto(loads.incrementAndGet()))))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    private AccountCache cache(boolean enabled) {
+        when(properties.cache()).thenReturn(new AccountProperties.CacheProperties(enabled, 100, Duration.ofMinutes(1), false));
+        return new AccountCache(properties, redisTemplate, new SimpleMeterRegistry());
+    }
+
+    private AccountDto dto(int balance) {
+        return new AccountDto("1", "customer", BigDecimal.valueOf(balance), "TRY", AccountStatus.ACTIVE, new BigDecimal("5000.00"));
+    }
+}
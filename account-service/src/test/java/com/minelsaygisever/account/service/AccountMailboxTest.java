@@ -0,0 +1,228 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.domain.ProcessedTransaction;
+import com.minelsaygisever.account.domain.enums.AccountStatus;
+import com.minelsaygisever.account.domain.enums.OperationType;
+import com.minelsaygisever.account.exception.InsufficientBalanceException;
+import com.minelsaygisever.account.repository.AccountRepository;
+import com.minelsaygisever.account.repository.OutboxRepository;
+import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import com.minelsaygisever.common.domain.Money;
+import com.minelsaygisever.common.domain.enums.EventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccountMailboxTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ProcessedTransactionRepository processedTransactionRepository;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private AccountProperties properties;
+
+    @Mock
+    private TransactionalOperator txOp;
+
+    private AccountMailbox mailbox;
+
+    @BeforeEach
+    void setup() {
+        when(properties.mailbox()).thenReturn(new AccountProperties.MailboxProperties(true, 100));
+        when(properties.dedupe()).thenReturn(dedupeProperties());
+        when(txOp.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Every key is fresh unless a test says otherwise
+        when(processedTransactionRepository.tryInsertAll(any(), any())).thenAnswer(inv -> {
+            String[] ids = inv.getArgument(0);
+            String[] types = inv.getArgument(1);
+            return Flux.range(0, ids.length).map(i -> ProcessedTransaction.builder()
+                    .transactionId(UUID.fromString(ids[i]))
+                    .operationType(OperationType.valueOf(types[i]))
+                    .build());
+        });
+        when(accountRepository.applyBalanceDelta(anyLong(), any())).thenReturn(Mono.just(1));
+        when(outboxRepository.insertAll(any(), any(), any())).thenAnswer(inv -> Mono.just(((String[]) inv.getArgument(0)).length));
+
+        AccountService accountService = new AccountService(accountRepository, null, properties, null);
+        TransactionDeduplicator deduplicator = new TransactionDeduplicator(processedTransactionRepository, properties);
+        mailbox = new AccountMailbox(accountRepository, deduplicator, outboxRepository,
+                accountService, properties, txOp);
+    }
+
+    @Test
+    @DisplayName("Submit: Should apply debit with one balance UPDATE and one outbox insert")
+    void submit_ShouldApplyDebit() {
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("100.00")));
+
+        StepVerifier.create(mailbox.submit(command(OperationType.DEBIT, "40.00", true)))
+                .verifyComplete();
+
+        verify(accountRepository).applyBalanceDelta(ACCOUNT_ID, new BigDecimal("-40.00"));
+
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(outboxRepository).insertAll(any(), types.capture(), any());
+        assertThat(types.getValue()).containsExactly(EventType.ACCOUNT_DEBITED.name());
+    }
+
+    @Test
+    @DisplayName("Submit: Should write failure event and leave balance untouched when funds are insufficient")
+    void submit_ShouldWriteFailureEvent_WhenInsufficientBalance() {
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("10.00")));
+
+        StepVerifier.create(mailbox.submit(command(OperationType.DEBIT, "40.00", true)))
+                .verifyComplete();
+
+        verify(accountRepository, never()).applyBalanceDelta(anyLong(), any());
+
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(outboxRepository).insertAll(any(), types.capture(), any());
+        assertThat(types.getValue()).containsExactly(EventType.ACCOUNT_DEBIT_FAILED.name());
+    }
+
+    @Test
+    @DisplayName("Submit: Should write failure event when the debit exceeds the daily limit")
+    void submit_ShouldWriteFailureEvent_WhenDailyLimitExceeded() {
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("10000.00")));
+
+        StepVerifier.create(mailbox.submit(command(OperationType.DEBIT, "5000.01", true)))
+                .verifyComplete();
+
+        verify(accountRepository, never()).applyBalanceDelta(anyLong(), any());
+
+        ArgumentCaptor<String[]> types = ArgumentCaptor.forClass(String[].class);
+        verify(outboxRepository).insertAll(any(), types.capture(), any());
+        assertThat(types.getValue()).containsExactly(EventType.ACCOUNT_DEBIT_FAILED.name());
+    }
+
+    @Test
+    @DisplayName("Submit: Should report insufficient funds first when the debit also exceeds the daily limit")
+    void submit_ShouldReportInsufficientBalance_WhenBothChecksFail() {
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("10.00")));
+
+        StepVerifier.create(mailbox.submit(command(OperationType.DEBIT, "5000.01", true)))
+                .verifyComplete();
+
+        ArgumentCaptor<String[]> payloads = ArgumentCaptor.forClass(String[].class);
+        verify(outboxRepository).insertAll(any(), any(), payloads.capture());
+        assertThat(payloads.getValue()).containsExactly("Insufficient funds for Account " + ACCOUNT_ID);
+    }
+
+    @Test
+    @DisplayName("Submit: Should skip balance and outbox writes for an already processed transaction")
+    void submit_ShouldIgnoreDuplicate() {
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("100.00")));
+        when(processedTransactionRepository.tryInsertAll(any(), any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(mailbox.submit(command(OperationType.CREDIT, "40.00", true)))
+                .verifyComplete();
+
+        verify(accountRepository, never()).applyBalanceDelta(anyLong(), any());
+        verify(outboxRepository, never()).insertAll(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Submit: Should signal error and release dedupe key when a command has no failure event")
+    void submit_ShouldErrorAndUndoDedupe_WhenNoFailureEvent() {
+        AccountCommand command = command(OperationType.DEBIT, "40.00", false);
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(account("10.00")));
+        when(processedTransactionRepository.deleteByKey(any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(mailbox.submit(command))
+                .expectError(InsufficientBalanceException.class)
+                .verify();
+
+        verify(processedTransactionRepository).deleteByKey(command.transactionId(), OperationType.DEBIT.name());
+        verify(outboxRepository, never()).insertAll(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Submit: Should use the regular handler path for striped accounts")
+    void submit_ShouldFallback_WhenAccountIsStriped() {
+        Account striped = account("100.00");
+        striped.setBalanceSlots(8);
+        when(accountRepository.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Mono.just(striped));
+
+        StepVerifier.create(mailbox.submit(command(OperationType.CREDIT, "40.00", true)))
+                .verifyComplete();
+
+        verify(processedTransactionRepository, never()).tryInsertAll(any(), any());
+        verify(accountRepository, never()).applyBalanceDelta(eq(ACCOUNT_ID), any());
+    }
+
+    private Account account(String balance) {
+        return Account.builder()
+                .id(ACCOUNT_ID)
+                .customerId("1")
+                .balance(new BigDecimal(balance))
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .dailyLimit(new BigDecimal("5000.00"))
+                .build();
+    }
+
+    private AccountCommand command(OperationType type, String amount, boolean withFailureEvent) {
+        EventType success = type == OperationType.DEBIT ? EventType.ACCOUNT_DEBITED : EventType.ACCOUNT_CREDITED;
+        EventType failure = type == OperationType.DEBIT ? EventType.ACCOUNT_DEBIT_FAILED : EventType.ACCOUNT_CREDIT_FAILED;
+
+        return new AccountCommand(
+                ACCOUNT_ID,
+                UUID.randomUUID(),
+                type,
+                Money.of(new BigDecimal(amount), "TRY"),
+                outbox(success),
+                withFailureEvent ? reason -> outbox(failure, reason) : null,
+                Mono::empty
+        );
+    }
+
+    private Outbox outbox(EventType type) {
+        return outbox(type, "{}");
+    }
+
+    // Failure events carry the rejection reason as their payload, so tests can tell the reasons apart
+    private Outbox outbox(EventType type, String payload) {
+        return Outbox.builder()
+                .aggregateId(String.valueOf(ACCOUNT_ID))
+                .type(type)
+                .payload(payload)
+                .build();
+    }
+
+    private AccountProperties.DedupeProperties dedupeProperties() {
+        return new AccountProperties.DedupeProperties(100, "0 5 0 * * *", Duration.ofDays(8), 1000, false, 3, 1000, 0.01);
+    }
+}
@@ -2,26 +2,36 @@ package com.minelsaygisever.account.service;
 
 import com.minelsaygisever.account.config.AccountProperties;
 import com.minelsaygisever.account.domain.Account;
+import com.minelsaygisever.account.domain.AccountBalanceSlot;
 import com.minelsaygisever.account.domain.enums.AccountStatus;
+import com.minelsaygisever.account.dto.AccountDto;
 import com.minelsaygisever.account.dto.CreateAccountRequest;
 import com.minelsaygisever.account.exception.AccountNotActiveException;
 import com.minelsaygisever.account.exception.AccountNotFoundException;
 import com.minelsaygisever.account.exception.DailyLimitExceededException;
 import com.minelsaygisever.account.exception.InsufficientBalanceException;
+import com.minelsaygisever.account.repository.AccountBalanceSlotRepository;
 import com.minelsaygisever.account.repository.AccountRepository;
 import com.minelsaygisever.common.exception.CurrencyMismatchException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.util.function.Function;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
@@ -31,12 +41,26 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountBalanceSlotRepository balanceSlotRepository;
+
     @Mock
     private AccountProperties accountProperties;
 
+    @Mock
+    private AccountCache accountCache;
+
     @InjectMocks
     private AccountService accountService;
 
+    @BeforeEach
+    void setup() {
+        // Pass-through cache: these tests cover the database paths
+        lenient().when(accountCache.get(any(), any())).thenAnswer(inv ->
+                inv.<Function<Long, Mono<AccountDto>>>getArgument(1).apply(inv.getArgument(0)));
+        lenient().when(accountCache.evict(any())).thenReturn(Mono.empty());
+    }
+
     // --- CREATE TESTS ---
 
     @Test
@@ -118,9 +142,9 @@ class AccountServiceTest {
                 .dailyLimit(new BigDecimal("1000.00"))
                 .build();
 
-        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
-        // Mock save to return the modified account
-        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        // Mock the guarded UPDATE to return the debited account
+        account.setBalance(new BigDecimal("50.00"));
+        when(accountRepository.debitBalance(1L, new BigDecimal("50.00"), "TRY")).thenReturn(Mono.just(account));
 
         // Act: Withdraw 50.00
         Mono<Void> result = accountService.withdraw("1", new BigDecimal("50.00"), "TRY");
@@ -129,10 +153,11 @@ class AccountServiceTest {
         StepVerifier.create(result)
                 .verifyComplete();
 
-        // Verification: Ensure save was called with the new balance (50.00)
-        verify(accountRepository).save(argThat(acc ->
-                acc.getBalance().compareTo(new BigDecimal("50.00")) == 0
-        ));
+        // Verification: Single statement, no read-modify-write
+        verify(accountRepository).debitBalance(1L, new BigDecimal("50.00"), "TRY");
+        verify(accountRepository, never()).findById(anyLong());
+        verify(accountRepository, never()).save(any());
+        verify(accountCache).evict(1L);
     }
 
     @Test
@@ -147,6 +172,7 @@ class AccountServiceTest {
                 .status(AccountStatus.ACTIVE)
                 .build();
 
+        when(accountRepository.debitBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Act: Try to withdraw in TRY
@@ -172,6 +198,7 @@ class AccountServiceTest {
                 .status(AccountStatus.ACTIVE)
                 .build();
 
+        when(accountRepository.debitBalance(1L, BigDecimal.valueOf(100), "TRY")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Act: Try to withdraw 100.00
@@ -199,6 +226,7 @@ class AccountServiceTest {
                 .status(AccountStatus.ACTIVE)
                 .build();
 
+        when(accountRepository.debitBalance(1L, BigDecimal.valueOf(2000), "TRY")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Try to withdraw 2000 TL
@@ -212,6 +240,51 @@ class AccountServiceTest {
         verify(accountRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Withdraw: Should report insufficient funds first when the amount also exceeds the daily limit")
+    void withdraw_ShouldThrowInsufficientBalance_WhenBalanceIsLowAndDailyLimitExceeded() {
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("12345")
+                .balance(BigDecimal.valueOf(500))
+                .currency("TRY")
+                .dailyLimit(BigDecimal.valueOf(1000))
+                .status(AccountStatus.ACTIVE)
+                .build();
+
+        when(accountRepository.debitBalance(1L, BigDecimal.valueOf(2000), "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountService.withdraw("1", BigDecimal.valueOf(2000), "TRY"))
+                .expectErrorMatches(ex -> ex instanceof InsufficientBalanceException
+                        && ex.getMessage().equals("Insufficient funds for Account 1"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Striped: Withdraw should report insufficient funds first when the amount also exceeds the daily limit")
+    void withdraw_ShouldThrowInsufficientBalance_WhenStripedBalanceIsLowAndDailyLimitExceeded() {
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("merchant")
+                .balance(BigDecimal.ZERO)
+                .currency("TRY")
+                .dailyLimit(BigDecimal.valueOf(1000))
+                .status(AccountStatus.ACTIVE)
+                .balanceSlots(2)
+                .build();
+
+        when(accountRepository.debitBalance(1L, BigDecimal.valueOf(2000), "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(balanceSlotRepository.sumBalance(1L)).thenReturn(Mono.just(BigDecimal.valueOf(500)));
+
+        StepVerifier.create(accountService.withdraw("1", BigDecimal.valueOf(2000), "TRY"))
+                .expectError(InsufficientBalanceException.class)
+                .verify();
+
+        verify(balanceSlotRepository, never()).debitSingleSlot(any(), any());
+    }
+
     @Test
     @DisplayName("Withdraw: Should throw AccountNotActiveException when account is FROZEN")
     void withdraw_ShouldThrowException_WhenAccountNotActive() {
@@ -224,6 +297,7 @@ class AccountServiceTest {
                 .status(AccountStatus.FROZEN) // Account is frozen
                 .build();
 
+        when(accountRepository.debitBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Act
@@ -248,17 +322,29 @@ class AccountServiceTest {
                 .status(AccountStatus.ACTIVE)
                 .build();
 
-        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
-        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        account.setBalance(new BigDecimal("150.00"));
+        when(accountRepository.creditBalance(1L, new BigDecimal("50.00"), "TRY")).thenReturn(Mono.just(account));
 
         // Act: Add 50.00
         StepVerifier.create(accountService.addMoney("1", new BigDecimal("50.00"), "TRY"))
                 .verifyComplete();
 
-        // Verify: Balance should be 150.00
-        verify(accountRepository).save(argThat(acc ->
-                acc.getBalance().compareTo(new BigDecimal("150.00")) == 0
-        ));
+        // Verify: Single statement, no read-modify-write
+        verify(accountRepository).creditBalance(1L, new BigDecimal("50.00"), "TRY");
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Credit/Debit: Should leave the cache eviction to the caller's commit")
+    void creditAndDebit_ShouldNotEvict() {
+        Account account = Account.builder().id(1L).balance(new BigDecimal("100.00")).currency("TRY").status(AccountStatus.ACTIVE).build();
+        when(accountRepository.creditBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.just(account));
+        when(accountRepository.debitBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountService.credit("1", BigDecimal.TEN, "TRY").then(accountService.debit("1", BigDecimal.TEN, "TRY")))
+                .verifyComplete();
+
+        verify(accountCache, never()).evict(any());
     }
 
     @Test
@@ -273,6 +359,7 @@ class AccountServiceTest {
                 .status(AccountStatus.ACTIVE)
                 .build();
 
+        when(accountRepository.creditBalance(1L, BigDecimal.TEN, "USD")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Try to add USD
@@ -295,6 +382,7 @@ class AccountServiceTest {
                 .status(AccountStatus.CLOSED)
                 .build();
 
+        when(accountRepository.creditBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
         when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
 
         // Act
@@ -304,4 +392,118 @@ class AccountServiceTest {
 
         verify(accountRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Withdraw: Should throw AccountNotFoundException when guarded update matches no account")
+    void withdraw_ShouldThrowException_WhenAccountNotFound() {
+        // Arrange
+        when(accountRepository.debitBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(accountService.withdraw("1", BigDecimal.TEN, "TRY"))
+                .expectError(AccountNotFoundException.class)
+                .verify();
+    }
+
+    // --- STRIPED ACCOUNT TESTS ---
+
+    @Test
+    @DisplayName("Striped: Credit should go to a balance slot instead of the account row")
+    void addMoney_ShouldCreditSlot_WhenAccountIsStriped() {
+        // Arrange
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("merchant")
+                .balance(BigDecimal.ZERO)
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .balanceSlots(4)
+                .build();
+
+        when(accountRepository.creditBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(balanceSlotRepository.creditSlot(eq(1L), anyInt(), eq(BigDecimal.TEN)))
+                .thenReturn(Mono.just(new AccountBalanceSlot(1L, 0, BigDecimal.TEN)));
+
+        // Act
+        StepVerifier.create(accountService.addMoney("1", BigDecimal.TEN, "TRY"))
+                .verifyComplete();
+
+        // Assert: slot index is within the configured stripes
+        verify(balanceSlotRepository).creditSlot(eq(1L), intThat(slot -> slot >= 0 && slot < 4), eq(BigDecimal.TEN));
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Striped: Withdraw should drain several slots when no single slot covers the amount")
+    void withdraw_ShouldDebitAcrossSlots_WhenNoSingleSlotIsEnough() {
+        // Arrange
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("merchant")
+                .balance(BigDecimal.ZERO)
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .balanceSlots(2)
+                .build();
+
+        BigDecimal amount = new BigDecimal("150.00");
+        when(accountRepository.debitBalance(1L, amount, "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(balanceSlotRepository.debitSingleSlot(1L, amount)).thenReturn(Mono.empty());
+        when(balanceSlotRepository.debitAcrossSlots(1L, amount)).thenReturn(Flux.just(
+                new AccountBalanceSlot(1L, 0, BigDecimal.ZERO),
+                new AccountBalanceSlot(1L, 1, new BigDecimal("50.00"))));
+
+        // Act & Assert
+        StepVerifier.create(accountService.withdraw("1", amount, "TRY"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Striped: Withdraw should throw InsufficientBalanceException when all slots together are short")
+    void withdraw_ShouldThrowException_WhenStripedBalanceIsInsufficient() {
+        // Arrange
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("merchant")
+                .balance(BigDecimal.ZERO)
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .balanceSlots(2)
+                .build();
+
+        when(accountRepository.debitBalance(1L, BigDecimal.TEN, "TRY")).thenReturn(Mono.empty());
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(balanceSlotRepository.debitSingleSlot(1L, BigDecimal.TEN)).thenReturn(Mono.empty());
+        when(balanceSlotRepository.debitAcrossSlots(1L, BigDecimal.TEN)).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(accountService.withdraw("1", BigDecimal.TEN, "TRY"))
+                .expectError(InsufficientBalanceException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Striped: FindById should return the sum of all balance slots")
+    void findById_ShouldAggregateSlots_WhenAccountIsStriped() {
+        // Arrange
+        Account account = Account.builder()
+                .id(1L)
+                .customerId("merchant")
+                .balance(BigDecimal.ZERO)
+                .currency("TRY")
+                .status(AccountStatus.ACTIVE)
+                .balanceSlots(8)
+                .build();
+
+        when(accountRepository.findById(1L)).thenReturn(Mono.just(account));
+        when(balanceSlotRepository.sumBalance(1L)).thenReturn(Mono.just(new BigDecimal("1234.50")));
+
+        // Act & Assert
+        StepVerifier.create(accountService.findById("1"))
+                .expectNextMatches(dto -> dto.balance().compareTo(new BigDecimal("1234.50")) == 0)
+                .verifyComplete();
+    }
+}
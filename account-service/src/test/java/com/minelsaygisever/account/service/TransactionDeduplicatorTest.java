@@ -0,0 +1,117 @@
+package com.minelsaygisever.account.service;
+
+import com.minelsaygisever.account.config.AccountProperties;
+import com.minelsaygisever.account.domain.ProcessedTransaction;
+import com.minelsaygisever.account.domain.enums.OperationType;
+import com.minelsaygisever.account.repository.ProcessedTransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionDeduplicatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ProcessedTransactionRepository repository;
+
+    @Mock
+    private AccountProperties properties;
+
+    @Test
+    @DisplayName("Recent: Should only short-circuit keys after they were remembered, and forget released ones")
+    void recent_ShouldHoldOnlyRememberedKeys() {
+        // Arrange
+        TransactionDeduplicator deduplicator = deduplicator(false);
+        UUID txId = UUID.randomUUID();
+        when(repository.deleteByKey(any(), any())).thenReturn(Mono.just(1));
+
+        // Act & Assert
+        assertThat(deduplicator.isRecentlyProcessed(txId, OperationType.DEBIT.name())).isFalse();
+
+        deduplicator.remember(txId, OperationType.DEBIT.name());
+        assertThat(deduplicator.isRecentlyProcessed(txId, OperationType.DEBIT.name())).isTrue();
+        assertThat(deduplicator.isRecentlyProcessed(txId, OperationType.CREDIT.name())).isFalse();
+
+        StepVerifier.create(deduplicator.release(txId, OperationType.DEBIT.name()))
+                .expectNext(1)
+                .verifyComplete();
+        assertThat(deduplicator.isRecentlyProcessed(txId, OperationType.DEBIT.name())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Partitioned: Should probe past partitions until the history filter is built")
+    void tryInsert_ShouldProbe_WhenNoFilter() {
+        // Arrange
+        TransactionDeduplicator deduplicator = deduplicator(true);
+        UUID txId = UUID.randomUUID();
+        when(repository.tryInsertPartitioned(any(), any(), any())).thenReturn(Mono.just(processed(txId)));
+
+        // Act & Assert
+        StepVerifier.create(deduplicator.tryInsert(txId, OperationType.DEBIT.name()))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(repository).tryInsertPartitioned(txId, OperationType.DEBIT.name(), LocalDate.EPOCH);
+    }
+
+    @Test
+    @DisplayName("Partitioned: Should skip the past-partition probe only for keys the filter rules out")
+    void tryInsert_ShouldSkipProbe_WhenFilterRulesKeyOut() {
+        // Arrange
+        TransactionDeduplicator deduplicator = deduplicator(true);
+        UUID oldTx = UUID.randomUUID();
+        UUID newTx = UUID.randomUUID();
+
+        when(repository.currentDate()).thenReturn(Mono.just(TODAY));
+        when(repository.findAllProcessedBefore(TODAY)).thenReturn(Flux.just(processed(oldTx)));
+        when(repository.tryInsertPartitioned(any(), any(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(deduplicator.rebuildHistory())
+                .expectNext(1L)
+                .verifyComplete();
+
+        // Act
+        StepVerifier.create(deduplicator.tryInsert(oldTx, OperationType.DEBIT.name()))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(deduplicator.tryInsert(newTx, OperationType.DEBIT.name()))
+                .expectNext(false)
+                .verifyComplete();
+
+        // Assert
+        verify(repository).tryInsertPartitioned(eq(oldTx), any(), eq(LocalDate.EPOCH));
+        verify(repository).tryInsertPartitioned(eq(newTx), any(), eq(TODAY));
+    }
+
+    private TransactionDeduplicator deduplicator(boolean partitioned) {
+        when(properties.dedupe()).thenReturn(new AccountProperties.DedupeProperties(
+                100, "0 5 0 * * *", Duration.ofDays(8), 1000, partitioned, 3, 1000, 0.01));
+        return new TransactionDeduplicator(repository, properties);
+    }
+
+    private ProcessedTransaction processed(UUID txId) {
+        return ProcessedTransaction.builder()
+                .transactionId(txId)
+                .operationType(OperationType.DEBIT)
+                .build();
+    }
+}
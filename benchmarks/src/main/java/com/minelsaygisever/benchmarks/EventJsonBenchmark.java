@@ -0,0 +1,62 @@
+package com.minelsaygisever.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes and deserializes each common-library event record, as the outbox writers and the
+ * saga listener do for every event, with Jackson and with the binary {@link EventCodec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventJsonBenchmark {
+
+    @Param({
+            "TransferInitiatedEvent", "AccountDebitedEvent", "AccountDebitFailedEvent",
+            "TransferDepositRequestedEvent", "AccountCreditedEvent", "AccountCreditFailedEvent",
+            "TransferRefundRequestedEvent", "AccountRefundedEvent", "AccountRefundFailedEvent"
+    })
+    public String eventType;
+
+    private ObjectMapper objectMapper;
+    private Object event;
+    private Class<?> eventClass;
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+        event = Fixtures.events().get(eventType);
+        eventClass = event.getClass();
+        json = objectMapper.writeValueAsString(event);
+        binary = EventCodec.encode(event);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return objectMapper.readValue(json, eventClass);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return EventCodec.encode(event);
+    }
+
+    @Benchmark
+    public Object decodeBinary() {
+        return EventCodec.decode(binary, eventClass);
+    }
+}
@@ -0,0 +1,91 @@
+package com.minelsaygisever.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
+import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Shared set-up for the harnesses. Nothing here starts a Spring context; beans are built the way
+ * the auto-configuration would build them.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    /**
+     * Same builder and defaults Spring Boot's JacksonAutoConfiguration applies to the application ObjectMapper.
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Binds {@link TransferProperties} from the given overrides, so every other field keeps its {@code @DefaultValue}.
+     */
+    static TransferProperties transferProperties(Map<String, String> overrides) {
+        return new Binder(new MapConfigurationPropertySource(overrides))
+                .bindOrCreate("transfer", Bindable.of(TransferProperties.class));
+    }
+
+    /**
+     * Implements a repository interface with only the methods a harness needs; any other call fails loudly.
+     */
+    static <T> T stubRepository(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            Object result = handler.apply(method.getName(), args);
+            if (result == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return result;
+        });
+        return type.cast(stub);
+    }
+
+    /**
+     * One instance of every event record in common-library, keyed by simple class name.
+     */
+    static Map<String, Object> events() {
+        UUID txId = UUID.fromString("3f1c2a9e-8d4b-4c7a-9f0e-5b6d7c8e9a01");
+        BigDecimal amount = new BigDecimal("1250.75");
+
+        return Map.of(
+                "TransferInitiatedEvent", new TransferInitiatedEvent(txId, "1001", "2002", amount, "TRY"),
+                "AccountDebitedEvent", new AccountDebitedEvent(txId, "1001", amount, "TRY"),
+                "AccountDebitFailedEvent", new AccountDebitFailedEvent(txId, "1001", amount, "TRY", "Insufficient funds for Account 1001"),
+                "TransferDepositRequestedEvent", new TransferDepositRequestedEvent(txId, "2002", amount, "TRY"),
+                "AccountCreditedEvent", new AccountCreditedEvent(txId, "2002", amount, "TRY"),
+                "AccountCreditFailedEvent", new AccountCreditFailedEvent(txId, "2002", amount, "TRY", "Account is not ACTIVE"),
+                "TransferRefundRequestedEvent", new TransferRefundRequestedEvent(txId, "1001", amount, "TRY", "Account is not ACTIVE"),
+                "AccountRefundedEvent", new AccountRefundedEvent(txId, "1001", amount, "TRY"),
+                "AccountRefundFailedEvent", new AccountRefundFailedEvent(txId, "1001", amount, "TRY", "Account not found with id: 1001")
+        );
+    }
+}
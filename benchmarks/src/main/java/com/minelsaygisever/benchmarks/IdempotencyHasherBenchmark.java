@@ -0,0 +1,52 @@
+package com.minelsaygisever.benchmarks;
+
+import com.minelsaygisever.transfer.dto.TransferCommand;
+import com.minelsaygisever.transfer.util.IdempotencyHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with {@code -prof gc}: {@code joinedString} is the previous implementation, kept as the baseline
+ * for the allocation rate of {@code hash}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdempotencyHasherBenchmark {
+
+    private TransferCommand command;
+
+    @Setup
+    public void setup() {
+        command = new TransferCommand("idem-key-0001", " 1001 ", "2002", new BigDecimal("1250.7"), "try");
+    }
+
+    @Benchmark
+    public String hash() {
+        return IdempotencyHasher.hash(command);
+    }
+
+    @Benchmark
+    public String joinedString() throws Exception {
+        BigDecimal amount = command.amount().setScale(2, RoundingMode.UNNECESSARY);
+        String canonical = String.join("|",
+                command.senderAccountId().trim(),
+                command.receiverAccountId().trim(),
+                amount.toPlainString(),
+                command.currency().trim().toUpperCase(Locale.ROOT)
+        );
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(md.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.minelsaygisever.benchmarks;
+
+import com.minelsaygisever.account.domain.Outbox;
+import com.minelsaygisever.account.service.handler.BaseTransactionHandler;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.codec.PayloadFormat;
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutboxBuildBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    public PayloadFormat payloadFormat;
+
+    private OutboxFactory factory;
+    private AccountDebitedEvent event;
+
+    @Setup
+    public void setup() {
+        factory = new OutboxFactory(new EventPayloadSerializer(Fixtures.objectMapper(), payloadFormat));
+        event = (AccountDebitedEvent) Fixtures.events().get("AccountDebitedEvent");
+    }
+
+    @Benchmark
+    public Outbox buildOutbox() {
+        return factory.build(event.senderAccountId(), EventType.ACCOUNT_DEBITED, event);
+    }
+
+    // buildOutbox is protected; a subclass is the only way in without touching the handlers
+    static final class OutboxFactory extends BaseTransactionHandler {
+
+        OutboxFactory(EventPayloadSerializer payloadSerializer) {
+            super(payloadSerializer);
+        }
+
+        Outbox build(String aggregateId, EventType type, Object payload) {
+            return buildOutbox(aggregateId, type, payload);
+        }
+    }
+}
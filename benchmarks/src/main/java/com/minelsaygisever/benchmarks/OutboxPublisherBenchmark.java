@@ -0,0 +1,108 @@
+package com.minelsaygisever.benchmarks;
+
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.codec.PayloadFormat;
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Outbox;
+import com.minelsaygisever.transfer.domain.enums.AggregateType;
+import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import com.minelsaygisever.transfer.service.EventFlowMetrics;
+import com.minelsaygisever.transfer.service.OutboxAckRegistry;
+import com.minelsaygisever.transfer.service.OutboxShardCoordinator;
+import com.minelsaygisever.transfer.service.TransferOutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.messaging.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * One {@link TransferOutboxPublisher#processOutbox()} cycle against stubbed repositories and a
+ * StreamBridge that acks every record synchronously, in both the per-row and the batch send mode.
+ * The stub allocates the fetched rows, as R2DBC would; compare runs, not absolute numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutboxPublisherBenchmark {
+
+    @Param({"false", "true"})
+    public boolean batchSend;
+
+    @Param({"20"})
+    public int batchSize;
+
+    private TransferOutboxPublisher publisher;
+
+    @Setup
+    public void setup() throws Exception {
+        String payload = Fixtures.objectMapper().writeValueAsString(Fixtures.events().get("TransferInitiatedEvent"));
+        LocalDateTime createdAt = LocalDateTime.now();
+        AtomicLong ids = new AtomicLong();
+
+        OutboxRepository outboxRepository = Fixtures.stubRepository(OutboxRepository.class, (method, args) -> switch (method) {
+            case "findLockedBatch" -> Flux.range(0, (int) args[2]).map(i -> Outbox.builder()
+                    .id(ids.incrementAndGet())
+                    .aggregateType(AggregateType.TRANSFER)
+                    .aggregateId("3f1c2a9e-8d4b-4c7a-9f0e-5b6d7c8e9a01")
+                    .type(EventType.TRANSFER_INITIATED)
+                    .payload(payload)
+                    .status(OutboxStatus.PENDING)
+                    .retryCount(0)
+                    .createdAt(createdAt)
+                    .build());
+            case "save" -> Mono.just(args[0]);
+            case "updateStatusByIds" -> Mono.just(((Long[]) args[1]).length);
+            default -> null;
+        });
+
+        DirectChannel ackChannel = new DirectChannel();
+        OutboxAckRegistry ackRegistry = new OutboxAckRegistry(ackChannel, new DirectChannel());
+
+        // The broker ack goes to the record metadata channel with the outbox ID header, as the Kafka binder does
+        StreamBridge streamBridge = mock(StreamBridge.class, withSettings().stubOnly());
+        when(streamBridge.send(anyString(), any(Object.class))).thenAnswer(inv -> {
+            ackChannel.send(inv.getArgument(1, Message.class));
+            return true;
+        });
+
+        TransferProperties properties = Fixtures.transferProperties(Map.of(
+                "transfer.outbox.batch-size", String.valueOf(batchSize),
+                "transfer.outbox.batch-send", String.valueOf(batchSend),
+                "transfer.outbox.sharded", "false"
+        ));
+
+        publisher = new TransferOutboxPublisher(
+                outboxRepository,
+                streamBridge,
+                properties,
+                null,
+                ackRegistry,
+                new EventFlowMetrics(new SimpleMeterRegistry(), outboxRepository),
+                new EventPayloadSerializer(Fixtures.objectMapper(), PayloadFormat.JSON),
+                // Sharding off: the coordinator never touches its DatabaseClient
+                new OutboxShardCoordinator(null, properties)
+        );
+    }
+
+    @Benchmark
+    public Outbox processOutbox() {
+        return publisher.processOutbox().blockLast();
+    }
+}
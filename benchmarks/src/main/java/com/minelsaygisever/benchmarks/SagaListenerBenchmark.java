@@ -0,0 +1,160 @@
+package com.minelsaygisever.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.codec.PayloadFormat;
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
+import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.transfer.listener.TransferSagaListener;
+import com.minelsaygisever.transfer.service.EventFlowMetrics;
+import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Header parsing, payload decoding, lane routing and dispatch of {@link TransferSagaListener} for one
+ * batch of account events. The orchestrator completes immediately, so only listener overhead is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SagaListenerBenchmark {
+
+    private static final EventType[] ACCOUNT_EVENTS = {
+            EventType.ACCOUNT_DEBITED, EventType.ACCOUNT_DEBIT_FAILED,
+            EventType.ACCOUNT_CREDITED, EventType.ACCOUNT_CREDIT_FAILED,
+            EventType.ACCOUNT_REFUNDED, EventType.ACCOUNT_REFUND_FAILED
+    };
+
+    @Param({"100"})
+    public int batchSize;
+
+    @Param({"JSON", "BINARY"})
+    public PayloadFormat payloadFormat;
+
+    private Function<Flux<Message<byte[]>>, Mono<Void>> onAccountEvent;
+    private Message<byte[]>[] messages;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = Fixtures.objectMapper();
+        TransferSagaListener listener = new TransferSagaListener(
+                new NoOpOrchestrator(),
+                objectMapper,
+                null,
+                Fixtures.transferProperties(Map.of()),
+                new EventFlowMetrics(new SimpleMeterRegistry(), null)
+        );
+        onAccountEvent = listener.onAccountEvent();
+
+        Map<String, Object> events = Fixtures.events();
+        messages = new Message[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            EventType type = ACCOUNT_EVENTS[i % ACCOUNT_EVENTS.length];
+            Object event = withTransactionId(events, type, UUID.randomUUID());
+
+            MessageBuilder<byte[]> builder = payloadFormat == PayloadFormat.BINARY
+                    ? MessageBuilder.withPayload(EventCodec.encode(event)).setHeader(MessageHeaders.CONTENT_TYPE, EventCodec.CONTENT_TYPE)
+                    : MessageBuilder.withPayload(objectMapper.writeValueAsBytes(event));
+
+            // Headers arrive from Kafka as raw bytes
+            messages[i] = builder
+                    .setHeader("eventType", type.name().getBytes(StandardCharsets.UTF_8))
+                    .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER,
+                            String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public void handleBatch() {
+        onAccountEvent.apply(Flux.fromArray(messages)).block();
+    }
+
+    private static Object withTransactionId(Map<String, Object> events, EventType type, UUID txId) {
+        return switch (type) {
+            case ACCOUNT_DEBITED -> {
+                var e = (AccountDebitedEvent) events.get("AccountDebitedEvent");
+                yield new AccountDebitedEvent(txId, e.senderAccountId(), e.amount(), e.currency());
+            }
+            case ACCOUNT_DEBIT_FAILED -> {
+                var e = (AccountDebitFailedEvent) events.get("AccountDebitFailedEvent");
+                yield new AccountDebitFailedEvent(txId, e.senderAccountId(), e.amount(), e.currency(), e.reason());
+            }
+            case ACCOUNT_CREDITED -> {
+                var e = (AccountCreditedEvent) events.get("AccountCreditedEvent");
+                yield new AccountCreditedEvent(txId, e.receiverAccountId(), e.amount(), e.currency());
+            }
+            case ACCOUNT_CREDIT_FAILED -> {
+                var e = (AccountCreditFailedEvent) events.get("AccountCreditFailedEvent");
+                yield new AccountCreditFailedEvent(txId, e.receiverAccountId(), e.amount(), e.currency(), e.reason());
+            }
+            case ACCOUNT_REFUNDED -> {
+                var e = (AccountRefundedEvent) events.get("AccountRefundedEvent");
+                yield new AccountRefundedEvent(txId, e.senderAccountId(), e.amount(), e.currency());
+            }
+            case ACCOUNT_REFUND_FAILED -> {
+                var e = (AccountRefundFailedEvent) events.get("AccountRefundFailedEvent");
+                yield new AccountRefundFailedEvent(txId, e.senderAccountId(), e.amount(), e.currency(), e.reason());
+            }
+            default -> throw new IllegalArgumentException("Not an account event: " + type);
+        };
+    }
+
+    static final class NoOpOrchestrator extends TransferSagaOrchestrator {
+
+        NoOpOrchestrator() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public Mono<Void> handleDebitSuccess(AccountDebitedEvent event) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> handleDebitFail(AccountDebitFailedEvent event) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> handleCreditSuccess(AccountCreditedEvent event) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> handleCreditFail(AccountCreditFailedEvent event) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> handleRefundSuccess(AccountRefundedEvent event) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> handleRefundFail(AccountRefundFailedEvent event) {
+            return Mono.empty();
+        }
+    }
+}
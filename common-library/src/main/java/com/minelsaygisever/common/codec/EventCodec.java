@@ -0,0 +1,227 @@
+package com.minelsaygisever.common.codec;
+
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
+import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Fixed-layout binary encoding of the saga events, sent with the {@value #CONTENT_TYPE} content type.
+ * <p>
+ * Layout (version 1, big-endian): version byte, type tag byte, transaction id as two longs, then the
+ * event fields in record order. Account ids and reasons are a short length plus UTF-8 bytes (length -1
+ * for null), amounts an unscaled long plus a scale byte, currencies three ASCII bytes.
+ */
+public final class EventCodec {
+
+    public static final String CONTENT_TYPE = "application/x-money-transfer-event";
+    public static final byte VERSION = 1;
+
+    private static final int HEADER_SIZE = 2 + 2 * Long.BYTES;
+    private static final int AMOUNT_SIZE = Long.BYTES + 1;
+    private static final int CURRENCY_SIZE = 3;
+
+    private EventCodec() {}
+
+    public static boolean supports(Class<?> type) {
+        return type == TransferInitiatedEvent.class
+                || type == AccountDebitedEvent.class
+                || type == AccountDebitFailedEvent.class
+                || type == TransferDepositRequestedEvent.class
+                || type == AccountCreditedEvent.class
+                || type == AccountCreditFailedEvent.class
+                || type == TransferRefundRequestedEvent.class
+                || type == AccountRefundedEvent.class
+                || type == AccountRefundFailedEvent.class;
+    }
+
+    public static byte[] encode(Object event) {
+        return switch (event) {
+            case TransferInitiatedEvent e -> new Writer(EventType.TRANSFER_INITIATED, e.transactionId())
+                    .string(e.senderAccountId()).string(e.receiverAccountId()).money(e.amount(), e.currency()).build();
+            case AccountDebitedEvent e -> new Writer(EventType.ACCOUNT_DEBITED, e.transactionId())
+                    .string(e.senderAccountId()).money(e.amount(), e.currency()).build();
+            case AccountDebitFailedEvent e -> new Writer(EventType.ACCOUNT_DEBIT_FAILED, e.transactionId())
+                    .string(e.senderAccountId()).money(e.amount(), e.currency()).string(e.reason()).build();
+            case TransferDepositRequestedEvent e -> new Writer(EventType.TRANSFER_DEPOSIT_REQUESTED, e.transactionId())
+                    .string(e.receiverAccountId()).money(e.amount(), e.currency()).build();
+            case AccountCreditedEvent e -> new Writer(EventType.ACCOUNT_CREDITED, e.transactionId())
+                    .string(e.receiverAccountId()).money(e.amount(), e.currency()).build();
+            case AccountCreditFailedEvent e -> new Writer(EventType.ACCOUNT_CREDIT_FAILED, e.transactionId())
+                    .string(e.receiverAccountId()).money(e.amount(), e.currency()).string(e.reason()).build();
+            case TransferRefundRequestedEvent e -> new Writer(EventType.TRANSFER_REFUND_REQUESTED, e.transactionId())
+                    .string(e.senderAccountId()).money(e.amount(), e.currency()).string(e.reason()).build();
+            case AccountRefundedEvent e -> new Writer(EventType.ACCOUNT_REFUNDED, e.transactionId())
+                    .string(e.senderAccountId()).money(e.amount(), e.currency()).build();
+            case AccountRefundFailedEvent e -> new Writer(EventType.ACCOUNT_REFUND_FAILED, e.transactionId())
+                    .string(e.senderAccountId()).money(e.amount(), e.currency()).string(e.reason()).build();
+            default -> throw new IllegalArgumentException("No binary layout for " + event.getClass().getName());
+        };
+    }
+
+    public static Object decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported event codec version: " + version);
+        }
+        EventType type = typeOf(in.get());
+        UUID txId = new UUID(in.getLong(), in.getLong());
+
+        return switch (type) {
+            case TRANSFER_INITIATED -> new TransferInitiatedEvent(txId, string(in), string(in), amount(in), currency(in));
+            case ACCOUNT_DEBITED -> new AccountDebitedEvent(txId, string(in), amount(in), currency(in));
+            case ACCOUNT_DEBIT_FAILED -> new AccountDebitFailedEvent(txId, string(in), amount(in), currency(in), string(in));
+            case TRANSFER_DEPOSIT_REQUESTED -> new TransferDepositRequestedEvent(txId, string(in), amount(in), currency(in));
+            case ACCOUNT_CREDITED -> new AccountCreditedEvent(txId, string(in), amount(in), currency(in));
+            case ACCOUNT_CREDIT_FAILED -> new AccountCreditFailedEvent(txId, string(in), amount(in), currency(in), string(in));
+            case TRANSFER_REFUND_REQUESTED -> new TransferRefundRequestedEvent(txId, string(in), amount(in), currency(in), string(in));
+            case ACCOUNT_REFUNDED -> new AccountRefundedEvent(txId, string(in), amount(in), currency(in));
+            case ACCOUNT_REFUND_FAILED -> new AccountRefundFailedEvent(txId, string(in), amount(in), currency(in), string(in));
+        };
+    }
+
+    public static <T> T decode(byte[] bytes, Class<T> type) {
+        Object event = decode(bytes);
+        if (!type.isInstance(event)) {
+            throw new IllegalArgumentException("Expected " + type.getSimpleName() + " but payload holds " + event.getClass().getSimpleName());
+        }
+        return type.cast(event);
+    }
+
+    // Tags are part of the wire format: append new types, never reorder
+    private static byte tagOf(EventType type) {
+        return switch (type) {
+            case TRANSFER_INITIATED -> 1;
+            case ACCOUNT_DEBITED -> 2;
+            case ACCOUNT_DEBIT_FAILED -> 3;
+            case TRANSFER_DEPOSIT_REQUESTED -> 4;
+            case ACCOUNT_CREDITED -> 5;
+            case ACCOUNT_CREDIT_FAILED -> 6;
+            case TRANSFER_REFUND_REQUESTED -> 7;
+            case ACCOUNT_REFUNDED -> 8;
+            case ACCOUNT_REFUND_FAILED -> 9;
+        };
+    }
+
+    private static EventType typeOf(byte tag) {
+        return switch (tag) {
+            case 1 -> EventType.TRANSFER_INITIATED;
+            case 2 -> EventType.ACCOUNT_DEBITED;
+            case 3 -> EventType.ACCOUNT_DEBIT_FAILED;
+            case 4 -> EventType.TRANSFER_DEPOSIT_REQUESTED;
+            case 5 -> EventType.ACCOUNT_CREDITED;
+            case 6 -> EventType.ACCOUNT_CREDIT_FAILED;
+            case 7 -> EventType.TRANSFER_REFUND_REQUESTED;
+            case 8 -> EventType.ACCOUNT_REFUNDED;
+            case 9 -> EventType.ACCOUNT_REFUND_FAILED;
+            default -> throw new IllegalArgumentException("Unknown event type tag: " + tag);
+        };
+    }
+
+    private static String string(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static BigDecimal amount(ByteBuffer in) {
+        long unscaled = in.getLong();
+        return BigDecimal.valueOf(unscaled, in.get());
+    }
+
+    private static String currency(ByteBuffer in) {
+        String value = new String(in.array(), in.position(), CURRENCY_SIZE, StandardCharsets.US_ASCII);
+        in.position(in.position() + CURRENCY_SIZE);
+        return value;
+    }
+
+    /**
+     * Collects the variable-length fields first, so the output array is allocated once at its exact size.
+     */
+    private static final class Writer {
+
+        private final EventType type;
+        private final UUID transactionId;
+        private final Object[] fields = new Object[4];
+        private int fieldCount;
+        private int size = HEADER_SIZE;
+
+        private Writer(EventType type, UUID transactionId) {
+            this.type = type;
+            this.transactionId = transactionId;
+        }
+
+        private Writer string(String value) {
+            byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+            if (bytes != null && bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Field too long for binary layout: " + bytes.length + " bytes");
+            }
+            fields[fieldCount++] = bytes;
+            size += Short.BYTES + (bytes == null ? 0 : bytes.length);
+            return this;
+        }
+
+        private Writer money(BigDecimal amount, String currency) {
+            BigInteger unscaled = amount.unscaledValue();
+            if (unscaled.bitLength() > 63 || amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Amount does not fit the binary layout: " + amount);
+            }
+            if (currency == null || currency.length() != CURRENCY_SIZE || !currency.chars().allMatch(c -> c < 0x80)) {
+                throw new IllegalArgumentException("Currency must be a 3-letter code: " + currency);
+            }
+            fields[fieldCount++] = amount;
+            fields[fieldCount++] = currency;
+            size += AMOUNT_SIZE + CURRENCY_SIZE;
+            return this;
+        }
+
+        private byte[] build() {
+            byte[] bytes = new byte[size];
+            ByteBuffer out = ByteBuffer.wrap(bytes);
+
+            out.put(VERSION);
+            out.put(tagOf(type));
+            out.putLong(transactionId.getMostSignificantBits());
+            out.putLong(transactionId.getLeastSignificantBits());
+
+            for (int i = 0; i < fieldCount; i++) {
+                switch (fields[i]) {
+                    case BigDecimal amount -> {
+                        out.putLong(amount.unscaledValue().longValue());
+                        out.put((byte) amount.scale());
+                    }
+                    case String currency -> {
+                        for (int c = 0; c < CURRENCY_SIZE; c++) {
+                            out.put((byte) currency.charAt(c));
+                        }
+                    }
+                    case byte[] value -> {
+                        out.putShort((short) value.length);
+                        out.put(value);
+                    }
+                    case null -> out.putShort((short) -1);
+                    default -> throw new IllegalStateException("Unexpected field " + fields[i]);
+                }
+            }
+            return bytes;
+        }
+    }
+}
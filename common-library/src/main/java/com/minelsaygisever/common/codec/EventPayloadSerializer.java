@@ -0,0 +1,56 @@
+package com.minelsaygisever.common.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Base64;
+
+/**
+ * Writes events into the text {@code outbox.payload} column. JSON rows are stored as is; binary rows hold
+ * the Base64 of the {@link EventCodec} bytes, so every outbox insert path keeps binding text. The two are
+ * told apart by the first character, which lets rows of both formats drain side by side during a switch.
+ */
+public final class EventPayloadSerializer {
+
+    private final ObjectMapper objectMapper;
+    private final PayloadFormat format;
+
+    public EventPayloadSerializer(ObjectMapper objectMapper, PayloadFormat format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    public PayloadFormat format() {
+        return format;
+    }
+
+    public String toOutboxPayload(Object event) throws JsonProcessingException {
+        if (format == PayloadFormat.BINARY && EventCodec.supports(event.getClass())) {
+            return Base64.getEncoder().encodeToString(EventCodec.encode(event));
+        }
+        return objectMapper.writeValueAsString(event);
+    }
+
+    // JSON payloads are objects; Base64 of a version-1 payload starts with 'A'
+    public static boolean isBinary(String outboxPayload) {
+        return outboxPayload != null && !outboxPayload.isEmpty() && outboxPayload.charAt(0) != '{';
+    }
+
+    public static byte[] toBytes(String binaryOutboxPayload) {
+        return Base64.getDecoder().decode(binaryOutboxPayload);
+    }
+
+    /**
+     * The payload as JSON, for dead-letter alerts that people read.
+     */
+    public String toReadable(String outboxPayload) {
+        if (!isBinary(outboxPayload)) {
+            return outboxPayload;
+        }
+        try {
+            return objectMapper.writeValueAsString(EventCodec.decode(toBytes(outboxPayload)));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return outboxPayload;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.minelsaygisever.common.codec;
+
+/**
+ * How new outbox events are written and published. Consumers accept both, so producers can switch independently.
+ */
+public enum PayloadFormat {
+    JSON,
+    BINARY
+}
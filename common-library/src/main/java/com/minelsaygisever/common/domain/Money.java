@@ -0,0 +1,129 @@
+package com.minelsaygisever.common.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.minelsaygisever.common.exception.CurrencyMismatchException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in minor units (cents) of a three-letter currency. Arithmetic works on the {@code long}
+ * and fails with {@link ArithmeticException} instead of wrapping around.
+ * <p>
+ * Accepts the same amounts as {@code @Digits(integer = 17, fraction = 2)} up to {@link #MAX_AMOUNT},
+ * the largest value a {@code long} of cents can hold. Callers that loop over many amounts can stay on
+ * the primitive helpers ({@link #toMinorUnits(BigDecimal)}, {@link #toBigDecimal(long)}) and skip the
+ * record altogether.
+ * <p>
+ * Serializes as {@code {"amount": 12.34, "currency": "TRY"}}, the same shape the events use.
+ */
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    // Long.MAX_VALUE cents; a String so it can go into @DecimalMax
+    public static final String MAX_VALUE = "92233720368547758.07";
+    public static final BigDecimal MAX_AMOUNT = new BigDecimal(MAX_VALUE);
+
+    public Money {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be exactly 3 characters (ISO 4217): " + currency);
+        }
+    }
+
+    @JsonCreator
+    public static Money of(@JsonProperty("amount") BigDecimal amount, @JsonProperty("currency") String currency) {
+        return new Money(toMinorUnits(amount), currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0L, currency);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than two fraction digits or exceeds {@link #MAX_AMOUNT}
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @JsonProperty("amount")
+    public BigDecimal amount() {
+        return toBigDecimal(minorUnits);
+    }
+
+    @Override
+    @JsonIgnore
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    @Override
+    @JsonProperty("currency")
+    public String currency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    @JsonIgnore
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    @JsonIgnore
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    public boolean isSameCurrency(String otherCurrency) {
+        return currency.equalsIgnoreCase(otherCurrency);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!isSameCurrency(other.currency)) {
+            throw new CurrencyMismatchException(
+                    String.format("Amount currency is %s but got %s", currency, other.currency)
+            );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return amount().toPlainString() + " " + currency;
+    }
+}
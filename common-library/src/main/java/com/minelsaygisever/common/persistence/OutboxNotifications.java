@@ -0,0 +1,96 @@
+package com.minelsaygisever.common.persistence;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Runs an outbox drain whenever the outbox insert trigger fires {@code pg_notify} on the given channel.
+ * Notifications that arrive while a drain is running are coalesced into a single follow-up drain. The
+ * LISTEN connection is reopened with backoff whenever it fails or is closed, so the services' scheduled
+ * polls only have to cover notifications lost in between.
+ */
+@Slf4j
+public class OutboxNotifications {
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionFactory connectionFactory;
+    private final String channel;
+    private final Supplier<Mono<Void>> drain;
+    private final Duration minBackoff;
+
+    private Disposable subscription;
+
+    public OutboxNotifications(ConnectionFactory connectionFactory, String channel, Supplier<Mono<Void>> drain) {
+        this(connectionFactory, channel, drain, Duration.ofSeconds(1));
+    }
+
+    OutboxNotifications(ConnectionFactory connectionFactory, String channel, Supplier<Mono<Void>> drain, Duration minBackoff) {
+        this.connectionFactory = connectionFactory;
+        this.channel = channel;
+        this.drain = drain;
+        this.minBackoff = minBackoff;
+    }
+
+    public void start() {
+        subscription = Flux.usingWhen(
+                        Mono.defer(() -> Mono.from(unwrap(connectionFactory).create())),
+                        this::listen,
+                        Connection::close
+                )
+                // A connection closed cleanly (server restart, pooler, failover) completes instead of failing
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff)
+                        .maxBackoff(MAX_BACKOFF)
+                        // The backoff starts over once a reopened connection has delivered a notification
+                        .transientErrors(true)
+                        .filter(error -> !(error instanceof UnsupportedOperationException))
+                        .doBeforeRetry(signal -> log.warn("Outbox LISTEN connection on channel {} lost. Reconnecting, attempt {}...",
+                                channel, signal.totalRetriesInARow() + 1, signal.failure())))
+                .onErrorResume(UnsupportedOperationException.class, error -> {
+                    log.warn("{} Falling back to polling only.", error.getMessage());
+                    return Flux.empty();
+                })
+                .onBackpressureLatest()
+                .concatMap(notification -> drain.get(), 1)
+                .subscribe();
+    }
+
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<Notification> listen(Connection connection) {
+        if (!(connection instanceof PostgresqlConnection postgresConnection)) {
+            return Flux.error(new UnsupportedOperationException("Outbox notifications need a PostgreSQL connection."));
+        }
+
+        return postgresConnection.createStatement("LISTEN " + channel)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .doOnComplete(() -> log.info("Listening for outbox notifications on channel: {}", channel))
+                .thenMany(postgresConnection.getNotifications());
+    }
+
+    // The LISTEN connection lives as long as the application, so it is opened outside the pool.
+    private static ConnectionFactory unwrap(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof Wrapped<?> wrapped && wrapped.unwrap() instanceof ConnectionFactory target) {
+            return target;
+        }
+        return connectionFactory;
+    }
+}
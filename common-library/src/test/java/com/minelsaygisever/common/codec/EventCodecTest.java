@@ -0,0 +1,150 @@
+package com.minelsaygisever.common.codec;
+
+import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
+import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
+import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private static final UUID TX_ID = UUID.fromString("3f1c2a9e-8d4b-4c7a-9f0e-5b6d7c8e9a01");
+    private static final BigDecimal AMOUNT = new BigDecimal("1250.75");
+
+    @Test
+    void shouldRoundTripEveryEventType() {
+        List<Object> events = List.of(
+                new TransferInitiatedEvent(TX_ID, "1001", "2002", AMOUNT, "TRY"),
+                new AccountDebitedEvent(TX_ID, "1001", AMOUNT, "TRY"),
+                new AccountDebitFailedEvent(TX_ID, "1001", AMOUNT, "TRY", "Insufficient funds for Account 1001"),
+                new TransferDepositRequestedEvent(TX_ID, "2002", AMOUNT, "TRY"),
+                new AccountCreditedEvent(TX_ID, "2002", AMOUNT, "TRY"),
+                new AccountCreditFailedEvent(TX_ID, "2002", AMOUNT, "TRY", "Account is not ACTIVE"),
+                new TransferRefundRequestedEvent(TX_ID, "1001", AMOUNT, "TRY", "Account is not ACTIVE"),
+                new AccountRefundedEvent(TX_ID, "1001", AMOUNT, "TRY"),
+                new AccountRefundFailedEvent(TX_ID, "1001", AMOUNT, "TRY", "Account not found with id: 1001")
+        );
+
+        for (Object event : events) {
+            assertThat(EventCodec.supports(event.getClass())).isTrue();
+            assertThat(EventCodec.decode(EventCodec.encode(event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void shouldRoundTripNullReason() {
+        var event = new AccountDebitFailedEvent(TX_ID, "1001", AMOUNT, "TRY", null);
+
+        assertThat(EventCodec.decode(EventCodec.encode(event), AccountDebitFailedEvent.class)).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRoundTripNonAsciiIdsAndReasons() {
+        var event = new TransferRefundRequestedEvent(TX_ID, "hesap-ş-ğ-İ-日本", AMOUNT, "TRY", "Hesap aktif değil ✗");
+
+        assertThat(EventCodec.decode(EventCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldKeepAmountScale() {
+        var event = new AccountCreditedEvent(TX_ID, "2002", new BigDecimal("10.500"), "TRY");
+
+        var decoded = EventCodec.decode(EventCodec.encode(event), AccountCreditedEvent.class);
+
+        assertThat(decoded.amount()).isEqualTo(new BigDecimal("10.500"));
+        assertThat(decoded.amount().scale()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRoundTripAmountLimits() {
+        for (BigDecimal amount : List.of(
+                BigDecimal.valueOf(Long.MAX_VALUE, 2),
+                BigDecimal.valueOf(Long.MIN_VALUE, 2),
+                new BigDecimal(BigInteger.ONE, Byte.MAX_VALUE),
+                new BigDecimal(BigInteger.ONE, Byte.MIN_VALUE))) {
+            var event = new AccountDebitedEvent(TX_ID, "1001", amount, "TRY");
+
+            assertThat(EventCodec.decode(EventCodec.encode(event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void shouldRejectAmountsOutsideTheLayout() {
+        BigDecimal tooManyDigits = new BigDecimal(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), 2);
+        BigDecimal tooLargeScale = new BigDecimal(BigInteger.ONE, Byte.MAX_VALUE + 1);
+        BigDecimal tooSmallScale = new BigDecimal(BigInteger.ONE, Byte.MIN_VALUE - 1);
+
+        for (BigDecimal amount : List.of(tooManyDigits, tooLargeScale, tooSmallScale)) {
+            assertThatThrownBy(() -> EventCodec.encode(new AccountDebitedEvent(TX_ID, "1001", amount, "TRY")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Amount does not fit");
+        }
+    }
+
+    @Test
+    void shouldRejectCurrenciesOutsideTheLayout() {
+        for (String currency : new String[]{"TR", "TRYY", "TRŞ", null}) {
+            assertThatThrownBy(() -> EventCodec.encode(new AccountDebitedEvent(TX_ID, "1001", AMOUNT, currency)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Currency");
+        }
+    }
+
+    @Test
+    void shouldRejectFieldsLongerThanAShortLength() {
+        String reason = "x".repeat(Short.MAX_VALUE + 1);
+
+        assertThatThrownBy(() -> EventCodec.encode(new AccountDebitFailedEvent(TX_ID, "1001", AMOUNT, "TRY", reason)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Field too long");
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        byte[] bytes = EventCodec.encode(new AccountDebitedEvent(TX_ID, "1001", AMOUNT, "TRY"));
+        bytes[0] = EventCodec.VERSION + 1;
+
+        assertThatThrownBy(() -> EventCodec.decode(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported event codec version");
+    }
+
+    @Test
+    void shouldRejectUnknownTypeTag() {
+        byte[] bytes = EventCodec.encode(new AccountDebitedEvent(TX_ID, "1001", AMOUNT, "TRY"));
+        bytes[1] = 42;
+
+        assertThatThrownBy(() -> EventCodec.decode(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown event type tag");
+    }
+
+    @Test
+    void shouldRejectPayloadOfAnotherType() {
+        byte[] bytes = EventCodec.encode(new AccountDebitedEvent(TX_ID, "1001", AMOUNT, "TRY"));
+
+        assertThatThrownBy(() -> EventCodec.decode(bytes, AccountCreditedEvent.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("AccountDebitedEvent");
+    }
+
+    @Test
+    void shouldRejectUnsupportedObjects() {
+        assertThat(EventCodec.supports(String.class)).isFalse();
+        assertThatThrownBy(() -> EventCodec.encode("not an event"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
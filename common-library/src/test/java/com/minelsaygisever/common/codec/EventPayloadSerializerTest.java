@@ -0,0 +1,41 @@
+package com.minelsaygisever.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPayloadSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AccountDebitedEvent event = new AccountDebitedEvent(UUID.randomUUID(), "1001", new BigDecimal("10.50"), "TRY");
+
+    @Test
+    void binaryFormat_ShouldStoreBase64OfTheCodecBytes() throws Exception {
+        String payload = new EventPayloadSerializer(objectMapper, PayloadFormat.BINARY).toOutboxPayload(event);
+
+        assertThat(EventPayloadSerializer.isBinary(payload)).isTrue();
+        assertThat(EventCodec.decode(EventPayloadSerializer.toBytes(payload))).isEqualTo(event);
+    }
+
+    @Test
+    void jsonFormat_ShouldStoreTheJsonObject() throws Exception {
+        String payload = new EventPayloadSerializer(objectMapper, PayloadFormat.JSON).toOutboxPayload(event);
+
+        assertThat(EventPayloadSerializer.isBinary(payload)).isFalse();
+        assertThat(objectMapper.readValue(payload, AccountDebitedEvent.class)).isEqualTo(event);
+    }
+
+    @Test
+    void toReadable_ShouldTurnBinaryPayloadsIntoJson() throws Exception {
+        EventPayloadSerializer serializer = new EventPayloadSerializer(objectMapper, PayloadFormat.BINARY);
+
+        String readable = serializer.toReadable(serializer.toOutboxPayload(event));
+
+        assertThat(objectMapper.readValue(readable, AccountDebitedEvent.class)).isEqualTo(event);
+    }
+}
@@ -0,0 +1,132 @@
+package com.minelsaygisever.common.domain;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.exception.CurrencyMismatchException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void toMinorUnits_ShouldAcceptTrailingZerosBeyondTwoDecimals() {
+        assertThat(Money.toMinorUnits(new BigDecimal("12.3400"))).isEqualTo(1234L);
+        assertThat(Money.toMinorUnits(new BigDecimal("5"))).isEqualTo(500L);
+    }
+
+    @Test
+    void toMinorUnits_ShouldRejectSignificantThirdDecimal() {
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("12.345")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toMinorUnits_ShouldAcceptMaxAmountAndOneCentBelow() {
+        assertThat(Money.toMinorUnits(Money.MAX_AMOUNT)).isEqualTo(Long.MAX_VALUE);
+        assertThat(Money.toMinorUnits(Money.MAX_AMOUNT.subtract(CENT))).isEqualTo(Long.MAX_VALUE - 1);
+    }
+
+    @Test
+    void toMinorUnits_ShouldRejectOneCentAboveMaxAmount() {
+        assertThatThrownBy(() -> Money.toMinorUnits(Money.MAX_AMOUNT.add(CENT)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toMinorUnits_ShouldRejectNull() {
+        assertThatThrownBy(() -> Money.toMinorUnits(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void plus_ShouldFailInsteadOfWrappingAround() {
+        Money max = new Money(Long.MAX_VALUE, "TRY");
+
+        assertThatThrownBy(() -> max.plus(new Money(1L, "TRY")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void minus_ShouldFailInsteadOfWrappingAround() {
+        Money min = new Money(Long.MIN_VALUE, "TRY");
+
+        assertThatThrownBy(() -> min.minus(new Money(1L, "TRY")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void negate_ShouldFailForLongMinValue() {
+        assertThatThrownBy(() -> new Money(Long.MIN_VALUE, "TRY").negate())
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(new Money(1250L, "TRY").negate()).isEqualTo(new Money(-1250L, "TRY"));
+    }
+
+    @Test
+    void arithmetic_ShouldKeepExactCents() {
+        Money balance = Money.of(new BigDecimal("100.10"), "TRY")
+                .minus(Money.of(new BigDecimal("0.20"), "TRY"))
+                .plus(Money.of(new BigDecimal("0.03"), "TRY"));
+
+        assertThat(balance.amount()).isEqualByComparingTo("99.93");
+        assertThat(balance.toString()).isEqualTo("99.93 TRY");
+    }
+
+    @Test
+    void shouldRejectCurrencyMismatch() {
+        Money lira = Money.of(BigDecimal.TEN, "TRY");
+        Money dollar = Money.of(BigDecimal.ONE, "USD");
+
+        assertThatThrownBy(() -> lira.plus(dollar)).isInstanceOf(CurrencyMismatchException.class);
+        assertThatThrownBy(() -> lira.minus(dollar)).isInstanceOf(CurrencyMismatchException.class);
+        assertThatThrownBy(() -> lira.isGreaterThan(dollar)).isInstanceOf(CurrencyMismatchException.class);
+    }
+
+    @Test
+    void shouldCompareCurrencyCaseInsensitively() {
+        assertThat(Money.of(BigDecimal.TEN, "TRY").isGreaterThan(Money.of(BigDecimal.ONE, "try"))).isTrue();
+    }
+
+    @Test
+    void shouldRejectInvalidCurrencyCode() {
+        assertThatThrownBy(() -> Money.zero("TR"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.zero(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void json_ShouldUseAmountAndCurrencyOnly() throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(new Money(1234L, "TRY")));
+
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get("amount").decimalValue()).isEqualByComparingTo("12.34");
+        assertThat(json.get("currency").asText()).isEqualTo("TRY");
+    }
+
+    @Test
+    void json_ShouldRoundTrip() throws Exception {
+        Money money = Money.of(new BigDecimal("92233720368547758.07"), "TRY");
+
+        Money read = objectMapper.readValue(objectMapper.writeValueAsString(money), Money.class);
+
+        assertThat(read).isEqualTo(money);
+        assertThat(objectMapper.readValue("{\"amount\": 12.34, \"currency\": \"TRY\"}", Money.class))
+                .isEqualTo(new Money(1234L, "TRY"));
+    }
+
+    @Test
+    void json_ShouldRejectAmountMoneyCannotHold() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"amount\": 12.345, \"currency\": \"TRY\"}", Money.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasRootCauseInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.minelsaygisever.common.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyPartitionsTest {
+
+    private final DailyPartitions partitions = new DailyPartitions(null, "processed_transactions");
+
+    @Test
+    void partitionName_ShouldAppendBasicIsoDate() {
+        assertThat(partitions.partitionName(LocalDate.of(2026, 3, 7))).isEqualTo("processed_transactions_p20260307");
+    }
+
+    @Test
+    void isExpired_ShouldOnlyMatchDaysEndingBeforeThreshold() {
+        LocalDateTime threshold = LocalDateTime.of(2026, 3, 8, 0, 0);
+
+        assertThat(partitions.isExpired("processed_transactions_p20260307", threshold)).isTrue();
+        assertThat(partitions.isExpired("processed_transactions_p20260308", threshold)).isFalse();
+        assertThat(partitions.isExpired("processed_transactions_p20260307", threshold.minusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void isExpired_ShouldIgnoreDefaultAndForeignPartitions() {
+        LocalDateTime threshold = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThat(partitions.isExpired("processed_transactions_default", threshold)).isFalse();
+        assertThat(partitions.isExpired("outbox_p20260307", threshold)).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package com.minelsaygisever.common.persistence;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class OutboxNotificationsTest {
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final AtomicInteger drains = new AtomicInteger();
+
+    private OutboxNotifications notifications;
+
+    @AfterEach
+    void tearDown() {
+        notifications.stop();
+    }
+
+    @Test
+    void shouldReconnect_WhenNotificationStreamCompletes() {
+        // The first connection delivers one notification and is then closed cleanly; the second stays open
+        PostgresqlConnection closed = listeningConnection(Flux.just(mock(Notification.class)));
+        PostgresqlConnection open = listeningConnection(Flux.never());
+        doReturn(Mono.just(closed), Mono.just(open)).when(connectionFactory).create();
+
+        start();
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(open).getNotifications());
+        verify(closed).close();
+        assertThat(drains.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReconnect_WhenConnectionFails() {
+        PostgresqlConnection open = listeningConnection(Flux.just(mock(Notification.class)).concatWith(Flux.never()));
+        doReturn(Mono.error(new IllegalStateException("connection refused")), Mono.just(open))
+                .when(connectionFactory).create();
+
+        start();
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> assertThat(drains.get()).isEqualTo(1));
+        verify(connectionFactory, times(2)).create();
+    }
+
+    @Test
+    void shouldStopListening_WhenConnectionIsNotPostgres() throws InterruptedException {
+        Connection other = mock(Connection.class);
+        doReturn(Mono.empty()).when(other).close();
+        doReturn(Mono.just(other)).when(connectionFactory).create();
+
+        start();
+        Thread.sleep(200);
+
+        verify(connectionFactory, times(1)).create();
+        verify(other).close();
+    }
+
+    private void start() {
+        notifications = new OutboxNotifications(connectionFactory, "test_outbox",
+                () -> Mono.fromRunnable(drains::incrementAndGet), Duration.ofMillis(10));
+        notifications.start();
+    }
+
+    private PostgresqlConnection listeningConnection(Flux<Notification> notifications) {
+        PostgresqlConnection connection = mock(PostgresqlConnection.class);
+        PostgresqlStatement statement = mock(PostgresqlStatement.class);
+        when(connection.createStatement("LISTEN test_outbox")).thenReturn(statement);
+        when(statement.execute()).thenReturn(Flux.empty());
+        when(connection.getNotifications()).thenReturn(notifications);
+        when(connection.close()).thenReturn(Mono.empty());
+        return connection;
+    }
+}
@@ -0,0 +1,15 @@
+package com.minelsaygisever.transfer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventPayloadSerializer eventPayloadSerializer(ObjectMapper objectMapper, TransferProperties properties) {
+        return new EventPayloadSerializer(objectMapper, properties.outbox().payloadFormat());
+    }
+}
@@ -0,0 +1,18 @@
+package com.minelsaygisever.transfer.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.messaging.SubscribableChannel;
+
+@Configuration
+public class OutboxChannelConfig {
+
+    // Referenced by the 'record-metadata-channel' of the outbox producer bindings.
+    public static final String OUTBOX_ACK_CHANNEL = "transferOutboxAckChannel";
+
+    @Bean(OUTBOX_ACK_CHANNEL)
+    public SubscribableChannel transferOutboxAckChannel() {
+        return new PublishSubscribeChannel();
+    }
+}
@@ -5,8 +5,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -35,4 +37,9 @@ public class RedisConfig {
 
         return new ReactiveRedisTemplate<>(factory, serializationContext);
     }
+
+    @Bean
+    public RedisScript<String> idempotencyAcquireScript() {
+        return RedisScript.of(new ClassPathResource("scripts/idempotency-acquire.lua"), String.class);
+    }
 }
@@ -1,10 +1,12 @@
 package com.minelsaygisever.transfer.config;
 
+import com.minelsaygisever.common.codec.PayloadFormat;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
+import java.util.List;
 
 @Validated
 @ConfigurationProperties(prefix = "transfer")
@@ -13,6 +15,9 @@ public record TransferProperties(
         @DefaultValue("5m")
         Duration lockTimeout,
 
+        @DefaultValue("24h")
+        Duration idempotencyCacheTtl,
+
         @DefaultValue
         OutboxProperties outbox,
 
@@ -26,7 +31,25 @@ public record TransferProperties(
         BindingProperties bindings,
 
         @DefaultValue
-        ReconciliationProperties reconciliation
+        ReconciliationProperties reconciliation,
+
+        @DefaultValue
+        ConsumerProperties consumer,
+
+        @DefaultValue
+        BatchProperties batch,
+
+        @DefaultValue
+        TimeoutWheelProperties timeoutWheel,
+
+        @DefaultValue
+        MetricsProperties metrics,
+
+        @DefaultValue
+        StatusProperties status,
+
+        @DefaultValue
+        EventsProperties events
 ) {
 
     public record OutboxProperties(
@@ -43,7 +66,31 @@ public record TransferProperties(
             Integer maxRetries,
 
             @DefaultValue("1000ms")
-            Duration initialDelay
+            Duration initialDelay,
+
+            @DefaultValue("false")
+            Boolean batchSend,
+
+            @DefaultValue("10s")
+            Duration ackTimeout,
+
+            @DefaultValue("false")
+            Boolean notifyEnabled,
+
+            // BINARY writes new events with EventCodec; consumers accept both formats. Deposit and refund
+            // commands then take an extra outbox INSERT after the state transition instead of sharing its statement.
+            @DefaultValue("JSON")
+            PayloadFormat payloadFormat,
+
+            // Each replica polls only the outbox shards it leases; keeps per-transfer order across replicas
+            @DefaultValue("false")
+            Boolean sharded,
+
+            @DefaultValue("15s")
+            Duration shardLeaseDuration,
+
+            @DefaultValue("5s")
+            Duration shardLeaseRenewInterval
     ) {}
 
     public record CleanupProperties(
@@ -54,7 +101,13 @@ public record TransferProperties(
             Duration retentionPeriod,
 
             @DefaultValue("500")
-            Integer batchSize
+            Integer batchSize,
+
+            @DefaultValue("false")
+            Boolean partitioned,
+
+            @DefaultValue("3")
+            Integer partitionsAhead
     ) {}
 
     public record BackoffProperties(
@@ -87,6 +140,84 @@ public record TransferProperties(
             Duration timeoutThreshold,
 
             @DefaultValue("1h")
-            Duration maxRetryDuration
+            Duration maxRetryDuration,
+
+            @DefaultValue("500")
+            Integer pageSize,
+
+            @DefaultValue("8")
+            Integer concurrency
+    ) {}
+
+    public record ConsumerProperties(
+            @DefaultValue("16")
+            Integer concurrency,
+
+            @DefaultValue("3")
+            Integer maxAttempts,
+
+            @DefaultValue("1000ms")
+            Duration backoffInitialInterval,
+
+            @DefaultValue("transfer-saga-dlq-0")
+            String dlqBindingName
+    ) {}
+
+    public record BatchProperties(
+            @DefaultValue("1000")
+            Integer maxSize
+    ) {}
+
+    public record TimeoutWheelProperties(
+            @DefaultValue("false")
+            Boolean enabled,
+
+            @DefaultValue("100ms")
+            Duration tickDuration,
+
+            @DefaultValue("512")
+            Integer ticksPerWheel
+    ) {}
+
+    public record MetricsProperties(
+            @DefaultValue("TRY,USD,EUR")
+            List<String> currencies,
+
+            @DefaultValue("32")
+            Integer maxCurrencies,
+
+            @DefaultValue("1s,5s,30s,2m,10m")
+            List<Duration> sagaDurationSlos,
+
+            @DefaultValue("15s")
+            Duration outboxGaugeInterval
+    ) {}
+
+    public record StatusProperties(
+            // Terminal transfers kept in memory for status polls
+            @DefaultValue("50000")
+            Integer cacheSize,
+
+            @DefaultValue("1d")
+            Duration terminalMaxAge,
+
+            @DefaultValue("100")
+            Integer maxBulkIds
+    ) {}
+
+    public record EventsProperties(
+            // Comment frames keep idle SSE connections open through proxies
+            @DefaultValue("15s")
+            Duration heartbeatInterval,
+
+            @DefaultValue("10m")
+            Duration maxStreamDuration,
+
+            // Relays state changes to the streams held by other replicas
+            @DefaultValue("true")
+            Boolean redisEnabled,
+
+            @DefaultValue("transfer_status_events")
+            String redisChannel
     ) {}
 }
@@ -1,22 +1,39 @@
 package com.minelsaygisever.transfer.controller;
 
+import com.minelsaygisever.transfer.config.TransferProperties;
 import com.minelsaygisever.transfer.controller.api.TransferApi;
+import com.minelsaygisever.transfer.dto.BatchTransferApiRequest;
+import com.minelsaygisever.transfer.dto.BatchTransferResponse;
 import com.minelsaygisever.transfer.dto.TransferApiRequest;
 import com.minelsaygisever.transfer.dto.TransferCommand;
 import com.minelsaygisever.transfer.dto.TransferResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusListResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
 import com.minelsaygisever.transfer.service.TransferService;
+import com.minelsaygisever.transfer.service.TransferStatusService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequiredArgsConstructor
 @Slf4j
 public class TransferController implements TransferApi {
 
     private final TransferService transferService;
+    private final TransferStatusService transferStatusService;
+    private final TransferProperties properties;
 
     @Override
     public Mono<ResponseEntity<TransferResponse>> initiateTransfer(String idempotencyKey, TransferApiRequest requestPayload) {
@@ -33,4 +50,119 @@ public class TransferController implements TransferApi {
         return transferService.initiateTransfer(command)
                 .map(ResponseEntity::ok);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Mono<ResponseEntity<BatchTransferResponse>> initiateTransfers(BatchTransferApiRequest requestPayload) {
+        log.info("Batch transfer request received with {} items", requestPayload.transfers().size());
+
+        List<TransferCommand> commands = requestPayload.transfers().stream()
+                .map(item -> new TransferCommand(
+                        item.idempotencyKey(),
+                        item.senderAccountId(),
+                        item.receiverAccountId(),
+                        item.amount(),
+                        item.currency()
+                ))
+                .toList();
+
+        return transferService.initiateTransfers(commands)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<TransferStatusResponse>> getTransferStatus(UUID transactionId, String ifNoneMatch) {
+        // A terminal tag of this transfer can never go stale, so it is answered without a lookup
+        String terminalTag = ifNoneMatch == null ? null : eTags(ifNoneMatch).stream()
+                .filter(tag -> TransferStatusService.isTerminalETag(tag, transactionId))
+                .findFirst()
+                .orElse(null);
+        if (terminalTag != null) {
+            return Mono.just(notModified(terminalTag, terminalCacheControl()));
+        }
+
+        return transferStatusService.findStatus(transactionId)
+                .map(status -> {
+                    String eTag = TransferStatusService.eTag(status);
+                    CacheControl cacheControl = status.state().isTerminal() ? terminalCacheControl() : CacheControl.noCache();
+
+                    if (matches(ifNoneMatch, eTag)) {
+                        return notModified(eTag, cacheControl);
+                    }
+                    return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(status);
+                });
+    }
+
+    @Override
+    public Mono<ResponseEntity<TransferStatusListResponse>> getTransferStatuses(List<UUID> ids, String ifNoneMatch) {
+        int requested = new HashSet<>(ids).size();
+
+        return transferStatusService.findStatuses(ids)
+                .map(statuses -> {
+                    String eTag = TransferStatusService.eTag(statuses);
+                    CacheControl cacheControl = TransferStatusService.isTerminal(statuses, requested)
+                            ? terminalCacheControl()
+                            : CacheControl.noCache();
+
+                    if (matches(ifNoneMatch, eTag)) {
+                        return notModified(eTag, cacheControl);
+                    }
+                    return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(statuses);
+                });
+    }
+
+    @Override
+    public Flux<ServerSentEvent<TransferStatusResponse>> streamTransferEvents(UUID transactionId) {
+        return toEventStream(transferStatusService.watch(transactionId));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<TransferStatusResponse>> streamTransfersEvents(List<UUID> ids) {
+        return toEventStream(transferStatusService.watch(ids));
+    }
+
+    // --- Event stream helpers ---
+
+    private Flux<ServerSentEvent<TransferStatusResponse>> toEventStream(Flux<TransferStatusResponse> statuses) {
+        Flux<ServerSentEvent<TransferStatusResponse>> heartbeats = Flux.interval(properties.events().heartbeatInterval())
+                .map(tick -> ServerSentEvent.<TransferStatusResponse>builder().comment("keepalive").build());
+
+        return statuses
+                .map(status -> ServerSentEvent.builder(status)
+                        .id(status.transactionId() + ":" + status.version())
+                        .event(status.state().name())
+                        .build())
+                // Heartbeats stop with the status stream, so the response completes with it
+                .publish(events -> Flux.merge(events, heartbeats.takeUntilOther(events.then())))
+                .take(properties.events().maxStreamDuration());
+    }
+
+    // --- Conditional request helpers ---
+
+    private CacheControl terminalCacheControl() {
+        return CacheControl.maxAge(properties.status().terminalMaxAge()).cachePrivate().immutable();
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // If-None-Match uses weak comparison
+        String opaque = stripWeak(eTag);
+        return eTags(ifNoneMatch).stream().anyMatch(tag -> tag.equals("*") || stripWeak(tag).equals(opaque));
+    }
+
+    private static List<String> eTags(String ifNoneMatch) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+
+    private static String stripWeak(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+}
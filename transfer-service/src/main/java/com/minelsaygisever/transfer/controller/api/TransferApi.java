@@ -1,8 +1,12 @@
 package com.minelsaygisever.transfer.controller.api;
 
+import com.minelsaygisever.transfer.dto.BatchTransferApiRequest;
+import com.minelsaygisever.transfer.dto.BatchTransferResponse;
 import com.minelsaygisever.transfer.dto.ErrorResponse;
 import com.minelsaygisever.transfer.dto.TransferApiRequest;
 import com.minelsaygisever.transfer.dto.TransferResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusListResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,14 +15,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.UUID;
+
 @Validated
 @Tag(name = "Transfer Management", description = "APIs for managing money transfers with idempotency support")
 @RequestMapping("/api/v1/transfers")
@@ -61,4 +74,132 @@ public interface TransferApi {
 
             @RequestBody @Valid TransferApiRequest requestPayload
     );
+
+    @Operation(
+            summary = "Initiate Money Transfers in Bulk",
+            description = "Starts many transfers in one request, each with its own idempotency key. New transfers are stored in a single transaction; every item gets its own result, in request order, with the same error keys as the single-transfer endpoint."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see per-item results",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchTransferResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid payload, too many items or duplicate idempotency keys in the batch",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal Server Error",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PostMapping("/batch")
+    Mono<ResponseEntity<BatchTransferResponse>> initiateTransfers(
+            @RequestBody @Valid BatchTransferApiRequest requestPayload
+    );
+
+    @Operation(
+            summary = "Get Transfer Status",
+            description = "Returns the current saga state of a transfer. Terminal states (COMPLETED, DEBIT_FAILED, REFUNDED) never change and are returned with a long-lived Cache-Control; send the ETag back in 'If-None-Match' to get a 304 instead of the body."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Current transfer status",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransferStatusResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not Modified - the status matching 'If-None-Match' is still current"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No transfer with this transaction id",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping("/{transactionId}")
+    Mono<ResponseEntity<TransferStatusResponse>> getTransferStatus(
+            @Parameter(description = "Transaction id returned when the transfer was initiated", required = true)
+            @PathVariable UUID transactionId,
+
+            @Parameter(description = "ETag of a previously received status")
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch
+    );
+
+    @Operation(
+            summary = "Get Transfer Statuses in Bulk",
+            description = "Returns the statuses of many transfers in request order; unknown ids are left out. The response is cacheable long-term only when every requested transfer is in a terminal state."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statuses of the known transfers",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransferStatusListResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Not Modified - the statuses matching 'If-None-Match' are still current"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many ids or a malformed id",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping
+    Mono<ResponseEntity<TransferStatusListResponse>> getTransferStatuses(
+            @Parameter(description = "Comma-separated transaction ids", required = true)
+            @RequestParam List<UUID> ids,
+
+            @Parameter(description = "ETag of a previously received response")
+            @RequestHeader(name = "If-None-Match", required = false) String ifNoneMatch
+    );
+
+    @Operation(
+            summary = "Stream Transfer State Changes",
+            description = "Server-Sent Events stream: the current status first, then every state change the saga commits. Event names are the states; the stream completes once the transfer reaches a terminal state."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream of transfer statuses",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = TransferStatusResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No transfer with this transaction id",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/{transactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<TransferStatusResponse>> streamTransferEvents(
+            @Parameter(description = "Transaction id returned when the transfer was initiated", required = true)
+            @PathVariable UUID transactionId
+    );
+
+    @Operation(
+            summary = "Stream State Changes of Many Transfers",
+            description = "Server-Sent Events stream over several transfers: their current statuses first, then every committed state change. Unknown ids are left out; the stream completes once every known transfer is terminal."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream of transfer statuses",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = TransferStatusResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many ids or a malformed id",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    Flux<ServerSentEvent<TransferStatusResponse>> streamTransfersEvents(
+            @Parameter(description = "Comma-separated transaction ids", required = true)
+            @RequestParam List<UUID> ids
+    );
 }
@@ -11,5 +11,12 @@ public enum TransferState {
 
     REFUND_INITIATED,
     REFUNDED,
-    REFUND_FAILED
+    REFUND_FAILED;
+
+    /**
+     * No transition leaves these states. REFUND_FAILED is not one: a late refund result can still move it to REFUNDED.
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == DEBIT_FAILED || this == REFUNDED;
+    }
 }
@@ -0,0 +1,13 @@
+package com.minelsaygisever.transfer.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BatchTransferApiRequest(
+        @Schema(description = "Transfers to initiate, each with its own idempotency key")
+        @NotEmpty(message = "At least one transfer is required")
+        List<@Valid BatchTransferItemRequest> transfers
+) {}
@@ -0,0 +1,33 @@
+package com.minelsaygisever.transfer.dto;
+
+import com.minelsaygisever.common.domain.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+public record BatchTransferItemRequest(
+        @Schema(description = "Unique key to ensure idempotency of this item", example = "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11")
+        @NotBlank(message = "Idempotency key is required")
+        String idempotencyKey,
+
+        @Schema(description = "Sender Account ID", example = "1")
+        @NotBlank(message = "Sender account ID is required")
+        String senderAccountId,
+
+        @Schema(description = "Receiver Account ID", example = "3")
+        @NotBlank(message = "Receiver account ID is required")
+        String receiverAccountId,
+
+        @Schema(description = "Amount to transfer", example = "100.00")
+        @NotNull(message = "Amount is required")
+        @DecimalMin(value = "0.01", message = "Transfer amount must be greater than zero")
+        @DecimalMax(value = Money.MAX_VALUE, message = "Transfer amount is too large")
+        @Digits(integer = 17, fraction = 2, message = "Amount must have max 2 decimal places")
+        BigDecimal amount,
+
+        @Schema(description = "Currency code", example = "TRY")
+        @NotBlank(message = "Currency is required")
+        @Size(min = 3, max = 3, message = "Currency must be exactly 3 characters (ISO 4217)")
+        String currency
+) {}
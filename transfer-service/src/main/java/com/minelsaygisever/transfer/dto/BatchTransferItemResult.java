@@ -0,0 +1,21 @@
+package com.minelsaygisever.transfer.dto;
+
+/**
+ * Outcome of one batch item, in request order. Either {@code transfer} or {@code error} is set;
+ * error keys match the single-transfer endpoint's error responses.
+ */
+public record BatchTransferItemResult(
+        String idempotencyKey,
+        TransferResponse transfer,
+        String error,
+        String message
+) {
+
+    public static BatchTransferItemResult success(String idempotencyKey, TransferResponse transfer) {
+        return new BatchTransferItemResult(idempotencyKey, transfer, null, null);
+    }
+
+    public static BatchTransferItemResult failure(String idempotencyKey, String error, String message) {
+        return new BatchTransferItemResult(idempotencyKey, null, error, message);
+    }
+}
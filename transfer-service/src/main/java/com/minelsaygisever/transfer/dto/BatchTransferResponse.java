@@ -0,0 +1,7 @@
+package com.minelsaygisever.transfer.dto;
+
+import java.util.List;
+
+public record BatchTransferResponse(
+        List<BatchTransferItemResult> results
+) {}
@@ -0,0 +1,9 @@
+package com.minelsaygisever.transfer.dto;
+
+/**
+ * Accepted transfer cached under its idempotency key, so duplicates are answered without a database lookup.
+ */
+public record CachedTransfer(
+        String requestHash,
+        TransferResponse response
+) {}
@@ -1,5 +1,6 @@
 package com.minelsaygisever.transfer.dto;
 
+import com.minelsaygisever.common.domain.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
@@ -17,6 +18,7 @@ public record TransferApiRequest(
         @Schema(description = "Amount to transfer", example = "100.00")
         @NotNull(message = "Amount is required")
         @DecimalMin(value = "0.01", message = "Transfer amount must be greater than zero")
+        @DecimalMax(value = Money.MAX_VALUE, message = "Transfer amount is too large")
         @Digits(integer = 17, fraction = 2, message = "Amount must have max 2 decimal places")
         BigDecimal amount,
 
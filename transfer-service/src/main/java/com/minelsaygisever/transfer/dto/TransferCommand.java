@@ -1,5 +1,7 @@
 package com.minelsaygisever.transfer.dto;
 
+import com.minelsaygisever.transfer.util.IdempotencyHasher;
+
 import java.math.BigDecimal;
 
 public record TransferCommand(
@@ -7,5 +9,12 @@ public record TransferCommand(
         String senderAccountId,
         String receiverAccountId,
         BigDecimal amount,
-        String currency
-) {}
\ No newline at end of file
+        String currency,
+        String requestHash
+) {
+    // Hashes the payload once; every idempotency check on this request reuses it
+    public TransferCommand(String idempotencyKey, String senderAccountId, String receiverAccountId, BigDecimal amount, String currency) {
+        this(idempotencyKey, senderAccountId, receiverAccountId, amount, currency,
+                IdempotencyHasher.hash(senderAccountId, receiverAccountId, amount, currency));
+    }
+}
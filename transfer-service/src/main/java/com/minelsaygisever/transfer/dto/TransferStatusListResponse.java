@@ -0,0 +1,10 @@
+package com.minelsaygisever.transfer.dto;
+
+import java.util.List;
+
+/**
+ * Statuses in request order; unknown transaction ids are left out.
+ */
+public record TransferStatusListResponse(
+        List<TransferStatusResponse> transfers
+) {}
@@ -0,0 +1,28 @@
+package com.minelsaygisever.transfer.dto;
+
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransferStatusResponse(
+        UUID transactionId,
+        TransferState state,
+        String failureReason,
+        Long version,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static TransferStatusResponse from(Transfer transfer) {
+        return new TransferStatusResponse(
+                transfer.getTransactionId(),
+                transfer.getState(),
+                transfer.getFailureReason(),
+                transfer.getVersion(),
+                transfer.getCreatedAt(),
+                transfer.getUpdatedAt()
+        );
+    }
+}
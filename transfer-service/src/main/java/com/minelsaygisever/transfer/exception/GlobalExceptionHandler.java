@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -44,6 +45,16 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(TransferNotFoundException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleNotFound(TransferNotFoundException ex, ServerWebExchange exchange) {
+        return Mono.just(createErrorResponse(
+                HttpStatus.NOT_FOUND,
+                "TRANSFER_NOT_FOUND",
+                ex.getMessage(),
+                exchange
+        ));
+    }
+
     @ExceptionHandler(CurrencyMismatchException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleCurrencyMismatch(CurrencyMismatchException ex, ServerWebExchange exchange) {
         return Mono.just(createErrorResponse(
@@ -78,6 +89,17 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    // Malformed path variables, query parameters or headers
+    @ExceptionHandler(ServerWebInputException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleRequestInput(ServerWebInputException ex, ServerWebExchange exchange) {
+        return Mono.just(createErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                "VALIDATION_ERROR",
+                ex.getReason(),
+                exchange
+        ));
+    }
+
     @ExceptionHandler(EventSerializationException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleSerializationError(EventSerializationException ex, ServerWebExchange exchange) {
         log.error("CRITICAL: Outbox serialization failed! Transaction rolled back.", ex);
@@ -0,0 +1,16 @@
+package com.minelsaygisever.transfer.exception;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+public class TransferNotFoundException extends RuntimeException {
+
+    private final UUID transactionId;
+
+    public TransferNotFoundException(UUID transactionId) {
+        super("Transfer not found for transaction id: " + transactionId);
+        this.transactionId = transactionId;
+    }
+}
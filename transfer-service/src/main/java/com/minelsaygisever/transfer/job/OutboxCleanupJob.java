@@ -1,10 +1,13 @@
 package com.minelsaygisever.transfer.job;
 
+import com.minelsaygisever.common.persistence.DailyPartitions;
 import com.minelsaygisever.transfer.config.TransferProperties;
 import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
 import com.minelsaygisever.transfer.repository.OutboxRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -12,18 +15,56 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OutboxCleanupJob {
 
+    // A partition past retention is kept while it still has PENDING or FAILED events, which are never deleted
+    private static final String KEEP_PARTITION_WHERE = "status <> '" + OutboxStatus.COMPLETED + "'";
+
     private final OutboxRepository outboxRepository;
     private final TransferProperties properties;
+    private final DailyPartitions partitions;
+
+    public OutboxCleanupJob(OutboxRepository outboxRepository, TransferProperties properties, DatabaseClient databaseClient) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.partitions = new DailyPartitions(databaseClient, "outbox");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOutboxPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+
+        createPartitions()
+                .subscribe(
+                        created -> log.info("Transfer outbox partitions ensured for {} days from today", created),
+                        error -> log.error("Transfer outbox partition setup failed", error)
+                );
+    }
 
     @Scheduled(cron = "${transfer.cleanup.cron:0 0 3 * * *}")
     public void cleanupOldEvents() {
         LocalDateTime threshold = LocalDateTime.now().minus(properties.cleanup().retentionPeriod());
         int batchSize = properties.cleanup().batchSize();
 
+        if (isPartitioned()) {
+            log.info("Starting Transfer Outbox Partition Maintenance. Dropping partitions before: {}", threshold);
+
+            // Expired days are dropped whole. COMPLETED rows in the default partition and in the days kept for
+            // their other events are still deleted in batches, as in the non-partitioned mode.
+            createPartitions()
+                    .then(partitions.dropExpired(threshold, KEEP_PARTITION_WHERE))
+                    .zipWhen(dropped -> deleteBatch(threshold, batchSize))
+                    .subscribe(
+                            result -> log.info("Transfer Outbox Partition Maintenance Finished. Dropped partitions: {}, deleted rows: {}",
+                                    result.getT1(), result.getT2()),
+                            error -> log.error("Transfer Outbox Partition Maintenance Failed", error)
+                    );
+            return;
+        }
+
         log.info("Starting Transfer Outbox Cleanup. Deleting COMPLETED events before: {}", threshold);
 
         deleteBatch(threshold, batchSize)
@@ -45,4 +86,14 @@ public class OutboxCleanupJob {
                     }
                 });
     }
+
+    // --- Partitioned mode: one daily range partition per day on created_at ---
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(properties.cleanup().partitioned());
+    }
+
+    private Mono<Long> createPartitions() {
+        return partitions.create(properties.cleanup().partitionsAhead());
+    }
 }
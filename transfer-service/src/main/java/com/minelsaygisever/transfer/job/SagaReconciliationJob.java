@@ -2,6 +2,7 @@ package com.minelsaygisever.transfer.job;
 
 import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
 import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
 import com.minelsaygisever.transfer.domain.enums.TransferState;
 import com.minelsaygisever.transfer.repository.TransferRepository;
 import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
@@ -9,58 +10,106 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SagaReconciliationJob {
 
+    // Must match the predicate of idx_transfers_stuck_updated_at_id in schema.sql
+    private static final String[] STUCK_STATES = {TransferState.DEBITED.name(), TransferState.REFUND_INITIATED.name()};
+
     private final TransferRepository transferRepository;
     private final TransferSagaOrchestrator orchestrator;
     private final TransferProperties properties;
 
+    // Set while a run is streaming; a scheduled tick that finds it set is skipped
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
     @Scheduled(fixedRateString = "${transfer.reconciliation.rate:60000}")
     public void scanStuckTransfers() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous saga reconciliation run is still in progress. Skipping this run.");
+            return;
+        }
+
         var thresholdDuration = properties.reconciliation().timeoutThreshold();
         var timeoutThreshold = LocalDateTime.now().minus(thresholdDuration);
 
         var maxRetryDuration = properties.reconciliation().maxRetryDuration();
         var giveUpThreshold = LocalDateTime.now().minus(maxRetryDuration);
 
-        var stuckStates = List.of(TransferState.DEBITED, TransferState.REFUND_INITIATED);
+        int pageSize = properties.reconciliation().pageSize();
+        int concurrency = properties.reconciliation().concurrency();
 
         log.debug("Scanning stuck transfers. Timeout: {}, GiveUp: {}", thresholdDuration, maxRetryDuration);
 
-        transferRepository.findByStateInAndUpdatedAtBefore(stuckStates, timeoutThreshold)
-                .flatMap(transfer -> {
-                    // --- KILL SWITCH ---
-                    if (transfer.getCreatedAt().isBefore(giveUpThreshold)) {
-                        log.error("Transfer stuck for too long (>{}). Giving up! Tx: {}",
-                                maxRetryDuration, transfer.getTransactionId());
-
-                        return orchestrator.handleRefundFail(
-                                new AccountRefundFailedEvent(
-                                        transfer.getTransactionId(),
-                                        transfer.getSenderAccountId(),
-                                        transfer.getAmount(),
-                                        transfer.getCurrency(),
-                                        "Saga Reconciliation gave up after " + maxRetryDuration
-                                )
-                        );
-                    }
-
-                    log.warn("Stuck transfer detected! Retrying... Tx: {} State: {}",
-                            transfer.getTransactionId(), transfer.getState());
+        stuckTransfers(timeoutThreshold, pageSize)
+                .flatMap(transfer -> reconcile(transfer, giveUpThreshold, maxRetryDuration)
+                        .onErrorResume(e -> {
+                            log.error("Failed to reconcile stuck transfer. Tx: {}", transfer.getTransactionId(), e);
+                            return Mono.empty();
+                        })
+                        .thenReturn(transfer), concurrency)
+                .count()
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        total -> {
+                            if (total > 0) {
+                                log.info("Saga reconciliation finished. Stuck transfers handled: {}", total);
+                            }
+                        },
+                        error -> log.error("Saga reconciliation failed", error)
+                );
+    }
 
-                    if (transfer.getState() == TransferState.DEBITED) {
-                        return orchestrator.handleTimeout(transfer);
-                    } else {
-                        return orchestrator.retryRefund(transfer);
+    // Streams stuck transfers page by page. A prefetch of one keeps a single page outstanding, so the next
+    // page is read only once the previous one is drained; the default of 256 would buffer 256 whole pages.
+    private Flux<Transfer> stuckTransfers(LocalDateTime threshold, int pageSize) {
+        return transferRepository.findStalePage(STUCK_STATES, threshold, pageSize)
+                .collectList()
+                .expand(page -> {
+                    if (page.size() < pageSize) {
+                        return Mono.empty();
                     }
+                    Transfer last = page.getLast();
+                    return transferRepository.findStalePageAfter(STUCK_STATES, threshold,
+                                    last.getUpdatedAt(), last.getId(), pageSize)
+                            .collectList();
                 })
-                .subscribe();
+                .concatMapIterable(page -> page, 1);
+    }
+
+    private Mono<Void> reconcile(Transfer transfer, LocalDateTime giveUpThreshold, Duration maxRetryDuration) {
+        // --- KILL SWITCH ---
+        if (transfer.getCreatedAt().isBefore(giveUpThreshold)) {
+            log.error("Transfer stuck for too long (>{}). Giving up! Tx: {}",
+                    maxRetryDuration, transfer.getTransactionId());
+
+            return orchestrator.handleRefundFail(
+                    new AccountRefundFailedEvent(
+                            transfer.getTransactionId(),
+                            transfer.getSenderAccountId(),
+                            transfer.getAmount(),
+                            transfer.getCurrency(),
+                            "Saga Reconciliation gave up after " + maxRetryDuration
+                    )
+            );
+        }
+
+        log.warn("Stuck transfer detected! Retrying... Tx: {} State: {}",
+                transfer.getTransactionId(), transfer.getState());
+
+        if (transfer.getState() == TransferState.DEBITED) {
+            return orchestrator.handleTimeout(transfer);
+        } else {
+            return orchestrator.retryRefund(transfer);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.minelsaygisever.transfer.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventCodec;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
 import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
@@ -8,17 +9,34 @@ import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
 import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
 import com.minelsaygisever.common.event.refund.AccountRefundFailedEvent;
 import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.transfer.config.TransferProperties;
 import com.minelsaygisever.transfer.exception.EventDeserializationException;
+import com.minelsaygisever.transfer.exception.EventPublishingException;
+import com.minelsaygisever.transfer.service.EventFlowMetrics;
 import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.charset.StandardCharsets;
-import java.util.function.Consumer;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
 
 @Configuration
 @RequiredArgsConstructor
@@ -27,67 +45,223 @@ public class TransferSagaListener {
 
     private final TransferSagaOrchestrator orchestrator;
     private final ObjectMapper objectMapper;
+    private final StreamBridge streamBridge;
+    private final TransferProperties properties;
+    private final EventFlowMetrics eventFlowMetrics;
 
+    /**
+     * Reactive consumer for account events. Events are spread over a fixed number of lanes by
+     * transaction id, so events of the same saga are handled in order while different sagas run
+     * concurrently. The offset is acknowledged only after the orchestrator's transaction completes.
+     * Payloads arrive as raw bytes and are decoded as JSON or with {@link EventCodec}, by content type.
+     */
     @Bean
-    public Consumer<Message<String>> onAccountEvent() {
-        return message -> {
-            String payload = message.getPayload();
-            String eventTypeHeader = null;
-            Object headerValue = message.getHeaders().get("eventType");
-
-            if (headerValue instanceof byte[]) {
-                eventTypeHeader = new String((byte[]) headerValue, StandardCharsets.UTF_8);
-            } else if (headerValue instanceof String) {
-                eventTypeHeader = (String) headerValue;
+    public Function<Flux<Message<byte[]>>, Mono<Void>> onAccountEvent() {
+        int concurrency = properties.consumer().concurrency();
+
+        return messages -> messages
+                .map(this::decode)
+                .groupBy(event -> Math.floorMod(event.laneKey().hashCode(), concurrency))
+                .flatMap(lane -> lane.concatMap(this::process), concurrency)
+                .then();
+    }
+
+    /**
+     * Lanes acknowledge their records out of order. With async acks the container commits an offset
+     * only once every record before it has been acknowledged.
+     */
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> sagaListenerContainerCustomizer() {
+        return (container, destinationName, group) -> {
+            if (container.getContainerProperties().getAckMode() == ContainerProperties.AckMode.MANUAL) {
+                container.getContainerProperties().setAsyncAcks(true);
             }
+        };
+    }
 
-            if (eventTypeHeader == null) {
-                log.warn("Received message without 'eventType' header. Ignoring. Payload: {}", message.getPayload());
-                return;
+    private SagaEvent decode(Message<byte[]> message) {
+        String eventTypeHeader = resolveEventType(message);
+
+        if (eventTypeHeader == null) {
+            log.warn("Received message without 'eventType' header. Ignoring. Payload: {}", describe(message));
+            return SagaEvent.skipped(message);
+        }
+
+        try {
+            EventType eventType = EventType.valueOf(eventTypeHeader);
+
+            log.info("Received Event: {} Payload: {}", eventType, summary(message));
+            eventFlowMetrics.recordReceived(eventType, message);
+
+            Object event = switch (eventType) {
+                case ACCOUNT_DEBITED -> read(message, AccountDebitedEvent.class);
+                case ACCOUNT_DEBIT_FAILED -> read(message, AccountDebitFailedEvent.class);
+                case ACCOUNT_CREDITED -> read(message, AccountCreditedEvent.class);
+                case ACCOUNT_CREDIT_FAILED -> read(message, AccountCreditFailedEvent.class);
+                case ACCOUNT_REFUNDED -> read(message, AccountRefundedEvent.class);
+                case ACCOUNT_REFUND_FAILED -> read(message, AccountRefundFailedEvent.class);
+                default -> null;
+            };
+
+            if (event == null) {
+                log.debug("Ignored irrelevant event type for Transfer Saga: {}", eventType);
+                return SagaEvent.skipped(message);
             }
 
+            return new SagaEvent(message, eventType, event, resolveTransactionId(event), null);
+
+        } catch (IllegalArgumentException e) {
+            log.error("Unknown event type in header: {}", eventTypeHeader);
+            return SagaEvent.skipped(message);
+        } catch (IOException e) {
+            log.error("Failed to deserialize event payload", e);
+            return SagaEvent.failed(message,
+                    new EventDeserializationException("Failed to deserialize event payload: " + describe(message), e));
+        }
+    }
+
+    private <T> T read(Message<byte[]> message, Class<T> type) throws IOException {
+        if (isBinary(message)) {
             try {
-                EventType eventType = EventType.valueOf(eventTypeHeader);
-
-                log.info("Received Event: {} Payload: {}", eventType, payload);
-
-                switch (eventType) {
-                    case ACCOUNT_DEBITED -> {
-                        var event = objectMapper.readValue(payload, AccountDebitedEvent.class);
-                        orchestrator.handleDebitSuccess(event).block();
-                    }
-                    case ACCOUNT_DEBIT_FAILED -> {
-                        var event = objectMapper.readValue(payload, AccountDebitFailedEvent.class);
-                        orchestrator.handleDebitFail(event).block();
-                    }
-                    case ACCOUNT_CREDITED -> {
-                        var event = objectMapper.readValue(payload, AccountCreditedEvent.class);
-                        orchestrator.handleCreditSuccess(event).block();
-                    }
-                    case ACCOUNT_CREDIT_FAILED -> {
-                        var event = objectMapper.readValue(payload, AccountCreditFailedEvent.class);
-                        orchestrator.handleCreditFail(event).block();
-                    }
-                    case ACCOUNT_REFUNDED -> {
-                        var event = objectMapper.readValue(payload, AccountRefundedEvent.class);
-                        orchestrator.handleRefundSuccess(event).block();
-                    }
-                    case ACCOUNT_REFUND_FAILED -> {
-                        var event = objectMapper.readValue(payload, AccountRefundFailedEvent.class);
-                        orchestrator.handleRefundFail(event).block();
-                    }
-                    default -> log.debug("Ignored irrelevant event type for Transfer Saga: {}", eventType);
-                }
-
-            } catch (IllegalArgumentException e) {
-                log.error("Unknown event type in header: {}", eventTypeHeader);
-            } catch (IOException e) {
-                log.error("Failed to deserialize event payload", e);
-                throw new EventDeserializationException("Failed to deserialize event payload: " + payload, e);
-            } catch (Exception e) {
-                log.error("Error processing saga event", e);
-                throw e;
+                return EventCodec.decode(message.getPayload(), type);
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                throw new IOException("Malformed binary event payload", e);
+            }
+        }
+        return objectMapper.readValue(message.getPayload(), type);
+    }
+
+    private boolean isBinary(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType instanceof byte[] bytes) {
+            contentType = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return contentType != null && contentType.toString().contains(EventCodec.CONTENT_TYPE);
+    }
+
+    // Per-event log line; rendering binary payloads as JSON here would cost what the codec saves
+    private String summary(Message<byte[]> message) {
+        return isBinary(message)
+                ? "<binary, " + message.getPayload().length + " bytes>"
+                : new String(message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    // Binary payloads are dead-lettered as JSON, so alerts stay readable
+    private String describe(Message<byte[]> message) {
+        if (!isBinary(message)) {
+            return new String(message.getPayload(), StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsString(EventCodec.decode(message.getPayload()));
+        } catch (IOException | RuntimeException e) {
+            return Base64.getEncoder().encodeToString(message.getPayload());
+        }
+    }
+
+    private Mono<Void> process(SagaEvent event) {
+        Mono<Void> handling;
+
+        if (event.failure() != null) {
+            handling = sendToDeadLetterQueue(event.message(), event.failure());
+        } else if (event.payload() == null) {
+            handling = Mono.empty();
+        } else {
+            // Binder retry and DLQ do not apply to reactive functions, so both are handled here.
+            handling = eventFlowMetrics.timeHandler(event.eventType(), dispatch(event.payload()))
+                    .retryWhen(retryStrategy())
+                    .onErrorResume(ex -> {
+                        log.error("Error processing saga event. Tx: {}", event.transactionId(), ex);
+                        return sendToDeadLetterQueue(event.message(), ex);
+                    });
+        }
+
+        return handling
+                .then(Mono.fromRunnable(() -> acknowledge(event.message())))
+                .onErrorResume(ex -> {
+                    // Leave the offset unacknowledged; the record is redelivered after a rebalance or restart.
+                    log.error("CRITICAL: Saga event could not be handled nor dead-lettered. Tx: {}", event.transactionId(), ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> dispatch(Object event) {
+        return switch (event) {
+            case AccountDebitedEvent e -> orchestrator.handleDebitSuccess(e);
+            case AccountDebitFailedEvent e -> orchestrator.handleDebitFail(e);
+            case AccountCreditedEvent e -> orchestrator.handleCreditSuccess(e);
+            case AccountCreditFailedEvent e -> orchestrator.handleCreditFail(e);
+            case AccountRefundedEvent e -> orchestrator.handleRefundSuccess(e);
+            case AccountRefundFailedEvent e -> orchestrator.handleRefundFail(e);
+            default -> Mono.empty();
+        };
+    }
+
+    private Mono<Void> sendToDeadLetterQueue(Message<byte[]> message, Throwable cause) {
+        return Mono.fromRunnable(() -> {
+            String dlqBindingName = properties.consumer().dlqBindingName();
+            log.warn("Sending saga event to DLQ Binding: {}", dlqBindingName);
+
+            Message<String> dlqMessage = MessageBuilder
+                    .withPayload(describe(message))
+                    .setHeader("eventType", resolveEventType(message))
+                    .setHeader("x-exception-message", String.valueOf(cause.getMessage()))
+                    .build();
+
+            if (!streamBridge.send(dlqBindingName, dlqMessage)) {
+                throw new EventPublishingException("Failed to send saga event to DLQ");
             }
+        });
+    }
+
+    private Retry retryStrategy() {
+        return Retry.backoff(properties.consumer().maxAttempts() - 1, properties.consumer().backoffInitialInterval())
+                .doBeforeRetry(signal -> log.warn("Retrying saga event. Attempt: {}", signal.totalRetries() + 1));
+    }
+
+    private void acknowledge(Message<byte[]> message) {
+        Acknowledgment acknowledgment = message.getHeaders().get(KafkaHeaders.ACKNOWLEDGMENT, Acknowledgment.class);
+        if (acknowledgment != null) {
+            acknowledgment.acknowledge();
+        }
+    }
+
+    private String resolveEventType(Message<byte[]> message) {
+        Object headerValue = message.getHeaders().get("eventType");
+
+        if (headerValue instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        } else if (headerValue instanceof String value) {
+            return value;
+        }
+        return null;
+    }
+
+    private UUID resolveTransactionId(Object event) {
+        return switch (event) {
+            case AccountDebitedEvent e -> e.transactionId();
+            case AccountDebitFailedEvent e -> e.transactionId();
+            case AccountCreditedEvent e -> e.transactionId();
+            case AccountCreditFailedEvent e -> e.transactionId();
+            case AccountRefundedEvent e -> e.transactionId();
+            case AccountRefundFailedEvent e -> e.transactionId();
+            default -> null;
         };
     }
-}
\ No newline at end of file
+
+    private record SagaEvent(Message<byte[]> message, EventType eventType, Object payload, UUID transactionId, Throwable failure) {
+
+        static SagaEvent skipped(Message<byte[]> message) {
+            return new SagaEvent(message, null, null, null, null);
+        }
+
+        static SagaEvent failed(Message<byte[]> message, Throwable failure) {
+            return new SagaEvent(message, null, null, null, failure);
+        }
+
+        // Events without a transaction id carry no ordering constraint, so any lane will do.
+        Object laneKey() {
+            return transactionId != null ? transactionId : message;
+        }
+    }
+}
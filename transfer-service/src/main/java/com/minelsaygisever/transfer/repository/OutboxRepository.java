@@ -23,6 +23,32 @@ public interface OutboxRepository extends R2dbcRepository<Outbox, Long> {
     """)
     Flux<Outbox> findLockedBatch(OutboxStatus status, LocalDateTime now, int batchSize);
 
+    // An event waits while an earlier one of the same transfer is still pending, e.g. in retry backoff
+    @Query("""
+        SELECT * FROM outbox o 
+        WHERE o.shard = ANY(:shards) 
+        AND o.status = :status 
+        AND (o.next_attempt_time IS NULL OR o.next_attempt_time <= :now) 
+        AND NOT EXISTS (
+            SELECT 1 FROM outbox earlier 
+            WHERE earlier.aggregate_id = o.aggregate_id 
+            AND earlier.status = :status 
+            AND earlier.id < o.id
+        ) 
+        ORDER BY o.id ASC 
+        LIMIT :batchSize 
+        FOR UPDATE OF o SKIP LOCKED
+    """)
+    Flux<Outbox> findLockedShardBatch(OutboxStatus status, LocalDateTime now, Integer[] shards, int batchSize);
+
+    @Modifying
+    @Query("""
+        UPDATE outbox 
+        SET status = :status, next_attempt_time = NULL, updated_at = NOW() 
+        WHERE id = ANY(:ids)
+    """)
+    Mono<Integer> updateStatusByIds(OutboxStatus status, Long[] ids);
+
     @Modifying
     @Query("""
         DELETE FROM outbox 
@@ -34,4 +60,21 @@ public interface OutboxRepository extends R2dbcRepository<Outbox, Long> {
         )
     """)
     Mono<Integer> deleteByStatusAndCreatedAtBefore(OutboxStatus status, LocalDateTime threshold, int batchSize);
+
+    @Modifying
+    @Query("""
+        INSERT INTO outbox (aggregate_type, aggregate_id, type, payload, status, retry_count)
+        SELECT :aggregateType, e.aggregate_id, :type, e.payload, 'PENDING', 0
+        FROM unnest(CAST(:aggregateIds AS TEXT[]), CAST(:payloads AS TEXT[])) AS e(aggregate_id, payload)
+    """)
+    Mono<Integer> insertPending(String aggregateType, String type, String[] aggregateIds, String[] payloads);
+
+    Mono<Long> countByStatus(OutboxStatus status);
+
+    @Query("""
+        SELECT CAST(COALESCE(EXTRACT(EPOCH FROM (LOCALTIMESTAMP - MIN(created_at))) * 1000, 0) AS BIGINT)
+        FROM outbox
+        WHERE status = :status
+    """)
+    Mono<Long> findOldestAgeMillis(OutboxStatus status);
 }
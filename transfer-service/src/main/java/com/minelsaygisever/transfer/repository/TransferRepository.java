@@ -2,6 +2,7 @@ package com.minelsaygisever.transfer.repository;
 
 import com.minelsaygisever.transfer.domain.Transfer;
 import com.minelsaygisever.transfer.domain.enums.TransferState;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -14,6 +15,102 @@ import java.util.UUID;
 @Repository
 public interface TransferRepository extends R2dbcRepository<Transfer, Long> {
     Mono<Transfer> findByIdempotencyKey(String idempotencyKey);
+    Flux<Transfer> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
     Mono<Transfer> findByTransactionId(UUID transactionId);
-    Flux<Transfer> findByStateInAndUpdatedAtBefore(Collection<TransferState> states, LocalDateTime threshold);
+    Flux<Transfer> findByTransactionIdIn(Collection<UUID> transactionIds);
+
+    // --- Keyset pages of transfers not updated since the threshold, ordered by (updated_at, id) ---
+
+    @Query("""
+        SELECT * FROM transfers
+        WHERE state = ANY(CAST(:states AS TEXT[])) AND updated_at < :threshold
+        ORDER BY updated_at, id
+        LIMIT :limit
+    """)
+    Flux<Transfer> findStalePage(String[] states, LocalDateTime threshold, int limit);
+
+    @Query("""
+        SELECT * FROM transfers
+        WHERE state = ANY(CAST(:states AS TEXT[])) AND updated_at < :threshold
+          AND (updated_at, id) > (:afterUpdatedAt, :afterId)
+        ORDER BY updated_at, id
+        LIMIT :limit
+    """)
+    Flux<Transfer> findStalePageAfter(String[] states, LocalDateTime threshold,
+                                      LocalDateTime afterUpdatedAt, Long afterId, int limit);
+
+    // --- Compare-and-set state transitions: empty when the transfer is not in the expected state ---
+
+    @Query("""
+        UPDATE transfers
+        SET state = :to, failure_reason = COALESCE(:failureReason, failure_reason),
+            version = COALESCE(version, 0) + 1, updated_at = NOW()
+        WHERE transaction_id = :transactionId AND state = :from
+        RETURNING *
+    """)
+    Mono<Transfer> transitionState(UUID transactionId, TransferState from, TransferState to, String failureReason);
+
+    @Query("""
+        WITH transitioned AS (
+            UPDATE transfers
+            SET state = :to, version = COALESCE(version, 0) + 1, updated_at = NOW()
+            WHERE transaction_id = :transactionId AND state = :from
+            RETURNING *
+        ), deposit AS (
+            INSERT INTO outbox (aggregate_type, aggregate_id, type, payload, status, retry_count)
+            SELECT 'TRANSFER', transaction_id::text, 'TRANSFER_DEPOSIT_REQUESTED',
+                   json_build_object(
+                       'transactionId', transaction_id,
+                       'receiverAccountId', receiver_account_id,
+                       'amount', amount,
+                       'currency', currency
+                   )::text,
+                   'PENDING', 0
+            FROM transitioned
+        )
+        SELECT * FROM transitioned
+    """)
+    Mono<Transfer> transitionAndRequestDeposit(UUID transactionId, TransferState from, TransferState to);
+
+    @Query("""
+        WITH transitioned AS (
+            UPDATE transfers
+            SET state = :to, failure_reason = COALESCE(:failureReason, failure_reason),
+                version = COALESCE(version, 0) + 1, updated_at = NOW()
+            WHERE transaction_id = :transactionId AND state = :from
+            RETURNING *
+        ), refund AS (
+            INSERT INTO outbox (aggregate_type, aggregate_id, type, payload, status, retry_count)
+            SELECT 'TRANSFER', transaction_id::text, 'TRANSFER_REFUND_REQUESTED',
+                   json_build_object(
+                       'transactionId', transaction_id,
+                       'senderAccountId', sender_account_id,
+                       'amount', amount,
+                       'currency', currency,
+                       'reason', CAST(:refundReason AS TEXT)
+                   )::text,
+                   'PENDING', 0
+            FROM transitioned
+        )
+        SELECT * FROM transitioned
+    """)
+    Mono<Transfer> transitionAndRequestRefund(UUID transactionId, TransferState from, TransferState to,
+                                              String failureReason, String refundReason);
+
+    // --- Batch initiation: one multi-row INSERT for the whole batch ---
+
+    @Query("""
+        INSERT INTO transfers (idempotency_key, transaction_id, sender_account_id, receiver_account_id,
+                               amount, currency, request_hash, state, version)
+        SELECT t.idempotency_key, CAST(t.transaction_id AS UUID), t.sender_account_id, t.receiver_account_id,
+               CAST(t.amount AS DECIMAL(19, 2)), t.currency, t.request_hash, 'STARTED', 0
+        FROM unnest(CAST(:idempotencyKeys AS TEXT[]), CAST(:transactionIds AS TEXT[]),
+                    CAST(:senderAccountIds AS TEXT[]), CAST(:receiverAccountIds AS TEXT[]),
+                    CAST(:amounts AS TEXT[]), CAST(:currencies AS TEXT[]), CAST(:requestHashes AS TEXT[]))
+             AS t(idempotency_key, transaction_id, sender_account_id, receiver_account_id, amount, currency, request_hash)
+        RETURNING *
+    """)
+    Flux<Transfer> insertStarted(String[] idempotencyKeys, String[] transactionIds, String[] senderAccountIds,
+                                 String[] receiverAccountIds, String[] amounts, String[] currencies,
+                                 String[] requestHashes);
 }
@@ -0,0 +1,137 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.transfer.domain.Outbox;
+import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits saga latency into hops: outbox row age at publish, Kafka transit (from the
+ * {@value #PRODUCED_AT_HEADER} header to receipt) and handler execution, each tagged by event type.
+ * Also exposes the outbox backlog as gauges, refreshed on a schedule instead of queried on every scrape.
+ */
+@Component
+@Slf4j
+public class EventFlowMetrics {
+
+    public static final String PRODUCED_AT_HEADER = "producedAt";
+
+    private final OutboxRepository outboxRepository;
+    private final Map<EventType, Timer> outboxLag = new EnumMap<>(EventType.class);
+    private final Map<EventType, Timer> transit = new EnumMap<>(EventType.class);
+    private final Map<EventType, Timer> handler = new EnumMap<>(EventType.class);
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public EventFlowMetrics(MeterRegistry meterRegistry, OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+
+        for (EventType type : EventType.values()) {
+            outboxLag.put(type, timer(meterRegistry, "money.transfer.outbox.publish.lag",
+                    "Age of an outbox event when it is handed to Kafka", type));
+            transit.put(type, timer(meterRegistry, "money.transfer.event.transit",
+                    "Time between an event being produced and received", type));
+            handler.put(type, timer(meterRegistry, "money.transfer.event.handler.duration",
+                    "Time taken to handle a consumed event", type));
+        }
+
+        Gauge.builder("money.transfer.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Number of PENDING outbox events")
+                .register(meterRegistry);
+        TimeGauge.builder("money.transfer.outbox.oldest.pending.age", oldestPendingAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest PENDING outbox event")
+                .register(meterRegistry);
+    }
+
+    public void recordPublished(Outbox outbox) {
+        if (outbox.getCreatedAt() == null || outbox.getType() == null) return;
+        outboxLag.get(outbox.getType()).record(Duration.between(outbox.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    /**
+     * Records the transit time of a consumed message. Falls back to the Kafka record timestamp for
+     * messages produced before the header existed.
+     */
+    public void recordReceived(EventType type, Message<?> message) {
+        Long producedAt = resolveProducedAt(message);
+        if (producedAt == null) return;
+        transit.get(type).record(Math.max(0, System.currentTimeMillis() - producedAt), TimeUnit.MILLISECONDS);
+    }
+
+    public <T> Mono<T> timeHandler(EventType type, Mono<T> handling) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return handling.doFinally(signal -> sample.stop(handler.get(type)));
+        });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transfer.metrics.outbox-gauge-interval:15s}",
+            initialDelayString = "${transfer.outbox.initial-delay:1000}"
+    )
+    public void refreshOutboxGauges() {
+        Mono.zip(
+                        outboxRepository.countByStatus(OutboxStatus.PENDING),
+                        outboxRepository.findOldestAgeMillis(OutboxStatus.PENDING)
+                )
+                .subscribe(
+                        result -> {
+                            pendingCount.set(result.getT1());
+                            oldestPendingAgeMillis.set(result.getT2());
+                        },
+                        error -> log.warn("Failed to refresh outbox gauges", error)
+                );
+    }
+
+    public static String producedAtNow() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    private Long resolveProducedAt(Message<?> message) {
+        Object headerValue = message.getHeaders().get(PRODUCED_AT_HEADER);
+
+        try {
+            if (headerValue instanceof byte[] bytes) {
+                return parseEpochMillis(new String(bytes, StandardCharsets.UTF_8));
+            } else if (headerValue instanceof String value) {
+                return parseEpochMillis(value);
+            } else if (headerValue instanceof Number value) {
+                return value.longValue();
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", PRODUCED_AT_HEADER, headerValue);
+        }
+        return message.getHeaders().get(KafkaHeaders.RECEIVED_TIMESTAMP, Long.class);
+    }
+
+    // Tolerates a JSON-quoted value, depending on how the header mapper encoded the string
+    private static long parseEpochMillis(String value) {
+        return Long.parseLong(value.replace("\"", "").trim());
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String description, EventType type) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("type", type.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.transfer.config.OutboxChannelConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Correlates asynchronous Kafka producer results with outbox rows through the {@value #OUTBOX_ID_HEADER} header.
+ * Broker acks arrive on the binding's record metadata channel, send failures on the global error channel.
+ */
+@Component
+@Slf4j
+public class OutboxAckRegistry {
+
+    public static final String OUTBOX_ID_HEADER = "outboxId";
+
+    private final Map<Long, Sinks.One<Void>> pendingAcks = new ConcurrentHashMap<>();
+
+    public OutboxAckRegistry(@Qualifier(OutboxChannelConfig.OUTBOX_ACK_CHANNEL) SubscribableChannel ackChannel,
+                             @Qualifier(IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME) SubscribableChannel errorChannel) {
+        ackChannel.subscribe(message -> complete(message, null));
+        errorChannel.subscribe(message -> {
+            if (message.getPayload() instanceof MessagingException ex && ex.getFailedMessage() != null) {
+                complete(ex.getFailedMessage(), ex);
+            }
+        });
+    }
+
+    /**
+     * Registers the outbox ID before running the send, so that an ack arriving early is not lost.
+     * The returned Mono completes when the broker acknowledges the record.
+     */
+    public Mono<Void> track(Long outboxId, Runnable send) {
+        return Mono.defer(() -> {
+                    Sinks.One<Void> sink = Sinks.one();
+                    pendingAcks.put(outboxId, sink);
+                    send.run();
+                    return sink.asMono();
+                })
+                .doFinally(signal -> pendingAcks.remove(outboxId));
+    }
+
+    private void complete(Message<?> message, Throwable failure) {
+        Object outboxId = message.getHeaders().get(OUTBOX_ID_HEADER);
+        if (!(outboxId instanceof Long id)) {
+            return;
+        }
+
+        Sinks.One<Void> sink = pendingAcks.get(id);
+        if (sink == null) {
+            log.debug("Ack received for outbox ID {} with no pending publisher (already timed out?)", id);
+            return;
+        }
+
+        if (failure == null) {
+            sink.tryEmitEmpty();
+        } else {
+            sink.tryEmitError(failure);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.transfer.config.TransferProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Splits the outbox shards between the live publisher replicas. Every replica heartbeats into
+ * {@code outbox_pollers}, takes the contiguous shard range matching its rank among the live replicas and
+ * leases those shards in {@code outbox_shard_leases}. A shard changes hands only once its previous owner has
+ * released it or let the lease expire, so two replicas never poll the same shard on purpose.
+ * <p>
+ * Leases are also tracked locally from the start of the renewal, so a replica that cannot reach the database
+ * stops polling before the lease can pass to another one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxShardCoordinator {
+
+    // Must match the modulus of the outbox.shard column in schema.sql
+    public static final int SHARD_COUNT = 64;
+
+    private static final Integer[] NO_SHARDS = new Integer[0];
+
+    private final DatabaseClient databaseClient;
+    private final TransferProperties properties;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile Lease lease = new Lease(NO_SHARDS, System.nanoTime());
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.outbox().sharded());
+    }
+
+    /**
+     * Shards this replica may poll right now; empty until the first rebalance and once the lease lapses.
+     */
+    public Integer[] ownedShards() {
+        Lease current = lease;
+        return System.nanoTime() - current.validUntilNanos() < 0 ? current.shards() : NO_SHARDS;
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.outbox.shard-lease-renew-interval:5s}")
+    public void renewLeases() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        rebalance()
+                .subscribe(
+                        shards -> log.debug("Outbox shard leases renewed. Owned shards: {}", shards.length),
+                        error -> log.error("Outbox shard lease renewal failed", error)
+                );
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        lease = new Lease(NO_SHARDS, System.nanoTime());
+        // Hands the shards over right away instead of after the lease expires
+        releaseShards(List.of())
+                .then(databaseClient.sql("DELETE FROM outbox_pollers WHERE owner = :owner")
+                        .bind("owner", owner)
+                        .then())
+                .doOnError(error -> log.warn("Could not release outbox shard leases on shutdown", error))
+                .onErrorComplete()
+                .block(Duration.ofSeconds(5));
+    }
+
+    public Mono<Integer[]> rebalance() {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            long leaseSeconds = properties.outbox().shardLeaseDuration().toSeconds();
+
+            return heartbeat(leaseSeconds)
+                    .then(liveOwners(leaseSeconds))
+                    .flatMap(owners -> {
+                        List<Integer> target = targetShards(owners.indexOf(owner), owners.size());
+                        return releaseShards(target).then(claimShards(target, leaseSeconds));
+                    })
+                    .map(claimed -> {
+                        Integer[] shards = claimed.stream().sorted().toArray(Integer[]::new);
+                        if (!Arrays.equals(shards, lease.shards())) {
+                            log.info("Outbox shard assignment changed. Owned shards: {}", Arrays.toString(shards));
+                        }
+                        lease = new Lease(shards, startedAt + properties.outbox().shardLeaseDuration().toNanos());
+                        return shards;
+                    });
+        });
+    }
+
+    // Contiguous range for the given rank; more replicas than shards leaves the surplus idle
+    static List<Integer> targetShards(int rank, int members) {
+        if (rank < 0 || members <= 0) {
+            return List.of();
+        }
+        int from = (int) ((long) rank * SHARD_COUNT / members);
+        int to = (int) ((long) (rank + 1) * SHARD_COUNT / members);
+        return IntStream.range(from, to).boxed().toList();
+    }
+
+    private Mono<Void> heartbeat(long leaseSeconds) {
+        return databaseClient.sql("""
+                        INSERT INTO outbox_pollers (owner, heartbeat_at)
+                        VALUES (:owner, NOW())
+                        ON CONFLICT (owner) DO UPDATE SET heartbeat_at = NOW()
+                        """)
+                .bind("owner", owner)
+                .then()
+                .then(databaseClient.sql("DELETE FROM outbox_pollers WHERE heartbeat_at < NOW() - :seconds * INTERVAL '1 second'")
+                        .bind("seconds", leaseSeconds * 10)
+                        .then());
+    }
+
+    private Mono<List<String>> liveOwners(long leaseSeconds) {
+        return databaseClient.sql("""
+                        SELECT owner FROM outbox_pollers
+                        WHERE heartbeat_at > NOW() - :seconds * INTERVAL '1 second'
+                        ORDER BY owner
+                        """)
+                .bind("seconds", leaseSeconds)
+                .map(row -> row.get("owner", String.class))
+                .all()
+                .collectList();
+    }
+
+    private Mono<Void> releaseShards(List<Integer> keep) {
+        return databaseClient.sql("""
+                        UPDATE outbox_shard_leases
+                        SET owner = NULL, expires_at = NULL
+                        WHERE owner = :owner AND NOT (shard = ANY(:keep))
+                        """)
+                .bind("owner", owner)
+                .bind("keep", keep.toArray(Integer[]::new))
+                .then();
+    }
+
+    // Takes free, expired or already owned shards; the ones still leased elsewhere are retried next round
+    private Mono<List<Integer>> claimShards(List<Integer> target, long leaseSeconds) {
+        if (target.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return databaseClient.sql("""
+                        INSERT INTO outbox_shard_leases (shard, owner, expires_at)
+                        SELECT s, :owner, NOW() + :seconds * INTERVAL '1 second'
+                        FROM unnest(CAST(:shards AS SMALLINT[])) AS s
+                        ON CONFLICT (shard) DO UPDATE
+                        SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at
+                        WHERE outbox_shard_leases.owner IS NULL
+                           OR outbox_shard_leases.owner = EXCLUDED.owner
+                           OR outbox_shard_leases.expires_at < NOW()
+                        RETURNING shard
+                        """)
+                .bind("owner", owner)
+                .bind("seconds", leaseSeconds)
+                .bind("shards", target.toArray(Integer[]::new))
+                .map(row -> row.get("shard", Integer.class))
+                .all()
+                .collectList();
+    }
+
+    private record Lease(Integer[] shards, long validUntilNanos) {}
+}
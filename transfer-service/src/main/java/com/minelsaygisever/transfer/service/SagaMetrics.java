@@ -0,0 +1,112 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saga meters, registered once per currency instead of on every saga completion. The configured currencies
+ * are registered up front; others are added on first use up to a bound, after which they share the
+ * {@value #OTHER_CURRENCY} tag so a bad currency value cannot blow up the registry.
+ */
+@Component
+public class SagaMetrics {
+
+    static final String SAGA_DURATION = "money.transfer.saga.duration";
+    static final String REFUND_COUNT = "money.transfer.refund.count";
+    static final String OTHER_CURRENCY = "OTHER";
+
+    private final MeterRegistry meterRegistry;
+    private final TransferProperties.MetricsProperties properties;
+    private final Map<String, CurrencyMeters> meters = new ConcurrentHashMap<>();
+
+    public SagaMetrics(MeterRegistry meterRegistry, TransferProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties.metrics();
+
+        this.properties.currencies().forEach(currency -> meters.put(currency, register(currency)));
+        meters.put(OTHER_CURRENCY, register(OTHER_CURRENCY));
+    }
+
+    public void recordSagaDuration(Transfer transfer, SagaOutcome outcome) {
+        LocalDateTime startTime = transfer.getCreatedAt();
+        if (startTime == null) return;
+
+        metersFor(transfer.getCurrency()).durations()[outcome.ordinal()]
+                .record(Duration.between(startTime, LocalDateTime.now()));
+    }
+
+    public void recordRefundCount(Transfer transfer) {
+        CurrencyMeters currencyMeters = metersFor(transfer.getCurrency());
+        (transfer.getFailureReason() != null ? currencyMeters.businessErrorRefunds() : currencyMeters.unknownRefunds())
+                .increment();
+    }
+
+    private CurrencyMeters metersFor(String currency) {
+        if (currency == null) {
+            return meters.get(OTHER_CURRENCY);
+        }
+
+        CurrencyMeters existing = meters.get(currency);
+        if (existing != null) {
+            return existing;
+        }
+        // +1 for the OTHER bucket; racing registrations may overshoot by a few, which is harmless
+        if (meters.size() >= properties.maxCurrencies() + 1) {
+            return meters.get(OTHER_CURRENCY);
+        }
+        return meters.computeIfAbsent(currency, this::register);
+    }
+
+    private CurrencyMeters register(String currency) {
+        SagaOutcome[] outcomes = SagaOutcome.values();
+        Timer[] durations = new Timer[outcomes.length];
+
+        for (SagaOutcome outcome : outcomes) {
+            durations[outcome.ordinal()] = Timer.builder(SAGA_DURATION)
+                    .description("Time taken for a transfer saga to complete or rollback")
+                    .tag("currency", currency)
+                    .tag("status", outcome.tag())
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(properties.sagaDurationSlos().toArray(Duration[]::new))
+                    .register(meterRegistry);
+        }
+
+        return new CurrencyMeters(durations, refundCounter(currency, "business_error"), refundCounter(currency, "unknown"));
+    }
+
+    private Counter refundCounter(String currency, String reason) {
+        return Counter.builder(REFUND_COUNT)
+                .description("Total number of refunded transfers")
+                .tag("currency", currency)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public enum SagaOutcome {
+        SUCCESS("success"),
+        FAILED_DEBIT("failed_debit"),
+        REFUNDED("refunded"),
+        FAILED("failed");
+
+        private final String tag;
+
+        SagaOutcome(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private record CurrencyMeters(Timer[] durations, Counter businessErrorRefunds, Counter unknownRefunds) {}
+}
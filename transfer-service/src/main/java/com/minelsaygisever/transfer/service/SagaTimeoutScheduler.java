@@ -0,0 +1,93 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In-memory saga timeouts on a hashed timer wheel. Arming and cancelling are O(1) and cost no query,
+ * so a stuck saga is rolled back right after its deadline instead of on the next reconciliation scan.
+ * Timers do not survive a restart; the reconciliation job stays in place as the recovery sweep.
+ * <p>
+ * The credit result of a saga may be consumed by another replica, where {@link #cancel} finds no timer. Every
+ * replica therefore also cancels on state changes seen through {@link TransferEventHub}, which relays the other
+ * replicas' changes when Redis relaying is on. A timer that still fires only costs a reload, since the timeout
+ * handler re-checks the state.
+ */
+@Component
+@Slf4j
+public class SagaTimeoutScheduler implements DisposableBean {
+
+    private final TransferProperties properties;
+    private final Map<UUID, Timeout> pending = new ConcurrentHashMap<>();
+    private final HashedWheelTimer timer;
+    private final Disposable settled;
+
+    public SagaTimeoutScheduler(TransferProperties properties, TransferEventHub eventHub) {
+        this.properties = properties;
+        this.timer = new HashedWheelTimer(
+                Thread.ofPlatform().name("saga-timeout-wheel").daemon().factory(),
+                properties.timeoutWheel().tickDuration().toMillis(), TimeUnit.MILLISECONDS,
+                properties.timeoutWheel().ticksPerWheel());
+        // Any state past DEBITED means the saga no longer waits for its credit result
+        this.settled = eventHub.changes()
+                .filter(status -> status.state() != TransferState.STARTED && status.state() != TransferState.DEBITED)
+                .subscribe(status -> cancel(status.transactionId()));
+    }
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.timeoutWheel().enabled());
+    }
+
+    /**
+     * Arms the timeout of a saga, replacing any timeout already armed for it. The action runs on the
+     * wheel thread, so it must not block; it is subscribed to and its errors are only logged.
+     */
+    public void schedule(UUID transactionId, Supplier<Mono<Void>> onTimeout) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long delayMillis = properties.reconciliation().timeoutThreshold().toMillis();
+        Timeout timeout = timer.newTimeout(t -> {
+            if (!pending.remove(transactionId, t)) {
+                return;
+            }
+            onTimeout.get().subscribe(
+                    null,
+                    error -> log.error("Saga timeout handling failed. Tx: {}", transactionId, error)
+            );
+        }, delayMillis, TimeUnit.MILLISECONDS);
+
+        Timeout previous = pending.put(transactionId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    public void cancel(UUID transactionId) {
+        Timeout timeout = pending.remove(transactionId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        settled.dispose();
+        timer.stop();
+        pending.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package com.minelsaygisever.transfer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Fan-out of committed saga state changes to the status streams. Changes are emitted locally right away and
+ * relayed through Redis pub/sub to the streams held by other replicas; each replica skips its own relays.
+ * <p>
+ * Delivery is best effort: a stream that misses a change still sees the next one, and the status endpoint
+ * stays the source of truth.
+ */
+@Component
+@Slf4j
+public class TransferEventHub {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransferProperties properties;
+    private final String origin = UUID.randomUUID().toString();
+
+    // Slow subscribers drop instead of holding up the saga listener that emits
+    private final Sinks.Many<TransferStatusResponse> sink = Sinks.many().multicast().directBestEffort();
+
+    private Disposable relay;
+
+    public TransferEventHub(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper, TransferProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isRelayEnabled()) {
+            return;
+        }
+
+        relay = redisTemplate.listenToChannel(properties.events().redisChannel())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Transfer event relay lost its Redis subscription. Resubscribing...", signal.failure())))
+                .subscribe(message -> receive(message.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null) {
+            relay.dispose();
+        }
+    }
+
+    /**
+     * Call only after the change has committed.
+     */
+    public void publish(Transfer transfer) {
+        TransferStatusResponse status = TransferStatusResponse.from(transfer);
+        emit(status);
+
+        if (!isRelayEnabled()) {
+            return;
+        }
+        try {
+            String message = objectMapper.writeValueAsString(new RelayedStatus(origin, status));
+            redisTemplate.convertAndSend(properties.events().redisChannel(), message)
+                    .subscribe(
+                            receivers -> {},
+                            error -> log.warn("Could not relay state change of Tx: {}", status.transactionId(), error)
+                    );
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize state change of Tx: {}", status.transactionId(), e);
+        }
+    }
+
+    /**
+     * Hot stream of the changes to the given transfers, from the moment of subscription.
+     */
+    public Flux<TransferStatusResponse> changes(Set<UUID> transactionIds) {
+        return changes().filter(status -> transactionIds.contains(status.transactionId()));
+    }
+
+    /**
+     * Hot stream of every change, local and relayed, from the moment of subscription.
+     */
+    public Flux<TransferStatusResponse> changes() {
+        return sink.asFlux()
+                .onBackpressureBuffer(64, dropped -> log.debug("Dropped state change of Tx: {}", dropped.transactionId()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private void receive(String message) {
+        try {
+            RelayedStatus relayed = objectMapper.readValue(message, RelayedStatus.class);
+            if (!origin.equals(relayed.origin())) {
+                emit(relayed.status());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed relayed state change: {}", message, e);
+        }
+    }
+
+    // Emissions come from many listener threads; the sink needs them serialized
+    private synchronized void emit(TransferStatusResponse status) {
+        sink.tryEmitNext(status);
+    }
+
+    private boolean isRelayEnabled() {
+        return Boolean.TRUE.equals(properties.events().redisEnabled());
+    }
+
+    record RelayedStatus(String origin, TransferStatusResponse status) {}
+}
@@ -1,5 +1,7 @@
 package com.minelsaygisever.transfer.service;
 
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.transfer.config.TransferProperties;
 import com.minelsaygisever.transfer.domain.Outbox;
@@ -11,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +33,10 @@ public class TransferOutboxPublisher {
     private final StreamBridge streamBridge;
     private final TransferProperties properties;
     private final TransactionalOperator transactionalOperator;
+    private final OutboxAckRegistry ackRegistry;
+    private final EventFlowMetrics eventFlowMetrics;
+    private final EventPayloadSerializer payloadSerializer;
+    private final OutboxShardCoordinator shardCoordinator;
 
     @Scheduled(
             fixedDelayString = "${transfer.outbox.polling-interval:500}",
@@ -43,13 +51,114 @@ public class TransferOutboxPublisher {
                 );
     }
 
+    /**
+     * Publishes batches back to back until a batch comes back short. Used by the LISTEN/NOTIFY
+     * wake-up, so a burst of inserts does not wait for the next polling cycle.
+     */
+    public Mono<Void> drainOutbox() {
+        int batchSize = properties.outbox().batchSize();
+
+        return Mono.defer(() -> processOutbox()
+                        .as(transactionalOperator::transactional)
+                        .count())
+                .repeat()
+                .takeUntil(processed -> processed < batchSize)
+                .onErrorResume(error -> {
+                    log.error("Error while draining outbox", error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
     public Flux<Outbox> processOutbox() {
-        return outboxRepository.findLockedBatch(
-                        OutboxStatus.PENDING,
-                        LocalDateTime.now(),
-                        properties.outbox().batchSize()
-                )
-                .flatMap(this::publishEvent);
+        Flux<Outbox> lockedBatch = lockBatch();
+
+        if (Boolean.TRUE.equals(properties.outbox().batchSend())) {
+            return lockedBatch.collectList().flatMapMany(this::publishBatch);
+        }
+        return lockedBatch.flatMap(this::publishEvent);
+    }
+
+    private Flux<Outbox> lockBatch() {
+        if (!shardCoordinator.isEnabled()) {
+            return outboxRepository.findLockedBatch(
+                    OutboxStatus.PENDING,
+                    LocalDateTime.now(),
+                    properties.outbox().batchSize()
+            );
+        }
+
+        // --- SHARDED MODE: only the shards leased by this replica ---
+        Integer[] shards = shardCoordinator.ownedShards();
+        if (shards.length == 0) {
+            return Flux.empty();
+        }
+        return outboxRepository.findLockedShardBatch(
+                OutboxStatus.PENDING,
+                LocalDateTime.now(),
+                shards,
+                properties.outbox().batchSize()
+        );
+    }
+
+    // --- BATCH MODE: async sends, broker acks, one set-based UPDATE ---
+    private Flux<Outbox> publishBatch(List<Outbox> batch) {
+        if (batch.isEmpty()) {
+            return Flux.empty();
+        }
+
+        // flatMap subscribes in order, so events are handed to the producer in outbox ID order.
+        return Flux.fromIterable(batch)
+                .flatMap(outbox -> sendAsync(outbox)
+                        .thenReturn(new SendResult(outbox, null))
+                        .onErrorResume(ex -> Mono.just(new SendResult(outbox, ex))))
+                .collectList()
+                .flatMapMany(results -> {
+                    List<Outbox> acked = results.stream()
+                            .filter(result -> result.error() == null)
+                            .map(SendResult::outbox)
+                            .toList();
+
+                    Flux<Outbox> failed = Flux.fromIterable(results)
+                            .filter(result -> result.error() != null)
+                            .concatMap(result -> handleFailure(result.outbox(), result.error()));
+
+                    return markCompleted(acked).concatWith(failed);
+                });
+    }
+
+    private Mono<Void> sendAsync(Outbox outbox) {
+        return ackRegistry.track(outbox.getId(), () -> {
+                    log.debug("Publishing event to Kafka (batch). ID: {} Type: {}", outbox.getId(), outbox.getType());
+
+                    Message<?> message = messageBuilder(outbox)
+                            .setHeader("partitionKey", outbox.getAggregateId())
+                            .setHeader(OutboxAckRegistry.OUTBOX_ID_HEADER, outbox.getId())
+                            .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER, EventFlowMetrics.producedAtNow())
+                            .build();
+
+                    if (!streamBridge.send(resolveBindingName(outbox.getType()), message)) {
+                        throw new EventPublishingException("StreamBridge failed to send event for Outbox ID: " + outbox.getId());
+                    }
+                })
+                .timeout(properties.outbox().ackTimeout());
+    }
+
+    private Flux<Outbox> markCompleted(List<Outbox> acked) {
+        if (acked.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Long[] ids = acked.stream().map(Outbox::getId).toArray(Long[]::new);
+
+        return outboxRepository.updateStatusByIds(OutboxStatus.COMPLETED, ids)
+                .doOnNext(updated -> log.info("Batch published. Marked {} outbox events COMPLETED.", updated))
+                .thenMany(Flux.fromIterable(acked))
+                .doOnNext(outbox -> {
+                    eventFlowMetrics.recordPublished(outbox);
+                    outbox.setStatus(OutboxStatus.COMPLETED);
+                    outbox.setNextAttemptTime(null);
+                });
     }
 
     private Mono<Outbox> publishEvent(Outbox outbox) {
@@ -58,9 +167,9 @@ public class TransferOutboxPublisher {
 
             String bindingName = resolveBindingName(outbox.getType());
 
-            Message<String> message = MessageBuilder
-                    .withPayload(outbox.getPayload())
+            Message<?> message = messageBuilder(outbox)
                     .setHeader("partitionKey", outbox.getAggregateId())
+                    .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER, EventFlowMetrics.producedAtNow())
                     .build();
 
             boolean sent = streamBridge.send(bindingName, message);
@@ -74,6 +183,15 @@ public class TransferOutboxPublisher {
         .onErrorResume(e -> handleFailure(outbox, e));
     }
 
+    // Binary rows go out as raw bytes with the codec content type; consumers pick the decoder from that header
+    private MessageBuilder<?> messageBuilder(Outbox outbox) {
+        if (EventPayloadSerializer.isBinary(outbox.getPayload())) {
+            return MessageBuilder.withPayload(EventPayloadSerializer.toBytes(outbox.getPayload()))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, EventCodec.CONTENT_TYPE);
+        }
+        return MessageBuilder.withPayload(outbox.getPayload());
+    }
+
     private String resolveBindingName(EventType eventType) {
         return switch (eventType) {
             case TRANSFER_INITIATED -> properties.bindings().debit();
@@ -86,6 +204,7 @@ public class TransferOutboxPublisher {
 
     private Mono<Outbox> handleSuccess(Outbox outbox) {
         log.info("Event published successfully. Marking COMPLETED. ID: {}", outbox.getId());
+        eventFlowMetrics.recordPublished(outbox);
         outbox.setStatus(OutboxStatus.COMPLETED);
         outbox.setNextAttemptTime(null);
         return outboxRepository.save(outbox);
@@ -133,11 +252,13 @@ public class TransferOutboxPublisher {
     private Mono<Boolean> sendToDeadLetterQueue(Outbox outbox) {
         return Mono.fromCallable(() -> {
             log.info("Sending to DLQ Topic: {}", properties.outbox().dlqBindingName());
-            boolean sent = streamBridge.send(properties.outbox().dlqBindingName(), outbox.getPayload());
+            boolean sent = streamBridge.send(properties.outbox().dlqBindingName(), payloadSerializer.toReadable(outbox.getPayload()));
             if (!sent) {
                 throw new EventPublishingException("Failed to send to DLQ");
             }
             return true;
         });
     }
+
+    private record SendResult(Outbox outbox, Throwable error) {}
 }
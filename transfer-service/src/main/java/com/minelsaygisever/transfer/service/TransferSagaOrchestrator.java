@@ -1,7 +1,8 @@
 package com.minelsaygisever.transfer.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.codec.PayloadFormat;
 import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
 import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
@@ -19,16 +20,14 @@ import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
 import com.minelsaygisever.transfer.domain.enums.TransferState;
 import com.minelsaygisever.transfer.repository.OutboxRepository;
 import com.minelsaygisever.transfer.repository.TransferRepository;
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import com.minelsaygisever.transfer.service.SagaMetrics.SagaOutcome;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -38,9 +37,11 @@ public class TransferSagaOrchestrator {
 
     private final TransferRepository transferRepository;
     private final OutboxRepository outboxRepository;
-    private final ObjectMapper objectMapper;
+    private final EventPayloadSerializer payloadSerializer;
     private final TransactionalOperator txOp;
-    private final MeterRegistry meterRegistry;
+    private final SagaMetrics sagaMetrics;
+    private final SagaTimeoutScheduler timeoutScheduler;
+    private final TransferEventHub eventHub;
 
     // --- STEP 0: START SAGA (Initial Save + Outbox) ---
     public Mono<Transfer> initiateSaga(Transfer transfer) {
@@ -60,166 +61,134 @@ public class TransferSagaOrchestrator {
                 .as(txOp::transactional);
     }
 
+    // --- STEP 0 (BATCH): START MANY SAGAS (One multi-row INSERT per table, one transaction) ---
+    public Mono<List<Transfer>> initiateSagas(List<Transfer> transfers) {
+        return transferRepository.insertStarted(
+                        transfers.stream().map(Transfer::getIdempotencyKey).toArray(String[]::new),
+                        transfers.stream().map(t -> t.getTransactionId().toString()).toArray(String[]::new),
+                        transfers.stream().map(Transfer::getSenderAccountId).toArray(String[]::new),
+                        transfers.stream().map(Transfer::getReceiverAccountId).toArray(String[]::new),
+                        transfers.stream().map(t -> t.getAmount().toPlainString()).toArray(String[]::new),
+                        transfers.stream().map(Transfer::getCurrency).toArray(String[]::new),
+                        transfers.stream().map(Transfer::getRequestHash).toArray(String[]::new))
+                .collectList()
+                .flatMap(saved -> outboxRepository.insertPending(
+                                AggregateType.TRANSFER.name(),
+                                EventType.TRANSFER_INITIATED.name(),
+                                saved.stream().map(t -> t.getTransactionId().toString()).toArray(String[]::new),
+                                saved.stream().map(this::initiatedPayload).toArray(String[]::new))
+                        .thenReturn(saved))
+                .as(txOp::transactional);
+    }
+
     // --- STEP 1: DEBIT SUCCESS -> TRIGGER CREDIT ---
     public Mono<Void> handleDebitSuccess(AccountDebitedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
-                    // Idempotency & State Check
-                    if (transfer.getState() != TransferState.STARTED) {
-                        log.warn("Debit success received but state is {}. Ignoring. Tx: {}", transfer.getState(), transfer.getId());
-                        return Mono.empty();
-                    }
-
-                    log.info("Debit successful. Moving to DEBITED state and initiating DEPOSIT. Tx: {}", transfer.getId());
-                    transfer.setState(TransferState.DEBITED);
-
-                    // Create Next Command: DEPOSIT
-                    var depositEvent = new TransferDepositRequestedEvent(
-                            transfer.getTransactionId(),
-                            transfer.getReceiverAccountId(),
-                            transfer.getAmount(),
-                            transfer.getCurrency()
-                    );
-
-                    return transferRepository.save(transfer)
-                            .then(saveOutbox(transfer.getTransactionId(), EventType.TRANSFER_DEPOSIT_REQUESTED, depositEvent));
-                })
-                .as(txOp::transactional) // Atomicity: State Update + Outbox Insert
+        // State check, state update and DEPOSIT command together (one statement for JSON payloads)
+        return transitionAndRequestDeposit(event.transactionId(), TransferState.STARTED, TransferState.DEBITED)
+                .doOnNext(transfer -> log.info("Debit successful. Moved to DEBITED state and initiated DEPOSIT. Tx: {}", transfer.getId()))
+                .doOnNext(eventHub::publish)
+                .doOnNext(transfer -> timeoutScheduler.schedule(transfer.getTransactionId(), () -> fireTimeout(transfer.getTransactionId())))
+                .switchIfEmpty(Mono.fromRunnable(() -> log.warn("Debit success received but transfer is not STARTED. Ignoring. Tx: {}", event.transactionId())))
                 .then();
     }
 
     // --- STEP 2: DEBIT FAIL -> ABORT ---
     public Mono<Void> handleDebitFail(AccountDebitFailedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
-                    if (transfer.getState() != TransferState.STARTED) {
-                        return Mono.empty();
-                    }
-
+        // No rollback needed because money was never taken.
+        return transferRepository.transitionState(
+                        event.transactionId(), TransferState.STARTED, TransferState.DEBIT_FAILED, null)
+                .doOnNext(transfer -> {
                     log.error("Debit failed. Marking transfer as DEBIT_FAILED. Tx: {}. Reason: {}", transfer.getId(), event.reason());
-                    transfer.setState(TransferState.DEBIT_FAILED);
-
-                    recordSagaDuration(transfer, "failed_debit");
-
-                    // No rollback needed because money was never taken.
-                    return transferRepository.save(transfer);
+                    sagaMetrics.recordSagaDuration(transfer, SagaOutcome.FAILED_DEBIT);
                 })
-                .as(txOp::transactional)
+                .doOnNext(eventHub::publish)
                 .then();
     }
 
     // --- STEP 3: CREDIT SUCCESS -> COMPLETE ---
     public Mono<Void> handleCreditSuccess(AccountCreditedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
-                    if (transfer.getState() == TransferState.COMPLETED) {
-                        return Mono.empty(); // Already processed
-                    }
-
-                    if (transfer.getState() != TransferState.DEBITED) {
-                        log.warn("Credit success received but state is {}. Possible race condition or timeout. Tx: {}", transfer.getState(), transfer.getId());
-                        return Mono.empty();
-                    }
-
+        return transferRepository.transitionState(
+                        event.transactionId(), TransferState.DEBITED, TransferState.COMPLETED, null)
+                .doOnNext(transfer -> {
                     log.info("Credit successful. SAGA COMPLETED successfully. Tx: {}", transfer.getId());
-                    transfer.setState(TransferState.COMPLETED);
-
-                    recordSagaDuration(transfer, "success");
-
-                    return transferRepository.save(transfer);
+                    sagaMetrics.recordSagaDuration(transfer, SagaOutcome.SUCCESS);
                 })
-                .as(txOp::transactional)
-                .then();
+                .doOnNext(eventHub::publish)
+                // Already COMPLETED (redelivery) or moved on by a timeout
+                .switchIfEmpty(Mono.fromRunnable(() -> log.warn("Credit success received but transfer is not DEBITED. Ignoring. Tx: {}", event.transactionId())))
+                .then()
+                .doOnSuccess(v -> timeoutScheduler.cancel(event.transactionId()));
     }
 
     // --- STEP 4: CREDIT FAIL -> TRIGGER REFUND (ROLLBACK) ---
     public Mono<Void> handleCreditFail(AccountCreditFailedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
-                    if (transfer.getState() != TransferState.DEBITED) {
-                        return Mono.empty();
-                    }
-
-                    log.error("Credit failed! Initiating COMPENSATING TRANSACTION (Refund). Tx: {}. Reason: {}", transfer.getId(), event.reason());
-                    transfer.setState(TransferState.REFUND_INITIATED);
-
-                    // Create Next Command: REFUND
-                    var refundEvent = new TransferRefundRequestedEvent(
-                            transfer.getTransactionId(),
-                            transfer.getSenderAccountId(),
-                            transfer.getAmount(),
-                            transfer.getCurrency(),
-                            "Rollback due to Credit Failure: " + event.reason()
-                    );
-
-                    return transferRepository.save(transfer)
-                            .then(saveOutbox(transfer.getTransactionId(), EventType.TRANSFER_REFUND_REQUESTED, refundEvent));
-                })
-                .as(txOp::transactional)
-                .then();
+        return transitionAndRequestRefund(
+                        event.transactionId(),
+                        TransferState.DEBITED,
+                        TransferState.REFUND_INITIATED,
+                        null,
+                        "Rollback due to Credit Failure: " + event.reason())
+                .doOnNext(transfer -> log.error("Credit failed! Initiated COMPENSATING TRANSACTION (Refund). Tx: {}. Reason: {}", transfer.getId(), event.reason()))
+                .doOnNext(eventHub::publish)
+                .then()
+                .doOnSuccess(v -> timeoutScheduler.cancel(event.transactionId()));
     }
 
     // --- STEP 4.5: TIMEOUT -> TRIGGER REFUND (AUTO-ROLLBACK) ---
     public Mono<Void> handleTimeout(Transfer transfer) {
-        // Optimistic Locking & Race Condition Check
+        // Race Condition Check: a late credit result wins over the timeout
         if (transfer.getState() != TransferState.DEBITED) {
             log.info("Timeout handler triggered but state is {}. Skipping rollback. Tx: {}",
                     transfer.getState(), transfer.getId());
             return Mono.empty();
         }
 
-        log.warn("Saga Timeout detected! Initiating COMPENSATING TRANSACTION (Refund). Tx: {}", transfer.getId());
-
-        transfer.setState(TransferState.REFUND_INITIATED);
-        transfer.setFailureReason("Saga Timeout: Receiver did not respond within threshold.");
-
-        var refundEvent = new TransferRefundRequestedEvent(
-                transfer.getTransactionId(),
-                transfer.getSenderAccountId(),
-                transfer.getAmount(),
-                transfer.getCurrency(),
-                "Rollback due to Saga Timeout"
-        );
-
-        return transferRepository.save(transfer)
-                .flatMap(savedTransfer -> saveOutbox(
-                        savedTransfer.getTransactionId(),
-                        EventType.TRANSFER_REFUND_REQUESTED,
-                        refundEvent)
-                )
-                .as(txOp::transactional)
+        return transitionAndRequestRefund(
+                        transfer.getTransactionId(),
+                        TransferState.DEBITED,
+                        TransferState.REFUND_INITIATED,
+                        "Saga Timeout: Receiver did not respond within threshold.",
+                        "Rollback due to Saga Timeout")
+                .doOnNext(updated -> log.warn("Saga Timeout detected! Initiated COMPENSATING TRANSACTION (Refund). Tx: {}", updated.getId()))
+                .doOnNext(eventHub::publish)
                 .then();
     }
 
+    // Timer wheel expiry: reload the transfer, handleTimeout decides with the current state
+    private Mono<Void> fireTimeout(UUID transactionId) {
+        return transferRepository.findByTransactionId(transactionId)
+                .flatMap(this::handleTimeout);
+    }
+
     // --- STEP 5: REFUND SUCCESS -> FINISH WITH REFUNDED ---
     public Mono<Void> handleRefundSuccess(AccountRefundedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
+        return transferRepository.transitionState(
+                        event.transactionId(), TransferState.REFUND_INITIATED, TransferState.REFUNDED, null)
+                // A late refund result after reconciliation gave up still tells the truth
+                .switchIfEmpty(Mono.defer(() -> transferRepository.transitionState(
+                        event.transactionId(), TransferState.REFUND_FAILED, TransferState.REFUNDED, null)))
+                .doOnNext(transfer -> {
                     log.info("Refund successful. Transfer marked as REFUNDED. Tx: {}", transfer.getId());
-                    transfer.setState(TransferState.REFUNDED);
-
-                    recordRefundCount(transfer);
-                    recordSagaDuration(transfer, "refunded");
-
-                    return transferRepository.save(transfer);
+                    sagaMetrics.recordRefundCount(transfer);
+                    sagaMetrics.recordSagaDuration(transfer, SagaOutcome.REFUNDED);
                 })
-                .as(txOp::transactional)
+                .doOnNext(eventHub::publish)
                 .then();
     }
 
     // --- STEP 6: REFUND FAIL -> PANIC MODE (MANUAL INTERVENTION) ---
     public Mono<Void> handleRefundFail(AccountRefundFailedEvent event) {
-        return transferRepository.findByTransactionId(event.transactionId())
-                .flatMap(transfer -> {
+        return transferRepository.transitionState(
+                        event.transactionId(), TransferState.REFUND_INITIATED, TransferState.REFUND_FAILED, null)
+                // Reconciliation also gives up on transfers that never got past DEBITED
+                .switchIfEmpty(Mono.defer(() -> transferRepository.transitionState(
+                        event.transactionId(), TransferState.DEBITED, TransferState.REFUND_FAILED, null)))
+                .doOnNext(transfer -> {
                     log.error("CRITICAL: Refund failed! Money is stuck. Tx: {}. Reason: {}", transfer.getId(), event.reason());
-                    transfer.setState(TransferState.REFUND_FAILED);
-
-                    recordRefundCount(transfer);
-                    recordSagaDuration(transfer, "failed");
-
-                    return transferRepository.save(transfer);
+                    sagaMetrics.recordRefundCount(transfer);
+                    sagaMetrics.recordSagaDuration(transfer, SagaOutcome.FAILED);
                 })
-                .as(txOp::transactional)
+                .doOnNext(eventHub::publish)
                 .then();
     }
 
@@ -227,24 +196,67 @@ public class TransferSagaOrchestrator {
     public Mono<Void> retryRefund(Transfer transfer) {
         log.info("Retrying stuck Refund logic for Tx: {}", transfer.getId());
 
-        var refundEvent = new TransferRefundRequestedEvent(
+        // Same-state transition: bumps updated_at and re-issues the REFUND command
+        return transitionAndRequestRefund(
+                        transfer.getTransactionId(),
+                        TransferState.REFUND_INITIATED,
+                        TransferState.REFUND_INITIATED,
+                        null,
+                        "Retry due to Stuck Refund State (Resilience)")
+                .then();
+    }
+
+    // --- HELPER: Transition + Command ---
+    // JSON commands are rendered by json_build_object in the transition statement itself. BINARY commands
+    // need EventPayloadSerializer, so the row is inserted right after the transition in the same transaction.
+
+    private Mono<Transfer> transitionAndRequestDeposit(UUID transactionId, TransferState from, TransferState to) {
+        if (payloadSerializer.format() != PayloadFormat.BINARY) {
+            return transferRepository.transitionAndRequestDeposit(transactionId, from, to);
+        }
+
+        return transferRepository.transitionState(transactionId, from, to, null)
+                .flatMap(transfer -> saveOutbox(transfer.getTransactionId(), EventType.TRANSFER_DEPOSIT_REQUESTED,
+                        new TransferDepositRequestedEvent(
+                                transfer.getTransactionId(),
+                                transfer.getReceiverAccountId(),
+                                transfer.getAmount(),
+                                transfer.getCurrency()))
+                        .thenReturn(transfer))
+                .as(txOp::transactional);
+    }
+
+    private Mono<Transfer> transitionAndRequestRefund(UUID transactionId, TransferState from, TransferState to,
+                                                      String failureReason, String refundReason) {
+        if (payloadSerializer.format() != PayloadFormat.BINARY) {
+            return transferRepository.transitionAndRequestRefund(transactionId, from, to, failureReason, refundReason);
+        }
+
+        return transferRepository.transitionState(transactionId, from, to, failureReason)
+                .flatMap(transfer -> saveOutbox(transfer.getTransactionId(), EventType.TRANSFER_REFUND_REQUESTED,
+                        new TransferRefundRequestedEvent(
+                                transfer.getTransactionId(),
+                                transfer.getSenderAccountId(),
+                                transfer.getAmount(),
+                                transfer.getCurrency(),
+                                refundReason))
+                        .thenReturn(transfer))
+                .as(txOp::transactional);
+    }
+
+    private String initiatedPayload(Transfer transfer) {
+        var event = new TransferInitiatedEvent(
                 transfer.getTransactionId(),
                 transfer.getSenderAccountId(),
+                transfer.getReceiverAccountId(),
                 transfer.getAmount(),
-                transfer.getCurrency(),
-                "Retry due to Stuck Refund State (Resilience)"
+                transfer.getCurrency()
         );
-
-        transfer.setUpdatedAt(LocalDateTime.now());
-
-        return transferRepository.save(transfer)
-                .flatMap(savedTransfer -> saveOutbox(
-                        savedTransfer.getTransactionId(),
-                        EventType.TRANSFER_REFUND_REQUESTED,
-                        refundEvent)
-                )
-                .as(txOp::transactional)
-                .then();
+        try {
+            return payloadSerializer.toOutboxPayload(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing outbox payload", e);
+        }
     }
 
     // --- HELPER: Save to Outbox ---
@@ -255,7 +267,7 @@ public class TransferSagaOrchestrator {
                         .aggregateType(AggregateType.TRANSFER)
                         .aggregateId(aggregateId.toString())
                         .type(type)
-                        .payload(objectMapper.writeValueAsString(payload))
+                        .payload(payloadSerializer.toOutboxPayload(payload))
                         .status(OutboxStatus.PENDING)
                         .retryCount(0)
                         .build();
@@ -264,27 +276,4 @@ public class TransferSagaOrchestrator {
             }
         }).flatMap(outboxRepository::save);
     }
-
-    // --- HELPER METHODS ---
-
-    private void recordSagaDuration(Transfer transfer, String status) {
-        LocalDateTime startTime = transfer.getCreatedAt();
-        if (startTime == null) return;
-
-        Timer.builder("money.transfer.saga.duration")
-                .description("Time taken for a transfer saga to complete or rollback")
-                .tag("currency", transfer.getCurrency())
-                .tag("status", status)
-                .register(meterRegistry)
-                .record(java.time.Duration.between(startTime, LocalDateTime.now()));
-    }
-
-    private void recordRefundCount(Transfer transfer) {
-        Counter.builder("money.transfer.refund.count")
-                .description("Total number of refunded transfers")
-                .tag("currency", transfer.getCurrency())
-                .tag("reason", transfer.getFailureReason() != null ? "business_error" : "unknown")
-                .register(meterRegistry)
-                .increment();
-    }
 }
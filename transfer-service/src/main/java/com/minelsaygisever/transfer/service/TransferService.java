@@ -1,22 +1,36 @@
 package com.minelsaygisever.transfer.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minelsaygisever.transfer.config.TransferProperties;
 import com.minelsaygisever.transfer.domain.Transfer;
 import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.dto.BatchTransferItemResult;
+import com.minelsaygisever.transfer.dto.BatchTransferResponse;
+import com.minelsaygisever.transfer.dto.CachedTransfer;
 import com.minelsaygisever.transfer.dto.TransferCommand;
 import com.minelsaygisever.transfer.dto.TransferResponse;
 import com.minelsaygisever.transfer.exception.IdempotencyKeyReuseException;
 import com.minelsaygisever.transfer.exception.TransferProcessInProgressException;
 import com.minelsaygisever.transfer.repository.TransferRepository;
-import com.minelsaygisever.transfer.util.IdempotencyHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -27,52 +41,165 @@ public class TransferService {
     private final ReactiveRedisTemplate<String, Object> redisTemplate;
     private final TransferProperties properties;
     private final TransferSagaOrchestrator sagaOrchestrator;
+    private final RedisScript<String> idempotencyAcquireScript;
+    private final ObjectMapper objectMapper;
 
-    @Transactional
+    private static final String LOCK_PREFIX = "transfer_lock:";
+    private static final String LOCK_MARKER = "LOCKED";
+
+    // No surrounding transaction: the saga commits on its own, so the response is cached only after commit.
     public Mono<TransferResponse> initiateTransfer(TransferCommand request) {
-        String lockKey = "transfer_lock:" + request.idempotencyKey();
+        String lockKey = lockKey(request);
 
-        // Redis Atomic Lock (SETNX)
-        return redisTemplate.opsForValue()
-                .setIfAbsent(lockKey, "LOCKED", properties.lockTimeout())
-                .flatMap(acquired -> {
-                    if (Boolean.TRUE.equals(acquired)) {
+        return acquire(lockKey)
+                .flatMap(current -> {
+                    if (current.isEmpty()) {
                         return processNewTransfer(request, lockKey);
                     } else {
                         log.info("Duplicate request intercepted by Redis: {}", request.idempotencyKey());
-                        return handleDuplicateRequest(request);
+                        return handleDuplicateRequest(request, current);
                     }
                 });
     }
 
-    private Mono<TransferResponse> processNewTransfer(TransferCommand request, String lockKey) {
-        // check if it exists in the database.
-        String incomingHash = IdempotencyHasher.hash(request);
+    /**
+     * Initiates many transfers at once. Locks are acquired concurrently so the Redis client pipelines them,
+     * and every item that won its lock is inserted with one multi-row INSERT per table in one transaction.
+     * Results are returned per item, in request order.
+     */
+    public Mono<BatchTransferResponse> initiateTransfers(List<TransferCommand> requests) {
+        int maxSize = properties.batch().maxSize();
+        if (requests.size() > maxSize) {
+            return Mono.error(new IllegalArgumentException("Batch must contain at most " + maxSize + " transfers"));
+        }
 
-        return transferRepository.findByIdempotencyKey(request.idempotencyKey())
-                .flatMap(existing -> validateAndMapExisting(existing, incomingHash))
-                .switchIfEmpty(Mono.defer(() -> createTransfer(request, lockKey)));
+        Set<String> keys = new HashSet<>();
+        for (TransferCommand request : requests) {
+            if (!keys.add(request.idempotencyKey())) {
+                return Mono.error(new IllegalArgumentException("Duplicate idempotency key in batch: " + request.idempotencyKey()));
+            }
+        }
+
+        return Flux.fromIterable(requests)
+                .flatMapSequential(request -> acquire(lockKey(request))
+                        .map(current -> new BatchItem(request, current)))
+                .collectList()
+                .flatMap(items -> createTransfers(items.stream().filter(BatchItem::acquired).toList())
+                        .flatMap(created -> Flux.fromIterable(items)
+                                .flatMapSequential(item -> item.acquired()
+                                        ? Mono.just(created.get(item.request().idempotencyKey()))
+                                        : handleDuplicateRequest(item.request(), item.current())
+                                                .map(response -> BatchTransferItemResult.success(item.request().idempotencyKey(), response))
+                                                .onErrorResume(e -> toFailure(item.request().idempotencyKey(), e)))
+                                .collectList()))
+                .map(BatchTransferResponse::new);
     }
 
-    private Mono<TransferResponse> createTransfer(TransferCommand request, String lockKey) {
-        String normalizedCurrency = request.currency().toUpperCase();
-        UUID transactionId = UUID.randomUUID();
-        String requestHash = IdempotencyHasher.hash(request);
+    private Mono<Map<String, BatchTransferItemResult>> createTransfers(List<BatchItem> acquired) {
+        if (acquired.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        List<String> keys = acquired.stream().map(item -> item.request().idempotencyKey()).toList();
+
+        // Keys whose lock expired may already have a transfer; one lookup covers the whole batch.
+        return transferRepository.findByIdempotencyKeyIn(keys)
+                .collectMap(Transfer::getIdempotencyKey)
+                .flatMap(existing -> {
+                    // Filled concurrently by the cache writes below
+                    Map<String, BatchTransferItemResult> results = new ConcurrentHashMap<>();
+                    List<Transfer> newTransfers = new ArrayList<>();
+
+                    for (BatchItem item : acquired) {
+                        TransferCommand request = item.request();
+                        String requestHash = request.requestHash();
+                        Transfer found = existing.get(request.idempotencyKey());
+
+                        if (found == null) {
+                            newTransfers.add(newTransfer(request, requestHash));
+                        } else if (requestHash.equals(found.getRequestHash())) {
+                            results.put(request.idempotencyKey(), BatchTransferItemResult.success(request.idempotencyKey(), mapToResponse(found)));
+                        } else {
+                            IdempotencyKeyReuseException ex = new IdempotencyKeyReuseException(request.idempotencyKey());
+                            results.put(request.idempotencyKey(), BatchTransferItemResult.failure(request.idempotencyKey(), "IDEMPOTENCY_KEY_REUSE", ex.getMessage()));
+                        }
+                    }
+
+                    if (newTransfers.isEmpty()) {
+                        return Mono.just(results);
+                    }
+
+                    return sagaOrchestrator.initiateSagas(newTransfers)
+                            .doOnSuccess(saved -> log.info("Batch of {} sagas initiated successfully", saved.size()))
+                            .onErrorResume(e -> {
+                                log.error("Batch saga initiation failed. Releasing {} locks.", newTransfers.size(), e);
+                                return redisTemplate.delete(Flux.fromIterable(newTransfers)
+                                                .map(transfer -> LOCK_PREFIX + transfer.getIdempotencyKey()))
+                                        .then(Mono.error(e));
+                            })
+                            .flatMapMany(Flux::fromIterable)
+                            .flatMap(saved -> cacheResponse(LOCK_PREFIX + saved.getIdempotencyKey(), saved.getRequestHash(), mapToResponse(saved))
+                                    .doOnNext(response -> results.put(saved.getIdempotencyKey(),
+                                            BatchTransferItemResult.success(saved.getIdempotencyKey(), response))))
+                            .then(Mono.just(results));
+                });
+    }
+
+    private Mono<BatchTransferItemResult> toFailure(String idempotencyKey, Throwable e) {
+        return switch (e) {
+            case IdempotencyKeyReuseException ex ->
+                    Mono.just(BatchTransferItemResult.failure(idempotencyKey, "IDEMPOTENCY_KEY_REUSE", ex.getMessage()));
+            case TransferProcessInProgressException ex ->
+                    Mono.just(BatchTransferItemResult.failure(idempotencyKey, "TRANSFER_IN_PROGRESS", ex.getMessage()));
+            default -> Mono.error(e);
+        };
+    }
+
+    // Acquires the lock or reads the cached response in one round trip; empty string means acquired
+    private Mono<String> acquire(String lockKey) {
+        return redisTemplate.execute(idempotencyAcquireScript,
+                        List.of(lockKey),
+                        List.of(LOCK_MARKER, String.valueOf(properties.lockTimeout().toMillis())),
+                        RedisElementWriter.from(RedisSerializer.string()),
+                        RedisElementReader.from(RedisSerializer.string()))
+                .next();
+    }
 
-        Transfer transfer = Transfer.builder()
+    private String lockKey(TransferCommand request) {
+        return LOCK_PREFIX + request.idempotencyKey();
+    }
+
+    private Transfer newTransfer(TransferCommand request, String requestHash) {
+        return Transfer.builder()
                 .idempotencyKey(request.idempotencyKey())
                 .requestHash(requestHash)
-                .transactionId(transactionId)
+                .transactionId(UUID.randomUUID())
                 .senderAccountId(request.senderAccountId())
                 .receiverAccountId(request.receiverAccountId())
                 .amount(request.amount())
-                .currency(normalizedCurrency)
+                .currency(request.currency().toUpperCase())
                 .state(TransferState.STARTED)
                 .build();
+    }
+
+    private Mono<TransferResponse> processNewTransfer(TransferCommand request, String lockKey) {
+        // check if it exists in the database.
+        String incomingHash = request.requestHash();
+
+        return transferRepository.findByIdempotencyKey(request.idempotencyKey())
+                .flatMap(existing -> validateAndMapExisting(existing, incomingHash)
+                        .flatMap(response -> cacheResponse(lockKey, incomingHash, response)))
+                .switchIfEmpty(Mono.defer(() -> createTransfer(request, lockKey)));
+    }
+
+    private Mono<TransferResponse> createTransfer(TransferCommand request, String lockKey) {
+        String requestHash = request.requestHash();
+        Transfer transfer = newTransfer(request, requestHash);
 
         return sagaOrchestrator.initiateSaga(transfer)
                 .map(this::mapToResponse)
                 .doOnSuccess(t -> log.info("Saga initiated successfully: {}", t.transactionId()))
+                .flatMap(response -> cacheResponse(lockKey, requestHash, response))
                 .onErrorResume(e -> {
                     log.error("Saga initiation failed. Releasing lock.", e);
                     return redisTemplate.opsForValue().delete(lockKey)
@@ -80,14 +207,44 @@ public class TransferService {
                 });
     }
 
-    private Mono<TransferResponse> handleDuplicateRequest(TransferCommand request) {
-        String incomingHash = IdempotencyHasher.hash(request);
+    private Mono<TransferResponse> cacheResponse(String lockKey, String requestHash, TransferResponse response) {
+        // The saga is already committed; a failed cache write only means duplicates fall back to the database.
+        return redisTemplate.opsForValue()
+                .set(lockKey, new CachedTransfer(requestHash, response), properties.idempotencyCacheTtl())
+                .onErrorResume(e -> {
+                    log.warn("Failed to cache transfer response for key: {}", lockKey, e);
+                    return Mono.just(false);
+                })
+                .thenReturn(response);
+    }
+
+    private Mono<TransferResponse> handleDuplicateRequest(TransferCommand request, String current) {
+        String incomingHash = request.requestHash();
+
+        if (!LOCK_MARKER.equals(current)) {
+            CachedTransfer cached = readCached(current);
+            if (cached != null) {
+                if (!incomingHash.equals(cached.requestHash())) {
+                    return Mono.error(new IdempotencyKeyReuseException(request.idempotencyKey()));
+                }
+                return Mono.just(cached.response());
+            }
+        }
 
         return transferRepository.findByIdempotencyKey(request.idempotencyKey())
                 .flatMap(existing ->  validateAndMapExisting(existing, incomingHash))
                 .switchIfEmpty(Mono.error(new TransferProcessInProgressException(request.idempotencyKey())));
     }
 
+    private CachedTransfer readCached(String value) {
+        try {
+            return objectMapper.readValue(value, CachedTransfer.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable cached transfer response. Falling back to database.", e);
+            return null;
+        }
+    }
+
     private TransferResponse mapToResponse(Transfer transfer) {
         return new TransferResponse(
                 transfer.getTransactionId(),
@@ -106,4 +263,10 @@ public class TransferService {
         return Mono.just(mapToResponse(existing));
     }
 
+    private record BatchItem(TransferCommand request, String current) {
+
+        boolean acquired() {
+            return current.isEmpty();
+        }
+    }
 }
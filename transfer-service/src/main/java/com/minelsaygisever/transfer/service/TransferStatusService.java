@@ -0,0 +1,204 @@
+package com.minelsaygisever.transfer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.dto.TransferStatusListResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
+import com.minelsaygisever.transfer.exception.TransferNotFoundException;
+import com.minelsaygisever.transfer.repository.TransferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the saga for status polling and streaming. Terminal states never change, so they are kept in
+ * memory and their ETags are recognised without any lookup as long as they name the requested transfer.
+ */
+@Service
+@Slf4j
+public class TransferStatusService {
+
+    private final TransferRepository transferRepository;
+    private final TransferProperties properties;
+    private final TransferEventHub eventHub;
+    private final Cache<UUID, TransferStatusResponse> terminal;
+
+    public TransferStatusService(TransferRepository transferRepository, TransferProperties properties,
+                                 TransferEventHub eventHub) {
+        this.transferRepository = transferRepository;
+        this.properties = properties;
+        this.eventHub = eventHub;
+        this.terminal = Caffeine.newBuilder()
+                .maximumSize(properties.status().cacheSize())
+                .build();
+    }
+
+    public Mono<TransferStatusResponse> findStatus(UUID transactionId) {
+        TransferStatusResponse cached = terminal.getIfPresent(transactionId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return transferRepository.findByTransactionId(transactionId)
+                .map(this::toStatus)
+                .switchIfEmpty(Mono.error(new TransferNotFoundException(transactionId)));
+    }
+
+    public Mono<TransferStatusListResponse> findStatuses(List<UUID> transactionIds) {
+        int maxIds = properties.status().maxBulkIds();
+        if (transactionIds.size() > maxIds) {
+            return Mono.error(new IllegalArgumentException("At most " + maxIds + " transaction ids can be queried at once"));
+        }
+
+        Set<UUID> requested = new LinkedHashSet<>(transactionIds);
+        Map<UUID, TransferStatusResponse> cached = terminal.getAllPresent(requested);
+        List<UUID> missing = requested.stream().filter(id -> !cached.containsKey(id)).toList();
+
+        Mono<Map<UUID, TransferStatusResponse>> loaded = missing.isEmpty()
+                ? Mono.just(Map.of())
+                : transferRepository.findByTransactionIdIn(missing)
+                        .map(this::toStatus)
+                        .collectMap(TransferStatusResponse::transactionId, Function.identity());
+
+        return loaded.map(found -> {
+            List<TransferStatusResponse> statuses = new ArrayList<>(requested.size());
+            for (UUID id : requested) {
+                TransferStatusResponse status = cached.containsKey(id) ? cached.get(id) : found.get(id);
+                if (status != null) {
+                    statuses.add(status);
+                }
+            }
+            return new TransferStatusListResponse(statuses);
+        });
+    }
+
+    /**
+     * The current status followed by every committed change, completing once the transfer is terminal.
+     */
+    public Flux<TransferStatusResponse> watch(UUID transactionId) {
+        return watch(Set.of(transactionId), findStatus(transactionId).map(List::of));
+    }
+
+    /**
+     * Same as {@link #watch(UUID)} for many transfers; completes once every known transfer is terminal.
+     */
+    public Flux<TransferStatusResponse> watch(List<UUID> transactionIds) {
+        return watch(new LinkedHashSet<>(transactionIds), findStatuses(transactionIds).map(TransferStatusListResponse::transfers));
+    }
+
+    private Flux<TransferStatusResponse> watch(Set<UUID> transactionIds, Mono<List<TransferStatusResponse>> current) {
+        return Flux.defer(() -> {
+            // Listen before reading the current state, so a change committed in between is not missed
+            Disposable.Swap connection = Disposables.swap();
+            Flux<TransferStatusResponse> changes = eventHub.changes(transactionIds)
+                    .replay()
+                    .autoConnect(0, connection::update);
+
+            return current
+                    .flatMapMany(statuses -> {
+                        Map<UUID, Long> versions = new ConcurrentHashMap<>();
+                        Set<UUID> pending = ConcurrentHashMap.newKeySet();
+                        for (TransferStatusResponse status : statuses) {
+                            versions.put(status.transactionId(), versionOf(status));
+                            if (!status.state().isTerminal()) {
+                                pending.add(status.transactionId());
+                            }
+                        }
+                        if (pending.isEmpty()) {
+                            return Flux.fromIterable(statuses);
+                        }
+
+                        // Relays and replays can repeat or reorder changes; the version keeps only newer ones
+                        Flux<TransferStatusResponse> updates = changes
+                                .filter(status -> pending.contains(status.transactionId()))
+                                .filter(status -> versionOf(status) > versions.getOrDefault(status.transactionId(), -1L))
+                                .doOnNext(status -> {
+                                    versions.put(status.transactionId(), versionOf(status));
+                                    if (status.state().isTerminal()) {
+                                        pending.remove(status.transactionId());
+                                    }
+                                })
+                                .takeUntil(status -> pending.isEmpty());
+
+                        return Flux.fromIterable(statuses).concatWith(updates);
+                    })
+                    .doFinally(signal -> connection.dispose());
+        });
+    }
+
+    /**
+     * The transaction id and state are part of the tag, so a poll that already holds a terminal tag for the same
+     * transfer can be answered from the tag alone.
+     */
+    public static String eTag(TransferStatusResponse status) {
+        return "\"" + status.transactionId() + "-" + status.version() + "-" + status.state().name() + "\"";
+    }
+
+    public static String eTag(TransferStatusListResponse statuses) {
+        String tags = statuses.transfers().stream()
+                .map(TransferStatusService::eTag)
+                .collect(Collectors.joining(","));
+        return "W/\"" + HexFormat.of().formatHex(sha256(tags), 0, 16) + "\"";
+    }
+
+    /**
+     * True only for a terminal tag issued for this transaction id; a tag of another transfer never matches.
+     */
+    public static boolean isTerminalETag(String eTag, UUID transactionId) {
+        String prefix = "\"" + transactionId + "-";
+        int separator = eTag.lastIndexOf('-');
+        if (!eTag.startsWith(prefix) || !eTag.endsWith("\"") || separator < prefix.length()) {
+            return false;
+        }
+        try {
+            return TransferState.valueOf(eTag.substring(separator + 1, eTag.length() - 1)).isTerminal();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static boolean isTerminal(TransferStatusListResponse statuses, int requestedCount) {
+        return statuses.transfers().size() == requestedCount
+                && statuses.transfers().stream().allMatch(status -> status.state().isTerminal());
+    }
+
+    private TransferStatusResponse toStatus(Transfer transfer) {
+        TransferStatusResponse status = TransferStatusResponse.from(transfer);
+        if (transfer.getState().isTerminal()) {
+            terminal.put(status.transactionId(), status);
+        }
+        return status;
+    }
+
+    private static long versionOf(TransferStatusResponse status) {
+        return status.version() != null ? status.version() : 0L;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
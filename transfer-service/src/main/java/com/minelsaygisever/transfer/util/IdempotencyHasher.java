@@ -3,41 +3,108 @@ package com.minelsaygisever.transfer.util;
 import com.minelsaygisever.transfer.dto.TransferCommand;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 import java.util.Locale;
 
 public final class IdempotencyHasher {
 
+    private static final byte SEPARATOR = '|';
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Runs on event-loop threads, which are few and long-lived; one digest and scratch buffer each is cheap to keep
+    private static final ThreadLocal<HashState> STATE = ThreadLocal.withInitial(HashState::new);
+
     private IdempotencyHasher() {}
 
     public static String hash(TransferCommand cmd) {
-        String currency = cmd.currency().trim().toUpperCase(Locale.ROOT);
+        return hash(cmd.senderAccountId(), cmd.receiverAccountId(), cmd.amount(), cmd.currency());
+    }
 
-        BigDecimal amount = cmd.amount();
+    /**
+     * SHA-256 hex of {@code sender|receiver|amount|CURRENCY}, with ids and currency trimmed, the amount at two
+     * decimals and the currency upper-cased. Fields are fed to the digest directly instead of through a joined
+     * string; the result is identical, so hashes already stored on transfers stay valid.
+     */
+    public static String hash(String senderAccountId, String receiverAccountId, BigDecimal amount, String currency) {
         if (amount.scale() > 2) {
             throw new IllegalArgumentException("Amount must have at most 2 decimal places");
         }
-        BigDecimal normalizedAmount = amount.setScale(2, java.math.RoundingMode.UNNECESSARY);
+        String normalizedAmount = amount.setScale(2, RoundingMode.UNNECESSARY).toPlainString();
 
-        String canonical = String.join("|",
-                cmd.senderAccountId().trim(),
-                cmd.receiverAccountId().trim(),
-                normalizedAmount.toPlainString(),
-                currency
-        );
+        HashState state = STATE.get();
+        state.digest.reset();
 
-        return sha256Hex(canonical);
+        state.update(senderAccountId, false);
+        state.digest.update(SEPARATOR);
+        state.update(receiverAccountId, false);
+        state.digest.update(SEPARATOR);
+        state.update(normalizedAmount, false);
+        state.digest.update(SEPARATOR);
+        state.update(currency, true);
+
+        return HEX.formatHex(state.finish());
     }
 
-    private static String sha256Hex(String input) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            return HexFormat.of().formatHex(digest);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to hash idempotency payload", e);
+    private static final class HashState {
+
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[64];
+        private final byte[] result;
+
+        private HashState() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            result = new byte[digest.getDigestLength()];
+        }
+
+        /**
+         * Feeds {@code value.trim()} (upper-cased when asked) as UTF-8. ASCII, which covers account ids and
+         * currency codes, is encoded in place; anything else takes the String path to keep the exact bytes.
+         */
+        private void update(String value, boolean upperCase) {
+            int start = 0;
+            int end = value.length();
+            while (start < end && value.charAt(start) <= ' ') start++;
+            while (end > start && value.charAt(end - 1) <= ' ') end--;
+
+            for (int i = start; i < end; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    String trimmed = value.substring(start, end);
+                    digest.update((upperCase ? trimmed.toUpperCase(Locale.ROOT) : trimmed).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+            }
+
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (upperCase && c >= 'a' && c <= 'z') {
+                    c -= 'a' - 'A';
+                }
+                buffer[length++] = (byte) c;
+                if (length == buffer.length) {
+                    digest.update(buffer, 0, length);
+                    length = 0;
+                }
+            }
+            digest.update(buffer, 0, length);
+        }
+
+        private byte[] finish() {
+            try {
+                digest.digest(result, 0, result.length);
+                return result;
+            } catch (DigestException e) {
+                throw new IllegalStateException("Failed to hash idempotency payload", e);
+            }
         }
     }
 }
@@ -0,0 +1,20 @@
+-- Partitioned outbox: daily range partitions on created_at, dropped whole by OutboxCleanupJob
+-- instead of batched DELETEs. Enable with transfer.cleanup.partitioned=true and list this script
+-- before schema.sql in spring.sql.init.schema-locations, so schema.sql's CREATE TABLE IF NOT EXISTS
+-- finds the partitioned table and only adds indexes and the notify trigger to it.
+CREATE TABLE IF NOT EXISTS outbox (
+    id SERIAL,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    payload VARCHAR(5000) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    retry_count INT DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    next_attempt_time TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows whose daily partition does not exist yet; the cleanup job pre-creates partitions ahead
+CREATE TABLE IF NOT EXISTS outbox_default PARTITION OF outbox DEFAULT;
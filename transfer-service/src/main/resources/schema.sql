@@ -16,6 +16,13 @@ CREATE TABLE IF NOT EXISTS transfers (
 
 CREATE INDEX IF NOT EXISTS idx_transfers_idempotency_key ON transfers (idempotency_key);
 
+-- Reconciliation walks the stuck transfers (SagaReconciliationJob.STUCK_STATES) in (updated_at, id) order;
+-- every other state stays out of the index. Replaces the earlier state-led index.
+DROP INDEX IF EXISTS idx_transfers_active_state_updated_at;
+CREATE INDEX IF NOT EXISTS idx_transfers_stuck_updated_at_id
+    ON transfers (updated_at, id)
+    WHERE state IN ('DEBITED', 'REFUND_INITIATED');
+
 CREATE TABLE IF NOT EXISTS outbox (
     id SERIAL PRIMARY KEY,
     aggregate_type VARCHAR(255) NOT NULL, -- Ex: "TRANSFER"
@@ -31,4 +38,42 @@ CREATE TABLE IF NOT EXISTS outbox (
 
 CREATE INDEX IF NOT EXISTS idx_outbox_aggregate_id ON outbox (aggregate_id);
 CREATE INDEX IF NOT EXISTS idx_outbox_status_next_attempt_id
-    ON outbox (status, next_attempt_time, id);
\ No newline at end of file
+    ON outbox (status, next_attempt_time, id);
+
+-- Sharded polling (transfer.outbox.sharded): every event of a transfer hashes to the same shard, and each
+-- replica polls only the shards it leases. The modulus must match OutboxShardCoordinator.SHARD_COUNT.
+ALTER TABLE outbox ADD COLUMN IF NOT EXISTS shard SMALLINT
+    GENERATED ALWAYS AS (CAST((hashtext(aggregate_id) & 2147483647) % 64 AS SMALLINT)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_shard_status_next_attempt_id
+    ON outbox (shard, status, next_attempt_time, id);
+
+-- Lets the sharded poll hold back an event while an earlier one of the same transfer is still pending
+CREATE INDEX IF NOT EXISTS idx_outbox_pending_aggregate_id
+    ON outbox (aggregate_id, id)
+    WHERE status = 'PENDING';
+
+CREATE TABLE IF NOT EXISTS outbox_pollers (
+    owner VARCHAR(64) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_shard_leases (
+    shard SMALLINT PRIMARY KEY,
+    owner VARCHAR(64),
+    expires_at TIMESTAMP
+);
+
+-- Wakes the outbox publisher as soon as new events are committed. Statement-level, so a saga step
+-- produces one notification. The body is single-quoted because the SQL init splitter does not know $$.
+-- The channel is fixed here and in OutboxNotificationListener.CHANNEL.
+CREATE OR REPLACE FUNCTION notify_outbox_insert() RETURNS trigger AS '
+BEGIN
+    PERFORM pg_notify(''transfer_outbox'', '''');
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_outbox_notify
+    AFTER INSERT ON outbox
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_insert();
@@ -0,0 +1,11 @@
+-- Acquires the idempotency lock or returns what is already stored under the key.
+-- KEYS[1] = idempotency key
+-- ARGV[1] = lock marker, ARGV[2] = lock ttl in milliseconds
+-- Returns '' when the lock was acquired, otherwise the stored value (lock marker or cached response).
+local current = redis.call('GET', KEYS[1])
+if current then
+    return current
+end
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return ''
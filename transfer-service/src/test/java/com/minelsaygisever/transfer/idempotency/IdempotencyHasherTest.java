@@ -6,17 +6,40 @@ import com.minelsaygisever.transfer.util.IdempotencyHasher;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class IdempotencyHasherTest {
 
     @Test
     void shouldThrow_WhenAmountHasMoreThan2Decimals() {
-        TransferCommand cmd = new TransferCommand("k", "1", "2", new BigDecimal("10.123"), "try");
-
-        assertThatThrownBy(() -> IdempotencyHasher.hash(cmd))
+        assertThatThrownBy(() -> new TransferCommand("k", "1", "2", new BigDecimal("10.123"), "try"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("at most 2 decimal places");
     }
+
+    @Test
+    void shouldMatchJoinedCanonicalString_SoStoredHashesStayValid() throws Exception {
+        TransferCommand cmd = new TransferCommand("k", " 1001 ", "2002\t", new BigDecimal("10.5"), " try");
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("1001|2002|10.50|TRY".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(cmd.requestHash()).isEqualTo(expected);
+        assertThat(IdempotencyHasher.hash(cmd)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldHashNonAsciiFieldsLikeTheStringPath() throws Exception {
+        String sender = "hesap-ş-" + "x".repeat(100);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest((sender + "|2|1.00|TRY").getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(IdempotencyHasher.hash(sender, "2", BigDecimal.ONE, "try")).isEqualTo(expected);
+    }
 }
@@ -0,0 +1,80 @@
+package com.minelsaygisever.transfer.integration;
+
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.transfer.domain.Outbox;
+import com.minelsaygisever.transfer.domain.enums.AggregateType;
+import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        // The poll never fires during the test, so only the trigger's notification can publish the row
+        "transfer.outbox.polling-interval=3600000",
+        "transfer.outbox.notify-enabled=true",
+        "transfer.outbox.batch-send=false",
+        "transfer.outbox.sharded=false"
+})
+class OutboxNotificationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @MockitoBean
+    private StreamBridge streamBridge;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll().block();
+    }
+
+    @Test
+    @DisplayName("Notify: An outbox insert should be published without waiting for the poll")
+    void shouldDrainOutbox_WhenRowIsInserted() {
+        // Arrange: the listener subscribes on ApplicationReadyEvent; an insert before LISTEN would go unheard
+        when(streamBridge.send(anyString(), any(Message.class))).thenReturn(true);
+        await().atMost(Duration.ofSeconds(10)).until(this::isListening);
+
+        // Act
+        outboxRepository.save(Outbox.builder()
+                .aggregateType(AggregateType.TRANSFER)
+                .aggregateId("tx-notified")
+                .type(EventType.TRANSFER_INITIATED)
+                .payload("{}")
+                .status(OutboxStatus.PENDING)
+                .retryCount(0)
+                .createdAt(LocalDateTime.now())
+                .build()).block();
+
+        // Assert
+        verify(streamBridge, timeout(10_000)).send(anyString(), any(Message.class));
+    }
+
+    private boolean isListening() {
+        return Boolean.TRUE.equals(databaseClient.sql(
+                        "SELECT EXISTS (SELECT 1 FROM pg_stat_activity WHERE query = 'LISTEN transfer_outbox') AS listening")
+                .map(row -> row.get("listening", Boolean.class))
+                .one()
+                .block());
+    }
+}
@@ -0,0 +1,139 @@
+package com.minelsaygisever.transfer.integration;
+
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Outbox;
+import com.minelsaygisever.transfer.domain.enums.AggregateType;
+import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import com.minelsaygisever.transfer.service.OutboxShardCoordinator;
+import com.minelsaygisever.transfer.service.TransferOutboxPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "transfer.outbox.polling-interval=3600000",
+        "transfer.outbox.notify-enabled=false",
+        "transfer.outbox.batch-send=false",
+        "transfer.outbox.sharded=true",
+        "transfer.outbox.shard-lease-renew-interval=3600000"
+})
+class OutboxShardingTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OutboxShardCoordinator coordinator;
+
+    @Autowired
+    private TransferOutboxPublisher publisher;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransferProperties properties;
+
+    @MockitoBean
+    private StreamBridge streamBridge;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll().block();
+        databaseClient.sql("DELETE FROM outbox_shard_leases").then().block();
+        databaseClient.sql("DELETE FROM outbox_pollers").then().block();
+    }
+
+    @Test
+    @DisplayName("Sharding: Two replicas should end up with disjoint shard ranges covering every shard")
+    void shouldSplitShardsBetweenReplicas() {
+        // Arrange
+        OutboxShardCoordinator other = new OutboxShardCoordinator(databaseClient, properties);
+
+        // Act: the first replica alone takes everything, then hands half over to the newcomer
+        assertThat(coordinator.rebalance().block()).hasSize(OutboxShardCoordinator.SHARD_COUNT);
+        assertThat(other.rebalance().block()).isEmpty();
+        coordinator.rebalance().block();
+        other.rebalance().block();
+
+        // Assert
+        Set<Integer> mine = Set.of(coordinator.ownedShards());
+        Set<Integer> theirs = Set.of(other.ownedShards());
+        Set<Integer> all = new HashSet<>(mine);
+        all.addAll(theirs);
+
+        assertThat(mine).hasSize(OutboxShardCoordinator.SHARD_COUNT / 2);
+        assertThat(theirs).hasSize(OutboxShardCoordinator.SHARD_COUNT / 2);
+        assertThat(mine).doesNotContainAnyElementsOf(theirs);
+        assertThat(all).hasSize(OutboxShardCoordinator.SHARD_COUNT);
+
+        // Act: a replica leaving gives its range back
+        other.stop();
+        coordinator.rebalance().block();
+
+        assertThat(coordinator.ownedShards()).hasSize(OutboxShardCoordinator.SHARD_COUNT);
+    }
+
+    @Test
+    @DisplayName("Sharding: An event should wait while an earlier event of the same transfer is pending")
+    void shouldHoldBackLaterEvents_WhileEarlierOneIsPending() {
+        // Arrange
+        when(streamBridge.send(anyString(), any(Message.class))).thenReturn(true);
+        coordinator.rebalance().block();
+
+        outboxRepository.saveAll(List.of(
+                outbox("tx-held", EventType.TRANSFER_INITIATED, LocalDateTime.now().plusMinutes(5)),
+                outbox("tx-held", EventType.TRANSFER_DEPOSIT_REQUESTED, null),
+                outbox("tx-free", EventType.TRANSFER_INITIATED, null)
+        )).blockLast();
+
+        // Act
+        StepVerifier.create(publisher.processOutbox().as(transactionalOperator::transactional))
+                .expectNextMatches(published -> published.getAggregateId().equals("tx-free"))
+                .verifyComplete();
+
+        // Assert
+        verify(streamBridge, times(1)).send(anyString(), any(Message.class));
+        verify(streamBridge).send(eq(properties.bindings().debit()),
+                argThat((Message<?> message) -> "tx-free".equals(message.getHeaders().get("partitionKey"))));
+    }
+
+    private Outbox outbox(String aggregateId, EventType type, LocalDateTime nextAttemptTime) {
+        return Outbox.builder()
+                .aggregateType(AggregateType.TRANSFER)
+                .aggregateId(aggregateId)
+                .type(type)
+                .payload("{}")
+                .status(OutboxStatus.PENDING)
+                .retryCount(0)
+                .nextAttemptTime(nextAttemptTime)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
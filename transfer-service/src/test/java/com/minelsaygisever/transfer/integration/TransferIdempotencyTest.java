@@ -0,0 +1,193 @@
+package com.minelsaygisever.transfer.integration;
+
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.dto.CachedTransfer;
+import com.minelsaygisever.transfer.dto.TransferApiRequest;
+import com.minelsaygisever.transfer.dto.TransferCommand;
+import com.minelsaygisever.transfer.dto.TransferResponse;
+import com.minelsaygisever.transfer.exception.TransferProcessInProgressException;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import com.minelsaygisever.transfer.repository.TransferRepository;
+import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
+import com.minelsaygisever.transfer.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+
+/**
+ * The Redis side of idempotency: the acquire script, the cached response and the fallbacks to the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@Import(TestChannelBinderConfiguration.class)
+@TestPropertySource(properties = "transfer.outbox.polling-interval=1000000")
+class TransferIdempotencyTest extends AbstractIntegrationTest {
+
+    private static final String LOCK_PREFIX = "transfer_lock:";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @MockitoSpyBean
+    private TransferSagaOrchestrator sagaOrchestrator;
+
+    @BeforeEach
+    void setup() {
+        transferRepository.deleteAll().block();
+        outboxRepository.deleteAll().block();
+        redisTemplate.execute(conn -> conn.serverCommands().flushAll()).blockLast();
+    }
+
+    @Test
+    @DisplayName("Idempotency: A duplicate is answered from the cached response without a database lookup")
+    void shouldAnswerDuplicateFromCache() {
+        // Arrange: the cached transfer has no row, so any database lookup would end in TRANSFER_IN_PROGRESS
+        TransferCommand command = command(UUID.randomUUID().toString(), "100.00");
+        TransferResponse cached = new TransferResponse(UUID.randomUUID(), TransferState.STARTED, LocalDateTime.now().withNano(0));
+        cache(command, new CachedTransfer(command.requestHash(), cached));
+
+        // Act & Assert
+        StepVerifier.create(transferService.initiateTransfer(command))
+                .expectNext(cached)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Idempotency: A different payload under a cached key is rejected with 409")
+    void shouldRejectDifferentPayload_WhenKeyIsCached() {
+        // Arrange
+        String idempotencyKey = UUID.randomUUID().toString();
+        TransferCommand original = command(idempotencyKey, "100.00");
+        cache(original, new CachedTransfer(original.requestHash(),
+                new TransferResponse(UUID.randomUUID(), TransferState.STARTED, LocalDateTime.now())));
+
+        // Act & Assert: same key, other amount
+        webTestClient
+                .mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/transfers")
+                .header("x-idempotency-key", idempotencyKey)
+                .bodyValue(new TransferApiRequest("1", "2", new BigDecimal("999.00"), "TRY"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("IDEMPOTENCY_KEY_REUSE");
+    }
+
+    @Test
+    @DisplayName("Idempotency: A held lock falls back to the database, or reports the transfer as in progress")
+    void shouldFallBackToDatabase_WhenLockIsHeld() {
+        // Arrange: one key whose transfer has committed, one still being created
+        TransferCommand committed = command(UUID.randomUUID().toString(), "100.00");
+        TransferCommand inProgress = command(UUID.randomUUID().toString(), "100.00");
+        Transfer saved = transferRepository.save(transfer(committed)).block();
+        lock(committed, "LOCKED");
+        lock(inProgress, "LOCKED");
+
+        // Act & Assert
+        StepVerifier.create(transferService.initiateTransfer(committed))
+                .expectNextMatches(response -> response.transactionId().equals(saved.getTransactionId()))
+                .verifyComplete();
+
+        StepVerifier.create(transferService.initiateTransfer(inProgress))
+                .expectError(TransferProcessInProgressException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Idempotency: An unreadable cached value falls back to the database")
+    void shouldFallBackToDatabase_WhenCachedValueIsUnreadable() {
+        // Arrange
+        TransferCommand command = command(UUID.randomUUID().toString(), "100.00");
+        Transfer saved = transferRepository.save(transfer(command)).block();
+        lock(command, "{not a cached transfer");
+
+        // Act & Assert
+        StepVerifier.create(transferService.initiateTransfer(command))
+                .expectNextMatches(response -> response.transactionId().equals(saved.getTransactionId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Idempotency: The lock is released when saga initiation fails, so a retry can go through")
+    void shouldReleaseLock_WhenSagaInitiationFails() {
+        // Arrange
+        TransferCommand command = command(UUID.randomUUID().toString(), "100.00");
+        doReturn(Mono.error(new IllegalStateException("DB down"))).when(sagaOrchestrator).initiateSaga(any());
+
+        // Act
+        StepVerifier.create(transferService.initiateTransfer(command))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        // Assert
+        StepVerifier.create(stringRedisTemplate.hasKey(LOCK_PREFIX + command.idempotencyKey()))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    private TransferCommand command(String idempotencyKey, String amount) {
+        return new TransferCommand(idempotencyKey, "1", "2", new BigDecimal(amount), "TRY");
+    }
+
+    private Transfer transfer(TransferCommand command) {
+        return Transfer.builder()
+                .idempotencyKey(command.idempotencyKey())
+                .requestHash(command.requestHash())
+                .transactionId(UUID.randomUUID())
+                .senderAccountId(command.senderAccountId())
+                .receiverAccountId(command.receiverAccountId())
+                .amount(command.amount())
+                .currency(command.currency())
+                .state(TransferState.STARTED)
+                .build();
+    }
+
+    // Written through the same JSON template the service caches responses with
+    private void cache(TransferCommand command, CachedTransfer cached) {
+        redisTemplate.opsForValue().set(LOCK_PREFIX + command.idempotencyKey(), cached, Duration.ofMinutes(1)).block();
+    }
+
+    // Raw value, as the acquire script stores its lock marker
+    private void lock(TransferCommand command, String value) {
+        stringRedisTemplate.opsForValue().set(LOCK_PREFIX + command.idempotencyKey(), value, Duration.ofMinutes(1)).block();
+    }
+}
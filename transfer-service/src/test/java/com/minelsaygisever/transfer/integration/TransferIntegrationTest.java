@@ -5,12 +5,17 @@ import com.minelsaygisever.common.domain.enums.EventType;
 import com.minelsaygisever.common.event.debit.TransferInitiatedEvent;
 import com.minelsaygisever.transfer.domain.enums.AggregateType;
 import com.minelsaygisever.transfer.domain.enums.OutboxStatus;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.dto.BatchTransferApiRequest;
+import com.minelsaygisever.transfer.dto.BatchTransferItemRequest;
+import com.minelsaygisever.transfer.dto.BatchTransferResponse;
 import com.minelsaygisever.transfer.dto.TransferApiRequest;
 import com.minelsaygisever.transfer.dto.TransferCommand;
 import com.minelsaygisever.transfer.dto.TransferResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusListResponse;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
 import com.minelsaygisever.transfer.repository.OutboxRepository;
 import com.minelsaygisever.transfer.repository.TransferRepository;
-import com.minelsaygisever.transfer.util.IdempotencyHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +25,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
@@ -28,6 +35,7 @@ import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -119,15 +127,14 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
     @Test
     @DisplayName("Hasher: should throw when amount has >2 decimals")
     void shouldThrow_WhenAmountScaleIsGreaterThan2() {
-        TransferCommand cmd = new TransferCommand(
+        // The command hashes its payload on construction
+        assertThatThrownBy(() -> new TransferCommand(
                 "key",
                 "1",
                 "2",
                 new BigDecimal("10.123"),
                 "try"
-        );
-
-        assertThatThrownBy(() -> IdempotencyHasher.hash(cmd))
+        ))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("at most 2 decimal places");
     }
@@ -296,4 +303,229 @@ class TransferIntegrationTest extends AbstractIntegrationTest {
                 .expectNext(1L)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Batch: Should initiate new transfers in one request and return per-item results")
+    void shouldInitiateBatch_AndReturnPerItemResults() {
+        String existingKey = UUID.randomUUID().toString();
+        String newKey = UUID.randomUUID().toString();
+
+        // 1. Single request first, so the batch meets one already accepted key
+        TransferResponse existing = webTestClient
+                .mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/transfers")
+                .header("x-idempotency-key", existingKey)
+                .bodyValue(new TransferApiRequest("1", "2", new BigDecimal("50.00"), "USD"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransferResponse.class)
+                .getResponseBody()
+                .blockFirst();
+
+        assertThat(existing).isNotNull();
+
+        // 2. Batch: the accepted key with the same payload plus a fresh key
+        BatchTransferApiRequest batch = new BatchTransferApiRequest(List.of(
+                new BatchTransferItemRequest(existingKey, "1", "2", new BigDecimal("50.00"), "USD"),
+                new BatchTransferItemRequest(newKey, "3", "4", new BigDecimal("75.00"), "try")
+        ));
+
+        webTestClient
+                .mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/transfers/batch")
+                .bodyValue(batch)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchTransferResponse.class)
+                .value(response -> {
+                    assertThat(response.results()).hasSize(2);
+
+                    var first = response.results().get(0);
+                    assertThat(first.idempotencyKey()).isEqualTo(existingKey);
+                    assertThat(first.error()).isNull();
+                    assertThat(first.transfer().transactionId()).isEqualTo(existing.transactionId());
+
+                    var second = response.results().get(1);
+                    assertThat(second.idempotencyKey()).isEqualTo(newKey);
+                    assertThat(second.error()).isNull();
+                    assertThat(second.transfer().state().name()).isEqualTo("STARTED");
+                });
+
+        // 3. One new transfer and one new outbox event
+        StepVerifier.create(transferRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier.create(outboxRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+
+        StepVerifier.create(transferRepository.findByIdempotencyKey(newKey))
+                .expectNextMatches(t -> "TRY".equals(t.getCurrency()) && t.getAmount().compareTo(new BigDecimal("75.00")) == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Batch: Same key with DIFFERENT payload -> per-item IDEMPOTENCY_KEY_REUSE")
+    void shouldReportKeyReusePerItem_InBatch() {
+        String key = UUID.randomUUID().toString();
+        BatchTransferApiRequest first = new BatchTransferApiRequest(List.of(
+                new BatchTransferItemRequest(key, "1", "2", new BigDecimal("50.00"), "USD")));
+        BatchTransferApiRequest changed = new BatchTransferApiRequest(List.of(
+                new BatchTransferItemRequest(key, "1", "2", new BigDecimal("60.00"), "USD")));
+
+        webTestClient.mutateWith(mockJwt()).post().uri("/api/v1/transfers/batch")
+                .bodyValue(first)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.mutateWith(mockJwt()).post().uri("/api/v1/transfers/batch")
+                .bodyValue(changed)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].error").isEqualTo("IDEMPOTENCY_KEY_REUSE");
+
+        StepVerifier.create(outboxRepository.count())
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Status: In-flight transfer -> no-cache ETag, 304 only while the state is unchanged")
+    void shouldReturnStatus_WithRevalidatingETag_WhileInFlight() {
+        UUID transactionId = initiate("1", "2");
+
+        String eTag = webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", transactionId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("STARTED")
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", transactionId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        transferRepository.transitionState(transactionId, TransferState.STARTED, TransferState.DEBITED, null).block();
+
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", transactionId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("DEBITED");
+    }
+
+    @Test
+    @DisplayName("Status: Terminal transfer -> immutable Cache-Control and 304 without reading transfers")
+    void shouldAnswerTerminalStatus_FromETag() {
+        UUID transactionId = initiate("1", "2");
+        transferRepository.transitionState(transactionId, TransferState.STARTED, TransferState.DEBIT_FAILED, "Insufficient funds").block();
+
+        String eTag = webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", transactionId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.CACHE_CONTROL, value -> assertThat(value).contains("immutable"))
+                .expectBody()
+                .jsonPath("$.failureReason").isEqualTo("Insufficient funds")
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        // Terminal states never change, so the row is no longer needed to answer
+        transferRepository.deleteAll().block();
+
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", transactionId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+    }
+
+    @Test
+    @DisplayName("Status: Terminal ETag of another transfer -> full lookup, no 304")
+    void shouldIgnoreTerminalETag_OfAnotherTransfer() {
+        UUID finished = initiate("1", "2");
+        UUID inFlight = initiate("3", "4");
+        transferRepository.transitionState(finished, TransferState.STARTED, TransferState.DEBIT_FAILED, "Insufficient funds").block();
+
+        String eTag = webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", finished)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", inFlight)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("STARTED");
+
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", UUID.randomUUID())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Status: Unknown transaction id -> 404 TRANSFER_NOT_FOUND")
+    void shouldReturn404_WhenTransferUnknown() {
+        webTestClient.mutateWith(mockJwt()).get().uri("/api/v1/transfers/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("TRANSFER_NOT_FOUND");
+    }
+
+    @Test
+    @DisplayName("Status: Bulk query returns known transfers in request order and honours If-None-Match")
+    void shouldReturnBulkStatuses_InRequestOrder() {
+        UUID first = initiate("1", "2");
+        UUID second = initiate("3", "4");
+        UUID unknown = UUID.randomUUID();
+
+        String eTag = webTestClient.mutateWith(mockJwt()).get()
+                .uri(uri -> uri.path("/api/v1/transfers").queryParam("ids", second + "," + unknown + "," + first).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransferStatusListResponse.class)
+                .value(response -> assertThat(response.transfers())
+                        .extracting(TransferStatusResponse::transactionId)
+                        .containsExactly(second, first))
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.mutateWith(mockJwt()).get()
+                .uri(uri -> uri.path("/api/v1/transfers").queryParam("ids", second + "," + unknown + "," + first).build())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    private UUID initiate(String senderAccountId, String receiverAccountId) {
+        TransferResponse response = webTestClient
+                .mutateWith(mockJwt())
+                .post()
+                .uri("/api/v1/transfers")
+                .header("x-idempotency-key", UUID.randomUUID().toString())
+                .bodyValue(new TransferApiRequest(senderAccountId, receiverAccountId, new BigDecimal("10.00"), "TRY"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TransferResponse.class)
+                .getResponseBody()
+                .blockFirst();
+
+        assertThat(response).isNotNull();
+        return response.transactionId();
+    }
+}
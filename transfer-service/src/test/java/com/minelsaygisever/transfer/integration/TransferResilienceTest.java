@@ -18,6 +18,7 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -35,7 +36,7 @@ class TransferResilienceTest extends AbstractIntegrationTest {
 
     @BeforeEach
     void setupMock() {
-        when(transferRepository.findByStateInAndUpdatedAtBefore(any(), any()))
+        when(transferRepository.findStalePage(any(), any(), anyInt()))
                 .thenReturn(Flux.empty());
     }
 
@@ -0,0 +1,124 @@
+package com.minelsaygisever.transfer.job;
+
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.repository.TransferRepository;
+import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SagaReconciliationJobTest {
+
+    private static final int CONCURRENCY = 2;
+
+    @Mock private TransferRepository transferRepository;
+    @Mock private TransferSagaOrchestrator orchestrator;
+    @Mock private TransferProperties properties;
+
+    private SagaReconciliationJob job;
+
+    @BeforeEach
+    void setup() {
+        when(properties.reconciliation()).thenReturn(new TransferProperties.ReconciliationProperties(
+                Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofHours(1), 10, CONCURRENCY));
+
+        job = new SagaReconciliationJob(transferRepository, orchestrator, properties);
+    }
+
+    @Test
+    @DisplayName("Guard: A run that overlaps one in progress is skipped, and the guard resets once it completes")
+    void shouldSkipOverlappingRun_AndResetAfterCompletion() {
+        // Arrange: the first run's page stays open until the test completes it
+        Sinks.Empty<Void> firstPage = Sinks.empty();
+        when(transferRepository.findStalePage(any(), any(), anyInt()))
+                .thenReturn(firstPage.asMono().thenMany(Flux.<Transfer>empty()))
+                .thenReturn(Flux.empty());
+
+        // Act
+        job.scanStuckTransfers();
+        job.scanStuckTransfers();
+
+        // Assert: the overlapping run never queried
+        verify(transferRepository, times(1)).findStalePage(any(), any(), anyInt());
+
+        firstPage.tryEmitEmpty();
+        job.scanStuckTransfers();
+
+        verify(transferRepository, times(2)).findStalePage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Guard: A run that fails releases the guard for the next run")
+    void shouldResetGuard_AfterError() {
+        when(transferRepository.findStalePage(any(), any(), anyInt()))
+                .thenReturn(Flux.error(new IllegalStateException("DB down")))
+                .thenReturn(Flux.empty());
+
+        job.scanStuckTransfers();
+        job.scanStuckTransfers();
+
+        verify(transferRepository, times(2)).findStalePage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Concurrency: No more transfers are reconciled at once than configured")
+    void shouldStayWithinConcurrencyBound() {
+        // Arrange
+        when(transferRepository.findStalePage(any(), any(), anyInt()))
+                .thenReturn(Flux.fromStream(IntStream.range(0, 6).mapToObj(i -> debited((long) i))));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        when(orchestrator.handleTimeout(any())).thenAnswer(inv -> Mono.delay(Duration.ofMillis(50))
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    done.incrementAndGet();
+                })
+                .then());
+
+        // Act
+        job.scanStuckTransfers();
+
+        // Assert
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(done.get()).isEqualTo(6));
+        assertThat(maxInFlight.get()).isEqualTo(CONCURRENCY);
+    }
+
+    private Transfer debited(Long id) {
+        return Transfer.builder()
+                .id(id)
+                .transactionId(UUID.randomUUID())
+                .senderAccountId("A")
+                .receiverAccountId("B")
+                .amount(BigDecimal.TEN)
+                .currency("TRY")
+                .state(TransferState.DEBITED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now().minusMinutes(10))
+                .build();
+    }
+}
@@ -6,26 +6,35 @@ import com.minelsaygisever.transfer.domain.enums.TransferState;
 import com.minelsaygisever.transfer.integration.AbstractIntegrationTest;
 import com.minelsaygisever.transfer.repository.OutboxRepository;
 import com.minelsaygisever.transfer.repository.TransferRepository;
+import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+// Small pages, so a handful of rows already spans several keyset pages
+@TestPropertySource(properties = "transfer.reconciliation.page-size=2")
 class SagaReconciliationTest extends AbstractIntegrationTest {
 
     @Autowired
@@ -43,6 +52,9 @@ class SagaReconciliationTest extends AbstractIntegrationTest {
     @Autowired
     private ReactiveRedisTemplate<String, Object> redisTemplate;
 
+    @MockitoSpyBean
+    private TransferSagaOrchestrator orchestrator;
+
     @BeforeEach
     void setup() {
         transferRepository.deleteAll().block();
@@ -233,4 +245,46 @@ class SagaReconciliationTest extends AbstractIntegrationTest {
                     assertThat(finalState.getState()).isEqualTo(TransferState.REFUND_FAILED);
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("JOB: Should page through stuck transfers sharing one updated_at without skipping or repeating any")
+    void shouldVisitEveryStuckTransferOnce_WhenPagesShareUpdatedAt() {
+        // Five rows, one timestamp: pages of two split rows whose updated_at ties, so only the id tells them apart
+        List<UUID> transactionIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        for (UUID transactionId : transactionIds) {
+            transferRepository.save(Transfer.builder()
+                    .idempotencyKey("page-" + transactionId)
+                    .transactionId(transactionId)
+                    .senderAccountId("A")
+                    .receiverAccountId("B")
+                    .amount(BigDecimal.TEN)
+                    .currency("TRY")
+                    .requestHash("hash-page")
+                    .state(TransferState.DEBITED)
+                    .createdAt(LocalDateTime.now())
+                    .build()).block();
+        }
+
+        databaseClient.sql("UPDATE transfers SET updated_at = $1")
+                .bind(0, LocalDateTime.now().minusMinutes(10).withNano(0))
+                .fetch()
+                .rowsUpdated()
+                .block();
+
+        // ACT
+        reconciliationJob.scanStuckTransfers();
+
+        await()
+            .atMost(java.time.Duration.ofSeconds(5))
+            .untilAsserted(() -> assertThat(transferRepository.findAll()
+                    .filter(t -> t.getState() == TransferState.REFUND_INITIATED)
+                    .count()
+                    .block()).isEqualTo(transactionIds.size()));
+
+        ArgumentCaptor<Transfer> handled = ArgumentCaptor.forClass(Transfer.class);
+        verify(orchestrator, atLeastOnce()).handleTimeout(handled.capture());
+        assertThat(handled.getAllValues())
+                .extracting(Transfer::getTransactionId)
+                .containsExactlyInAnyOrderElementsOf(transactionIds);
+    }
+}
@@ -0,0 +1,175 @@
+package com.minelsaygisever.transfer.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventCodec;
+import com.minelsaygisever.common.domain.enums.EventType;
+import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.repository.OutboxRepository;
+import com.minelsaygisever.transfer.service.EventFlowMetrics;
+import com.minelsaygisever.transfer.service.TransferSagaOrchestrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferSagaListenerTest {
+
+    @Mock
+    private TransferSagaOrchestrator orchestrator;
+    @Mock private StreamBridge streamBridge;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransferSagaListener listener;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        TransferProperties properties = mock(TransferProperties.class);
+        when(properties.consumer()).thenReturn(
+                new TransferProperties.ConsumerProperties(4, 2, Duration.ofMillis(1), "transfer-saga-dlq-0"));
+
+        listener = new TransferSagaListener(orchestrator, objectMapper, streamBridge, properties,
+                new EventFlowMetrics(meterRegistry, mock(OutboxRepository.class)));
+    }
+
+    @Test
+    @DisplayName("Ordering: Events of the same saga are handled one after another and acked after completion")
+    void shouldHandleSameTransactionInOrder_AndAckAfterCompletion() throws Exception {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        List<String> calls = new CopyOnWriteArrayList<>();
+
+        when(orchestrator.handleDebitSuccess(any())).thenReturn(
+                Mono.delay(Duration.ofMillis(100))
+                        .doOnSubscribe(s -> calls.add("debit-start"))
+                        .doOnSuccess(v -> calls.add("debit-end"))
+                        .then());
+        when(orchestrator.handleCreditSuccess(any())).thenReturn(
+                Mono.fromRunnable(() -> calls.add("credit")));
+
+        Acknowledgment debitAck = mock(Acknowledgment.class);
+        Acknowledgment creditAck = mock(Acknowledgment.class);
+
+        var debit = message(EventType.ACCOUNT_DEBITED,
+                new AccountDebitedEvent(txId, "A", BigDecimal.TEN, "TRY"), debitAck);
+        var credit = message(EventType.ACCOUNT_CREDITED,
+                new AccountCreditedEvent(txId, "B", BigDecimal.TEN, "TRY"), creditAck);
+
+        // Act
+        StepVerifier.create(listener.onAccountEvent().apply(Flux.just(debit, credit)))
+                .verifyComplete();
+
+        // Assert
+        assertThat(calls).containsExactly("debit-start", "debit-end", "credit");
+        verify(debitAck).acknowledge();
+        verify(creditAck).acknowledge();
+    }
+
+    @Test
+    @DisplayName("DLQ: Event is dead-lettered and acked after retries are exhausted")
+    void shouldSendToDlq_WhenOrchestratorKeepsFailing() throws Exception {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(orchestrator.handleDebitSuccess(any())).thenReturn(Mono.error(new RuntimeException("DB down")));
+        when(streamBridge.send(eq("transfer-saga-dlq-0"), any(Message.class))).thenReturn(true);
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+        var debit = message(EventType.ACCOUNT_DEBITED,
+                new AccountDebitedEvent(txId, "A", BigDecimal.TEN, "TRY"), ack);
+
+        // Act
+        StepVerifier.create(listener.onAccountEvent().apply(Flux.just(debit)))
+                .verifyComplete();
+
+        // Assert
+        verify(streamBridge).send(eq("transfer-saga-dlq-0"), any(Message.class));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Metrics: Transit time is taken from the producedAt header and handler time is tagged by event type")
+    void shouldRecordTransitAndHandlerTime() throws Exception {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(orchestrator.handleDebitSuccess(any())).thenReturn(Mono.empty());
+
+        Message<byte[]> debit = MessageBuilder.fromMessage(message(EventType.ACCOUNT_DEBITED,
+                        new AccountDebitedEvent(txId, "A", BigDecimal.TEN, "TRY"), mock(Acknowledgment.class)))
+                .setHeader(EventFlowMetrics.PRODUCED_AT_HEADER,
+                        String.valueOf(System.currentTimeMillis() - 2000).getBytes())
+                .build();
+
+        // Act
+        StepVerifier.create(listener.onAccountEvent().apply(Flux.just(debit)))
+                .verifyComplete();
+
+        // Assert
+        var transit = meterRegistry.find("money.transfer.event.transit").tag("type", "ACCOUNT_DEBITED").timer();
+        assertThat(transit.count()).isEqualTo(1);
+        assertThat(transit.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(2000);
+
+        var handler = meterRegistry.find("money.transfer.event.handler.duration").tag("type", "ACCOUNT_DEBITED").timer();
+        assertThat(handler.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Codec: Binary payloads are decoded by content type and dispatched like JSON ones")
+    void shouldDecodeBinaryPayload_WhenContentTypeIsEventCodec() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(orchestrator.handleDebitSuccess(any())).thenReturn(Mono.empty());
+
+        Acknowledgment ack = mock(Acknowledgment.class);
+        var event = new AccountDebitedEvent(txId, "A", new BigDecimal("10.50"), "TRY");
+        Message<byte[]> debit = MessageBuilder.withPayload(EventCodec.encode(event))
+                .setHeader("eventType", EventType.ACCOUNT_DEBITED.name().getBytes())
+                .setHeader(MessageHeaders.CONTENT_TYPE, EventCodec.CONTENT_TYPE)
+                .setHeader(KafkaHeaders.ACKNOWLEDGMENT, ack)
+                .build();
+
+        // Act
+        StepVerifier.create(listener.onAccountEvent().apply(Flux.just(debit)))
+                .verifyComplete();
+
+        // Assert
+        verify(orchestrator).handleDebitSuccess(event);
+        verify(ack).acknowledge();
+    }
+
+    private Message<byte[]> message(EventType type, Object event, Acknowledgment ack) throws Exception {
+        return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(event))
+                .setHeader("eventType", type.name().getBytes())
+                .setHeader(KafkaHeaders.ACKNOWLEDGMENT, ack)
+                .build();
+    }
+}
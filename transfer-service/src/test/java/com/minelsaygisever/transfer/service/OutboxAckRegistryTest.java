@@ -0,0 +1,68 @@
+package com.minelsaygisever.transfer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class OutboxAckRegistryTest {
+
+    private PublishSubscribeChannel ackChannel;
+    private PublishSubscribeChannel errorChannel;
+    private OutboxAckRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        ackChannel = new PublishSubscribeChannel();
+        errorChannel = new PublishSubscribeChannel();
+        registry = new OutboxAckRegistry(ackChannel, errorChannel);
+    }
+
+    @Test
+    @DisplayName("Ack: Tracked send completes when the broker ack for its outbox ID arrives")
+    void shouldComplete_WhenAckArrives() {
+        // Arrange
+        Message<String> sent = message(1L);
+
+        // Act & Assert
+        StepVerifier.create(registry.track(1L, () -> ackChannel.send(sent)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Failure: Tracked send errors when the producer reports a failure for its outbox ID")
+    void shouldError_WhenSendFails() {
+        // Arrange
+        Message<String> sent = message(2L);
+        MessagingException failure = new MessagingException(sent, "Broker unavailable");
+
+        // Act & Assert
+        StepVerifier.create(registry.track(2L, () -> errorChannel.send(new ErrorMessage(failure))))
+                .expectErrorMessage("Broker unavailable")
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Correlation: Acks for other outbox IDs do not complete the tracked send")
+    void shouldIgnoreAcksForOtherIds() {
+        // Act & Assert
+        StepVerifier.create(registry.track(3L, () -> ackChannel.send(message(4L))))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+    }
+
+    private Message<String> message(Long outboxId) {
+        return MessageBuilder.withPayload("{}")
+                .setHeader(OutboxAckRegistry.OUTBOX_ID_HEADER, outboxId)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.minelsaygisever.transfer.service;
+
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.service.SagaMetrics.SagaOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SagaMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SagaMetrics sagaMetrics;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        TransferProperties properties = mock(TransferProperties.class);
+        when(properties.metrics()).thenReturn(new TransferProperties.MetricsProperties(
+                List.of("TRY"), 1, List.of(Duration.ofSeconds(1)), Duration.ofSeconds(15)));
+
+        sagaMetrics = new SagaMetrics(meterRegistry, properties);
+    }
+
+    @Test
+    @DisplayName("Metrics: Should pre-register timers and counters for configured currencies")
+    void shouldPreRegisterMeters() {
+        // Assert
+        assertThat(meterRegistry.find(SagaMetrics.SAGA_DURATION).tag("currency", "TRY").timers())
+                .hasSize(SagaOutcome.values().length);
+        assertThat(meterRegistry.find(SagaMetrics.REFUND_COUNT).tag("currency", "TRY").counters())
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Metrics: Should fold currencies beyond the limit into the OTHER tag")
+    void shouldFoldUnknownCurrencies_WhenLimitReached() {
+        // Act
+        sagaMetrics.recordSagaDuration(transfer("USD"), SagaOutcome.SUCCESS);
+        sagaMetrics.recordSagaDuration(transfer("GBP"), SagaOutcome.SUCCESS);
+
+        // Assert
+        assertThat(meterRegistry.find(SagaMetrics.SAGA_DURATION).tag("currency", "USD").tag("status", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(SagaMetrics.SAGA_DURATION).tag("currency", "GBP").timer()).isNull();
+        assertThat(meterRegistry.find(SagaMetrics.SAGA_DURATION).tag("currency", SagaMetrics.OTHER_CURRENCY).tag("status", "success").timer().count())
+                .isEqualTo(1);
+    }
+
+    private Transfer transfer(String currency) {
+        return Transfer.builder()
+                .currency(currency)
+                .createdAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.minelsaygisever.transfer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class SagaTimeoutSchedulerTest {
+
+    private TransferEventHub eventHub;
+    private SagaTimeoutScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        TransferProperties properties = mock(TransferProperties.class);
+        when(properties.timeoutWheel()).thenReturn(
+                new TransferProperties.TimeoutWheelProperties(true, Duration.ofMillis(10), 64));
+        when(properties.reconciliation()).thenReturn(
+                new TransferProperties.ReconciliationProperties(Duration.ofMinutes(1), Duration.ofMillis(50), Duration.ofHours(1), 500, 8));
+        when(properties.events()).thenReturn(new TransferProperties.EventsProperties(
+                Duration.ofSeconds(15), Duration.ofMinutes(10), false, "transfer_status_events"));
+
+        eventHub = new TransferEventHub(null, new ObjectMapper(), properties);
+        scheduler = new SagaTimeoutScheduler(properties, eventHub);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    @DisplayName("Timeout Wheel: Fires the timeout action once the threshold has passed")
+    void shouldFireTimeout_AfterThreshold() {
+        AtomicInteger fired = new AtomicInteger();
+
+        scheduler.schedule(UUID.randomUUID(), () -> Mono.fromRunnable(fired::incrementAndGet));
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> assertThat(fired.get()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Timeout Wheel: Cancelled and re-armed timeouts do not fire")
+    void shouldNotFire_WhenCancelledOrReplaced() throws InterruptedException {
+        UUID cancelled = UUID.randomUUID();
+        UUID rearmed = UUID.randomUUID();
+        AtomicInteger fired = new AtomicInteger();
+
+        scheduler.schedule(cancelled, () -> Mono.fromRunnable(fired::incrementAndGet));
+        scheduler.cancel(cancelled);
+
+        // Only the latest timeout of a saga counts
+        scheduler.schedule(rearmed, () -> Mono.fromRunnable(() -> fired.addAndGet(100)));
+        scheduler.schedule(rearmed, () -> Mono.fromRunnable(fired::incrementAndGet));
+
+        Thread.sleep(300);
+
+        assertThat(fired.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Timeout Wheel: A state change past DEBITED cancels the timeout, wherever the saga step ran")
+    void shouldNotFire_WhenSagaMovedPastDebited() throws InterruptedException {
+        UUID completed = UUID.randomUUID();
+        UUID stillDebited = UUID.randomUUID();
+        AtomicInteger fired = new AtomicInteger();
+
+        scheduler.schedule(completed, () -> Mono.fromRunnable(() -> fired.addAndGet(100)));
+        scheduler.schedule(stillDebited, () -> Mono.fromRunnable(fired::incrementAndGet));
+
+        // As relayed from the replica that consumed the credit result
+        eventHub.publish(Transfer.builder().transactionId(completed).state(TransferState.COMPLETED).version(3L).build());
+        eventHub.publish(Transfer.builder().transactionId(stillDebited).state(TransferState.DEBITED).version(2L).build());
+
+        Thread.sleep(300);
+
+        assertThat(fired.get()).isEqualTo(1);
+    }
+}
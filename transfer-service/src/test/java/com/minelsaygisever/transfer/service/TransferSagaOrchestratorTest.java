@@ -1,9 +1,16 @@
 package com.minelsaygisever.transfer.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.common.codec.EventPayloadSerializer;
+import com.minelsaygisever.common.codec.PayloadFormat;
+import com.minelsaygisever.common.event.credit.AccountCreditFailedEvent;
 import com.minelsaygisever.common.event.credit.AccountCreditedEvent;
+import com.minelsaygisever.common.event.credit.TransferDepositRequestedEvent;
 import com.minelsaygisever.common.event.debit.AccountDebitFailedEvent;
+import com.minelsaygisever.common.event.debit.AccountDebitedEvent;
 import com.minelsaygisever.common.event.refund.AccountRefundedEvent;
+import com.minelsaygisever.common.event.refund.TransferRefundRequestedEvent;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Outbox;
 import com.minelsaygisever.transfer.domain.Transfer;
 import com.minelsaygisever.transfer.domain.enums.TransferState;
 import com.minelsaygisever.transfer.repository.OutboxRepository;
@@ -20,7 +27,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -33,7 +42,9 @@ class TransferSagaOrchestratorTest {
     @Mock
     private TransferRepository transferRepository;
     @Mock private OutboxRepository outboxRepository;
-    @Mock private ObjectMapper objectMapper;
+    @Mock private EventPayloadSerializer payloadSerializer;
+    @Mock private SagaTimeoutScheduler timeoutScheduler;
+    @Mock private TransferEventHub eventHub;
 
     private SimpleMeterRegistry meterRegistry;
 
@@ -42,11 +53,15 @@ class TransferSagaOrchestratorTest {
     @BeforeEach
     void setup() {
         meterRegistry = new SimpleMeterRegistry();
+        TransferProperties properties = mock(TransferProperties.class);
+        when(properties.metrics()).thenReturn(new TransferProperties.MetricsProperties(
+                List.of("TRY", "USD", "EUR"), 32, List.of(Duration.ofSeconds(1), Duration.ofSeconds(5)), Duration.ofSeconds(15)));
         TransactionalOperator txOp = mock(TransactionalOperator.class);
-        when(txOp.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(txOp.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
 
         orchestrator = new TransferSagaOrchestrator(
-                transferRepository, outboxRepository, objectMapper, txOp, meterRegistry
+                transferRepository, outboxRepository, payloadSerializer, txOp, new SagaMetrics(meterRegistry, properties), timeoutScheduler,
+                eventHub
         );
     }
 
@@ -60,13 +75,13 @@ class TransferSagaOrchestratorTest {
         Transfer transfer = Transfer.builder()
                 .id(1L)
                 .transactionId(txId)
-                .state(TransferState.DEBITED)
+                .state(TransferState.COMPLETED)
                 .currency("USD")
                 .createdAt(startTime)
                 .build();
 
-        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer));
-        when(transferRepository.save(any())).thenReturn(Mono.just(transfer));
+        when(transferRepository.transitionState(txId, TransferState.DEBITED, TransferState.COMPLETED, null))
+                .thenReturn(Mono.just(transfer));
 
         AccountCreditedEvent event = new AccountCreditedEvent(txId, "receiver", BigDecimal.TEN, "USD");
 
@@ -77,11 +92,15 @@ class TransferSagaOrchestratorTest {
         // Assert Metrics
         assertThat(meterRegistry.getMeters()).isNotEmpty();
 
-        var timer = meterRegistry.find("money.transfer.saga.duration").timer();
+        var timer = meterRegistry.find("money.transfer.saga.duration")
+                .tag("currency", "USD").tag("status", "success").timer();
         assertThat(timer).isNotNull();
         assertThat(timer.count()).isEqualTo(1);
         assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThan(1000);
         assertThat(timer.getId().getTag("status")).isEqualTo("success");
+
+        // Assert Stream: the committed change goes out to status subscribers
+        verify(eventHub).publish(transfer);
     }
 
     @Test
@@ -92,14 +111,14 @@ class TransferSagaOrchestratorTest {
         Transfer transfer = Transfer.builder()
                 .id(1L)
                 .transactionId(txId)
-                .state(TransferState.REFUND_INITIATED)
+                .state(TransferState.REFUNDED)
                 .currency("TRY")
                 .createdAt(LocalDateTime.now())
                 .failureReason("User not found")
                 .build();
 
-        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer));
-        when(transferRepository.save(any())).thenReturn(Mono.just(transfer));
+        when(transferRepository.transitionState(txId, TransferState.REFUND_INITIATED, TransferState.REFUNDED, null))
+                .thenReturn(Mono.just(transfer));
 
         AccountRefundedEvent event = new AccountRefundedEvent(txId, "sender", BigDecimal.TEN, "TRY");
 
@@ -108,15 +127,17 @@ class TransferSagaOrchestratorTest {
                 .verifyComplete();
 
         // Assert Counter
-        var counter = meterRegistry.find("money.transfer.refund.count").counter();
+        var counter = meterRegistry.find("money.transfer.refund.count")
+                .tag("currency", "TRY").tag("reason", "business_error").counter();
         assertThat(counter).isNotNull();
         assertThat(counter.count()).isEqualTo(1.0);
         assertThat(counter.getId().getTag("currency")).isEqualTo("TRY");
 
         // Assert Timer
-        var timer = meterRegistry.find("money.transfer.saga.duration").timer();
+        var timer = meterRegistry.find("money.transfer.saga.duration")
+                .tag("currency", "TRY").tag("status", "refunded").timer();
         assertThat(timer).isNotNull();
-        assertThat(timer.getId().getTag("status")).isEqualTo("refunded");
+        assertThat(timer.count()).isEqualTo(1);
     }
 
     @Test
@@ -127,13 +148,13 @@ class TransferSagaOrchestratorTest {
         Transfer transfer = Transfer.builder()
                 .id(1L)
                 .transactionId(txId)
-                .state(TransferState.STARTED)
+                .state(TransferState.DEBIT_FAILED)
                 .currency("EUR")
                 .createdAt(LocalDateTime.now().minusSeconds(1))
                 .build();
 
-        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer));
-        when(transferRepository.save(any())).thenReturn(Mono.just(transfer));
+        when(transferRepository.transitionState(txId, TransferState.STARTED, TransferState.DEBIT_FAILED, null))
+                .thenReturn(Mono.just(transfer));
 
         AccountDebitFailedEvent event = new AccountDebitFailedEvent(txId, "sender", BigDecimal.TEN, "EUR", "Insufficient Funds");
 
@@ -142,10 +163,122 @@ class TransferSagaOrchestratorTest {
                 .verifyComplete();
 
         // Assert Timer
-        var timer = meterRegistry.find("money.transfer.saga.duration").timer();
+        var timer = meterRegistry.find("money.transfer.saga.duration")
+                .tag("currency", "EUR").tag("status", "failed_debit").timer();
         assertThat(timer).isNotNull();
         assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("CAS: Redelivered Credit Success is a no-op when the transfer already left DEBITED")
+    void shouldIgnoreCreditSuccess_WhenTransitionDoesNotApply() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(transferRepository.transitionState(txId, TransferState.DEBITED, TransferState.COMPLETED, null))
+                .thenReturn(Mono.empty());
+
+        AccountCreditedEvent event = new AccountCreditedEvent(txId, "receiver", BigDecimal.TEN, "USD");
+
+        // Act
+        StepVerifier.create(orchestrator.handleCreditSuccess(event))
+                .verifyComplete();
+
+        // Assert
+        assertThat(meterRegistry.find("money.transfer.saga.duration").timers())
+                .allSatisfy(timer -> assertThat(timer.count()).isZero());
+        verify(transferRepository, never()).findByTransactionId(any());
+        verify(transferRepository, never()).save(any());
+        verify(eventHub, never()).publish(any());
+    }
 
-        assertThat(timer.getId().getTag("status")).isEqualTo("failed_debit");
+    @Test
+    @DisplayName("CAS: Debit Success moves to DEBITED and requests the deposit in one statement")
+    void shouldTransitionAndRequestDeposit_WhenDebitSucceeds() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        Transfer transfer = Transfer.builder()
+                .id(1L)
+                .transactionId(txId)
+                .state(TransferState.DEBITED)
+                .build();
+
+        when(transferRepository.transitionAndRequestDeposit(txId, TransferState.STARTED, TransferState.DEBITED))
+                .thenReturn(Mono.just(transfer));
+
+        AccountDebitedEvent event = new AccountDebitedEvent(txId, "sender", BigDecimal.TEN, "USD");
+
+        // Act
+        StepVerifier.create(orchestrator.handleDebitSuccess(event))
+                .verifyComplete();
+
+        // Assert
+        verify(transferRepository).transitionAndRequestDeposit(txId, TransferState.STARTED, TransferState.DEBITED);
+        verifyNoInteractions(outboxRepository);
+        verify(timeoutScheduler).schedule(eq(txId), any());
+    }
+
+    @Test
+    @DisplayName("Codec: BINARY payloads -> deposit and refund commands go through the serializer, not json_build_object")
+    void shouldWriteCommandsThroughSerializer_WhenPayloadFormatIsBinary() throws Exception {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        Transfer debited = transfer(txId, TransferState.DEBITED);
+        Transfer refunding = transfer(txId, TransferState.REFUND_INITIATED);
+
+        when(payloadSerializer.format()).thenReturn(PayloadFormat.BINARY);
+        when(payloadSerializer.toOutboxPayload(any())).thenReturn("AQ==");
+        when(transferRepository.transitionState(txId, TransferState.STARTED, TransferState.DEBITED, null))
+                .thenReturn(Mono.just(debited));
+        when(transferRepository.transitionState(txId, TransferState.DEBITED, TransferState.REFUND_INITIATED, null))
+                .thenReturn(Mono.just(refunding));
+        when(outboxRepository.save(any(Outbox.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        // Act
+        StepVerifier.create(orchestrator.handleDebitSuccess(new AccountDebitedEvent(txId, "sender", BigDecimal.TEN, "USD"))
+                        .then(orchestrator.handleCreditFail(new AccountCreditFailedEvent(txId, "receiver", BigDecimal.TEN, "USD", "Account is not ACTIVE"))))
+                .verifyComplete();
+
+        // Assert
+        verify(payloadSerializer).toOutboxPayload(new TransferDepositRequestedEvent(txId, "receiver", BigDecimal.TEN, "USD"));
+        verify(payloadSerializer).toOutboxPayload(new TransferRefundRequestedEvent(
+                txId, "sender", BigDecimal.TEN, "USD", "Rollback due to Credit Failure: Account is not ACTIVE"));
+        verify(outboxRepository, times(2)).save(argThat(outbox -> outbox.getPayload().equals("AQ==")));
+        verify(transferRepository, never()).transitionAndRequestDeposit(any(), any(), any());
+        verify(transferRepository, never()).transitionAndRequestRefund(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Timeout Wheel: Credit Success cancels the armed saga timeout")
+    void shouldCancelTimeout_WhenCreditSucceeds() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        Transfer transfer = Transfer.builder()
+                .id(1L)
+                .transactionId(txId)
+                .state(TransferState.COMPLETED)
+                .currency("USD")
+                .build();
+
+        when(transferRepository.transitionState(txId, TransferState.DEBITED, TransferState.COMPLETED, null))
+                .thenReturn(Mono.just(transfer));
+
+        // Act
+        StepVerifier.create(orchestrator.handleCreditSuccess(new AccountCreditedEvent(txId, "receiver", BigDecimal.TEN, "USD")))
+                .verifyComplete();
+
+        // Assert
+        verify(timeoutScheduler).cancel(txId);
+    }
+
+    private Transfer transfer(UUID txId, TransferState state) {
+        return Transfer.builder()
+                .id(1L)
+                .transactionId(txId)
+                .senderAccountId("sender")
+                .receiverAccountId("receiver")
+                .amount(BigDecimal.TEN)
+                .currency("USD")
+                .state(state)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.minelsaygisever.transfer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minelsaygisever.transfer.config.TransferProperties;
+import com.minelsaygisever.transfer.domain.Transfer;
+import com.minelsaygisever.transfer.domain.enums.TransferState;
+import com.minelsaygisever.transfer.dto.TransferStatusResponse;
+import com.minelsaygisever.transfer.exception.TransferNotFoundException;
+import com.minelsaygisever.transfer.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransferStatusServiceTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private TransferProperties properties;
+
+    private TransferEventHub eventHub;
+
+    private TransferStatusService statusService;
+
+    @BeforeEach
+    void setup() {
+        when(properties.status()).thenReturn(new TransferProperties.StatusProperties(100, Duration.ofDays(1), 10));
+        when(properties.events()).thenReturn(new TransferProperties.EventsProperties(
+                Duration.ofSeconds(15), Duration.ofMinutes(10), false, "transfer_status_events"));
+
+        eventHub = new TransferEventHub(null, new ObjectMapper(), properties);
+        statusService = new TransferStatusService(transferRepository, properties, eventHub);
+    }
+
+    @Test
+    @DisplayName("Watch: Should emit the current status, then newer changes, and complete at a terminal state")
+    void watch_ShouldStreamChangesUntilTerminal() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer(txId, TransferState.STARTED, 0L)));
+
+        // Act & Assert
+        StepVerifier.create(statusService.watch(txId))
+                .expectNextMatches(status -> status.state() == TransferState.STARTED)
+                .then(() -> {
+                    eventHub.publish(transfer(txId, TransferState.DEBITED, 1L));
+                    // Redelivered relay of an older change
+                    eventHub.publish(transfer(txId, TransferState.DEBITED, 1L));
+                    eventHub.publish(transfer(UUID.randomUUID(), TransferState.COMPLETED, 2L));
+                    eventHub.publish(transfer(txId, TransferState.COMPLETED, 2L));
+                })
+                .expectNextMatches(status -> status.state() == TransferState.DEBITED)
+                .expectNextMatches(status -> status.state() == TransferState.COMPLETED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Watch: Should complete right after the current status when the transfer is already terminal")
+    void watch_ShouldCompleteImmediately_WhenTerminal() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer(txId, TransferState.REFUNDED, 4L)));
+
+        // Act & Assert
+        StepVerifier.create(statusService.watch(txId))
+                .expectNextMatches(status -> status.state() == TransferState.REFUNDED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Watch: Should fail with TransferNotFoundException for an unknown transfer")
+    void watch_ShouldFail_WhenTransferUnknown() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(statusService.watch(txId))
+                .expectError(TransferNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Watch: Multi-transfer stream completes once every known transfer is terminal")
+    void watch_ShouldTrackManyTransfers() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(transferRepository.findByTransactionIdIn(any())).thenReturn(Flux.just(
+                transfer(first, TransferState.DEBITED, 1L),
+                transfer(second, TransferState.COMPLETED, 2L)));
+
+        // Act & Assert
+        StepVerifier.create(statusService.watch(List.of(first, second, unknown)))
+                .expectNextCount(2)
+                .then(() -> eventHub.publish(transfer(first, TransferState.COMPLETED, 2L)))
+                .expectNextMatches(status -> status.transactionId().equals(first) && status.state() == TransferState.COMPLETED)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Status: Should serve terminal statuses from memory after the first read")
+    void findStatus_ShouldCacheTerminalStates() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        when(transferRepository.findByTransactionId(txId)).thenReturn(Mono.just(transfer(txId, TransferState.COMPLETED, 2L)));
+
+        // Act
+        StepVerifier.create(statusService.findStatus(txId).then(statusService.findStatus(txId)))
+                .expectNextMatches(status -> status.state() == TransferState.COMPLETED)
+                .verifyComplete();
+
+        // Assert
+        verify(transferRepository, times(1)).findByTransactionId(txId);
+    }
+
+    @Test
+    @DisplayName("ETag: A terminal tag is only recognised for the transfer it was issued for")
+    void isTerminalETag_ShouldBeBoundToTransactionId() {
+        // Arrange
+        UUID txId = UUID.randomUUID();
+        String completed = TransferStatusService.eTag(TransferStatusResponse.from(transfer(txId, TransferState.COMPLETED, 3L)));
+        String debited = TransferStatusService.eTag(TransferStatusResponse.from(transfer(txId, TransferState.DEBITED, 1L)));
+
+        // Act & Assert
+        assertThat(TransferStatusService.isTerminalETag(completed, txId)).isTrue();
+        assertThat(TransferStatusService.isTerminalETag(completed, UUID.randomUUID())).isFalse();
+        assertThat(TransferStatusService.isTerminalETag(debited, txId)).isFalse();
+        assertThat(TransferStatusService.isTerminalETag("\"3-COMPLETED\"", txId)).isFalse();
+    }
+
+    private Transfer transfer(UUID txId, TransferState state, Long version) {
+        return Transfer.builder()
+                .transactionId(txId)
+                .state(state)
+                .version(version)
+                .build();
+    }
+}